@@ -0,0 +1,160 @@
+package sqlancer.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.beust.jcommander.JCommander;
+
+import sqlancer.DBMSSpecificOptions;
+import sqlancer.DatabaseProvider;
+import sqlancer.MainOptions;
+import sqlancer.Randomly;
+import sqlancer.SQLConnection;
+import sqlancer.SQLGlobalState;
+import sqlancer.duckdb.DuckDBOptions;
+import sqlancer.duckdb.DuckDBProvider;
+import sqlancer.h2.H2Options;
+import sqlancer.h2.H2Provider;
+import sqlancer.sqlite3.SQLite3Options;
+import sqlancer.sqlite3.SQLite3Provider;
+
+/**
+ * Creates the embedded databases that the benchmarks use as fixtures. Each database contains two tables with a fixed
+ * content, so that the benchmarks measure the same work in each run. The databases are created in a temporary
+ * directory, which is deleted when the database is closed.
+ */
+public final class BenchmarkDatabases {
+
+    public static final long SEED = 0;
+    public static final int NR_ROWS = 1000;
+
+    private static final String[] SETUP_STATEMENTS = { "CREATE TABLE t0(c0 INT, c1 INT)",
+            "CREATE TABLE t1(c0 INT, c1 INT)" };
+
+    private BenchmarkDatabases() {
+    }
+
+    public enum EmbeddedDBMS {
+        SQLITE3 {
+            @Override
+            public Database<?> createDatabase() throws Exception {
+                return BenchmarkDatabases.createDatabase(new SQLite3Provider(), new SQLite3Options(),
+                        directory -> "jdbc:sqlite:" + directory.resolve("benchmark.db"));
+            }
+        },
+        DUCKDB {
+            @Override
+            public Database<?> createDatabase() throws Exception {
+                return BenchmarkDatabases.createDatabase(new DuckDBProvider(), new DuckDBOptions(),
+                        directory -> "jdbc:duckdb:" + directory.resolve("benchmark.duckdb"));
+            }
+        },
+        H2 {
+            @Override
+            public Database<?> createDatabase() throws Exception {
+                return BenchmarkDatabases.createDatabase(new H2Provider(), new H2Options(),
+                        directory -> "jdbc:h2:" + directory.resolve("benchmark"));
+            }
+        };
+
+        public abstract Database<?> createDatabase() throws Exception;
+    }
+
+    /**
+     * A fixture database, together with the global state that is connected to it.
+     *
+     * @param <G>
+     *            the global state type
+     */
+    public static final class Database<G extends SQLGlobalState<?, ?>> implements AutoCloseable {
+
+        private final G state;
+        private final Path directory;
+
+        private Database(G state, Path directory) {
+            this.state = state;
+            this.directory = directory;
+        }
+
+        public G getState() {
+            return state;
+        }
+
+        /**
+         * Closes the connection and deletes the files of the database.
+         */
+        @Override
+        public void close() throws Exception {
+            try {
+                if (state.getConnection() != null) {
+                    state.getConnection().close();
+                }
+            } finally {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a database with the fixture tables in a new temporary directory and returns it with a global state that
+     * is connected to it and whose schema has been read.
+     *
+     * @param <G>
+     *            the global state type
+     * @param <O>
+     *            the DBMS-specific options type
+     * @param provider
+     *            the provider of the DBMS
+     * @param dbmsOptions
+     *            the DBMS-specific options
+     * @param getURL
+     *            the JDBC URL of a database in the given directory
+     *
+     * @return the database
+     *
+     * @throws Exception
+     *             if the database cannot be created
+     */
+    public static <G extends SQLGlobalState<O, ?>, O extends DBMSSpecificOptions<?>> Database<G> createDatabase(
+            DatabaseProvider<G, O, SQLConnection> provider, O dbmsOptions, Function<Path, String> getURL)
+            throws Exception {
+        G state = provider.getGlobalStateClass().getDeclaredConstructor().newInstance();
+        String databaseName = "benchmark" + provider.getDBMSName();
+        Database<G> database = new Database<>(state, Files.createTempDirectory(databaseName));
+        try {
+            state.setState(provider.getStateToReproduce(databaseName));
+            state.setRandomly(new Randomly(SEED));
+            state.setDatabaseName(databaseName);
+            MainOptions options = new MainOptions();
+            // the benchmarks do not write any logs
+            JCommander.newBuilder().addObject(options).build().parse("--log-each-select", "false");
+            state.setMainOptions(options);
+            state.setDbmsSpecificOptions(dbmsOptions);
+            state.setConnection(new SQLConnection(DriverManager.getConnection(getURL.apply(database.directory))));
+            try (Statement s = state.getConnection().createStatement()) {
+                for (String setupStatement : SETUP_STATEMENTS) {
+                    s.execute(setupStatement);
+                }
+                for (int i = 0; i < NR_ROWS; i++) {
+                    s.execute(String.format("INSERT INTO t%d VALUES (%d, %d)", i % 2, i, i * 31 % NR_ROWS));
+                }
+            }
+            state.updateSchema();
+        } catch (Exception e) {
+            database.close();
+            throw e;
+        }
+        return database;
+    }
+
+}
@@ -0,0 +1,120 @@
+package sqlancer.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sqlancer.ComparatorHelper;
+import sqlancer.SQLGlobalState;
+import sqlancer.benchmark.BenchmarkDatabases.Database;
+import sqlancer.benchmark.BenchmarkDatabases.EmbeddedDBMS;
+import sqlancer.common.query.ColumnarResultSet;
+import sqlancer.common.query.ColumnarResultSet.ValueCanonicalizer;
+import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.ResultSetFingerprint;
+
+/**
+ * Measures the comparison of a query's result set with the combined result sets of its partitions, as performed by the
+ * TLP oracles, for each embedded DBMS. Each comparison is measured for the result sets as lists of strings, as
+ * fingerprints of their first column, and as columnar result sets of all columns, whose fingerprints are computed from
+ * the rows' hashes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComparatorHelperBenchmark {
+
+    private static final String ORIGINAL_QUERY = "SELECT t0.c1 FROM t0, t1 WHERE t0.c0 + 1 = t1.c0";
+    private static final List<String> PARTITION_QUERIES = Arrays.asList(ORIGINAL_QUERY + " AND t0.c0 < 500",
+            ORIGINAL_QUERY + " AND NOT (t0.c0 < 500)", ORIGINAL_QUERY + " AND (t0.c0 < 500) IS NULL");
+
+    @Param({ "SQLITE3", "DUCKDB", "H2" })
+    public EmbeddedDBMS dbms;
+
+    private Database<?> database;
+    private SQLGlobalState<?, ?> state;
+    private List<String> resultSet;
+    private List<String> combinedResultSet;
+    private ColumnarResultSet rows;
+    private ColumnarResultSet combinedRows;
+
+    @Setup
+    public void setup() throws Exception {
+        database = dbms.createDatabase();
+        state = database.getState();
+        state.getState().createLocalState();
+        resultSet = ComparatorHelper.getResultSetFirstColumnAsString(ORIGINAL_QUERY, new ExpectedErrors(), state);
+        combinedResultSet = ComparatorHelper.getCombinedResultSet(PARTITION_QUERIES.get(0), PARTITION_QUERIES.get(1),
+                PARTITION_QUERIES.get(2), new ArrayList<>(), false, state, new ExpectedErrors());
+        Collections.reverse(combinedResultSet);
+        rows = ComparatorHelper.getResultSetRows(ORIGINAL_QUERY, new ExpectedErrors(), state);
+        combinedRows = ComparatorHelper.getCombinedResultSetRows(PARTITION_QUERIES.get(0), PARTITION_QUERIES.get(1),
+                PARTITION_QUERIES.get(2), new ArrayList<>(), false, state, new ExpectedErrors());
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public void compareResultSets() {
+        ComparatorHelper.assumeResultSetsAreEqual(resultSet, combinedResultSet, ORIGINAL_QUERY, PARTITION_QUERIES,
+                state);
+    }
+
+    @Benchmark
+    public void fetchAndCompareResultSets() throws Exception {
+        ExpectedErrors errors = new ExpectedErrors();
+        List<String> first = ComparatorHelper.getResultSetFirstColumnAsString(ORIGINAL_QUERY, errors, state);
+        List<String> second = ComparatorHelper.getCombinedResultSet(PARTITION_QUERIES.get(0),
+                PARTITION_QUERIES.get(1), PARTITION_QUERIES.get(2), new ArrayList<>(), false, state, errors);
+        ComparatorHelper.assumeResultSetsAreEqual(first, second, ORIGINAL_QUERY, PARTITION_QUERIES, state);
+    }
+
+    @Benchmark
+    public void compareColumnarResultSets() {
+        // the fingerprints are not cached, so that they are computed in each invocation
+        ComparatorHelper.assumeResultSetsAreEqual(rows, combinedRows, ORIGINAL_QUERY, PARTITION_QUERIES, state,
+                ValueCanonicalizer.DEFAULT);
+    }
+
+    @Benchmark
+    public void fetchAndCompareColumnarResultSets() throws Exception {
+        ExpectedErrors errors = new ExpectedErrors();
+        ColumnarResultSet first = ComparatorHelper.getResultSetRows(ORIGINAL_QUERY, errors, state);
+        ColumnarResultSet second = ComparatorHelper.getCombinedResultSetRows(PARTITION_QUERIES.get(0),
+                PARTITION_QUERIES.get(1), PARTITION_QUERIES.get(2), new ArrayList<>(), false, state, errors);
+        ComparatorHelper.assumeResultSetsAreEqual(first, second, ORIGINAL_QUERY, PARTITION_QUERIES, state,
+                ValueCanonicalizer.DEFAULT);
+    }
+
+    @Benchmark
+    public void fetchAndCompareFingerprints() throws Exception {
+        ExpectedErrors errors = new ExpectedErrors();
+        ResultSetFingerprint first = ComparatorHelper.getResultSetFirstColumnFingerprint(ORIGINAL_QUERY, errors,
+                state);
+        ResultSetFingerprint second = ComparatorHelper.getCombinedResultSetFingerprint(PARTITION_QUERIES.get(0),
+                PARTITION_QUERIES.get(1), PARTITION_QUERIES.get(2), new ArrayList<>(), false, state, errors);
+        ComparatorHelper.assumeResultSetsAreEqual(first, second, ORIGINAL_QUERY, PARTITION_QUERIES, state, errors);
+    }
+
+}
@@ -0,0 +1,51 @@
+package sqlancer.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sqlancer.common.query.ExpectedErrors;
+import sqlancer.sqlite3.SQLite3Errors;
+
+/**
+ * Measures matching error messages against the errors that SQLite3's expression-based oracles expect.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpectedErrorsBenchmark {
+
+    private ExpectedErrors errors;
+
+    @Setup
+    public void setup() {
+        errors = new ExpectedErrors();
+        SQLite3Errors.addExpectedExpressionErrors(errors);
+        SQLite3Errors.addQueryErrors(errors);
+        SQLite3Errors.addInsertUpdateErrors(errors);
+    }
+
+    @Benchmark
+    public boolean expectedError() {
+        return errors.errorIsExpected("[SQLITE_ERROR] SQL error or missing database (parser stack overflow)");
+    }
+
+    @Benchmark
+    public boolean unexpectedError() {
+        return errors.errorIsExpected(
+                "[SQLITE_CORRUPT] The database disk image is malformed (database disk image is malformed)");
+    }
+
+}
@@ -0,0 +1,74 @@
+package sqlancer.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sqlancer.benchmark.BenchmarkDatabases.Database;
+import sqlancer.sqlite3.SQLite3GlobalState;
+import sqlancer.sqlite3.SQLite3Options;
+import sqlancer.sqlite3.SQLite3Provider;
+import sqlancer.sqlite3.SQLite3ToStringVisitor;
+import sqlancer.sqlite3.ast.SQLite3Expression;
+import sqlancer.sqlite3.gen.SQLite3ExpressionGenerator;
+
+/**
+ * Measures generating SQLite3 expressions over the fixture tables and converting them to strings.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SQLite3ExpressionBenchmark {
+
+    private static final int NR_EXPRESSIONS = 1024;
+
+    private Database<SQLite3GlobalState> database;
+    private SQLite3GlobalState state;
+    private SQLite3ExpressionGenerator generator;
+    private final List<SQLite3Expression> expressions = new ArrayList<>();
+    private int i;
+
+    @Setup
+    public void setup() throws Exception {
+        database = BenchmarkDatabases.createDatabase(new SQLite3Provider(), new SQLite3Options(),
+                directory -> "jdbc:sqlite:" + directory.resolve("benchmark.db"));
+        state = database.getState();
+        generator = new SQLite3ExpressionGenerator(state).setColumns(state.getSchema().getTables().getColumns());
+        for (int j = 0; j < NR_EXPRESSIONS; j++) {
+            expressions.add(generator.generateExpression());
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        database.close();
+    }
+
+    @Benchmark
+    public SQLite3Expression generateExpression() {
+        return generator.generateExpression();
+    }
+
+    @Benchmark
+    public String toStringVisitor() {
+        SQLite3ToStringVisitor visitor = new SQLite3ToStringVisitor();
+        visitor.visit(expressions.get(i++ & NR_EXPRESSIONS - 1));
+        return visitor.get();
+    }
+
+}
@@ -1,20 +1,27 @@
 package sqlancer;
 
-import java.io.IOException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
+import sqlancer.common.metrics.LatencyHistogram;
+import sqlancer.common.metrics.Metrics;
+import sqlancer.common.query.ColumnarResultSet;
+import sqlancer.common.query.ColumnarResultSet.ValueCanonicalizer;
 import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.ResultSetFingerprint;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLancerResultSet;
 
 public final class ComparatorHelper {
 
+    private static final LatencyHistogram COMPARISON_TIME = Metrics.getPhaseHistogram("result_comparison");
+
     private ComparatorHelper() {
     }
 
@@ -38,32 +45,95 @@ public final class ComparatorHelper {
 
     public static List<String> getResultSetFirstColumnAsString(String queryString, ExpectedErrors errors,
             SQLGlobalState<?, ?> state) throws SQLException {
+        List<String> resultSet = new ArrayList<>();
+        consumeResultSetFirstColumn(queryString, errors, state, resultSet::add);
+        return resultSet;
+    }
+
+    /**
+     * Computes an order-independent fingerprint of the first column of the query's result set. In contrast to
+     * {@link #getResultSetFirstColumnAsString(String, ExpectedErrors, SQLGlobalState)}, the rows are not retained.
+     *
+     * @param queryString
+     *            the query to be executed
+     * @param errors
+     *            the errors that the query might result in
+     * @param state
+     *            the global state
+     * @param canonicalizationRule
+     *            a canonicalization function applied to each value before it is added to the fingerprint
+     *
+     * @return the fingerprint of the query's result set
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public static ResultSetFingerprint getResultSetFirstColumnFingerprint(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state, UnaryOperator<String> canonicalizationRule) throws SQLException {
+        ResultSetFingerprint fingerprint = new ResultSetFingerprint();
+        consumeResultSetFirstColumn(queryString, errors, state,
+                value -> fingerprint.add(canonicalizationRule.apply(value)));
+        return fingerprint;
+    }
+
+    public static ResultSetFingerprint getResultSetFirstColumnFingerprint(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        return getResultSetFirstColumnFingerprint(queryString, errors, state, UnaryOperator.identity());
+    }
+
+    private static void consumeResultSetFirstColumn(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state, Consumer<String> rowConsumer) throws SQLException {
+        executeAndConsume(queryString, errors, state, result -> {
+            while (result.next()) {
+                // Remove the trailing zeros as many DBMS treat it as non-bugs
+                rowConsumer.accept(removeTrailingZeros(result.getString(1)));
+            }
+        });
+    }
+
+    /**
+     * Captures all columns of the query's result set. In contrast to
+     * {@link #getResultSetFirstColumnAsString(String, ExpectedErrors, SQLGlobalState)}, integral and floating-point
+     * values are stored as primitives and no canonicalization is applied while reading the values.
+     *
+     * @param queryString
+     *            the query to be executed
+     * @param errors
+     *            the errors that the query might result in
+     * @param state
+     *            the global state
+     *
+     * @return the rows of the query's result set
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public static ColumnarResultSet getResultSetRows(String queryString, ExpectedErrors errors,
+            SQLGlobalState<?, ?> state) throws SQLException {
+        ColumnarResultSet rows = new ColumnarResultSet();
+        executeAndConsume(queryString, errors, state, rows::appendRows);
+        return rows;
+    }
+
+    @FunctionalInterface
+    private interface ResultSetConsumer {
+        void accept(SQLancerResultSet result) throws SQLException;
+    }
+
+    private static void executeAndConsume(String queryString, ExpectedErrors errors, SQLGlobalState<?, ?> state,
+            ResultSetConsumer consumer) throws SQLException {
         if (state.getOptions().logEachSelect()) {
             // TODO: refactor me
             state.getLogger().writeCurrent(queryString);
-            try {
-                state.getLogger().getCurrentFileWriter().flush();
-            } catch (IOException e) {
-                // TODO Auto-generated catch block
-                e.printStackTrace();
-            }
         }
         SQLQueryAdapter q = new SQLQueryAdapter(queryString, errors);
-        List<String> resultSet = new ArrayList<>();
         SQLancerResultSet result = null;
         try {
             result = q.executeAndGet(state);
             if (result == null) {
                 throw new IgnoreMeException();
             }
-            while (result.next()) {
-                String resultTemp = result.getString(1);
-                if (resultTemp != null) {
-                    resultTemp = resultTemp.replaceAll("[\\.]0+$", ""); // Remove the trailing zeros as many DBMS treat
-                                                                        // it as non-bugs
-                }
-                resultSet.add(resultTemp);
-            }
+            consumer.accept(result);
         } catch (Exception e) {
             if (e instanceof IgnoreMeException) {
                 throw e;
@@ -81,11 +151,43 @@ public final class ComparatorHelper {
                 result.close();
             }
         }
-        return resultSet;
+    }
+
+    /**
+     * Removes a trailing fraction consisting only of zeros (e.g., "1.00" becomes "1"), which is equivalent to
+     * <code>value.replaceAll("[\\.]0+$", "")</code> without compiling and running a regular expression per value.
+     *
+     * @param value
+     *            the value, which might be null
+     *
+     * @return the value without trailing zeros
+     */
+    public static String removeTrailingZeros(String value) {
+        if (value == null) {
+            return null;
+        }
+        int i = value.length() - 1;
+        while (i >= 0 && value.charAt(i) == '0') {
+            i--;
+        }
+        if (i == value.length() - 1 || i < 0 || value.charAt(i) != '.') {
+            return value;
+        }
+        return value.substring(0, i);
     }
 
     public static void assumeResultSetsAreEqual(List<String> resultSet, List<String> secondResultSet,
             String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state) {
+        long startTime = System.nanoTime();
+        try {
+            compareResultSets(resultSet, secondResultSet, originalQueryString, combinedString, state);
+        } finally {
+            COMPARISON_TIME.recordSince(startTime);
+        }
+    }
+
+    private static void compareResultSets(List<String> resultSet, List<String> secondResultSet,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state) {
         if (resultSet.size() != secondResultSet.size()) {
             String queryFormatString = "-- %s;\n-- cardinality: %d";
             String firstQueryString = String.format(queryFormatString, originalQueryString, resultSet.size());
@@ -129,6 +231,83 @@ public final class ComparatorHelper {
                 combinedString, state);
     }
 
+    /**
+     * Compares the fingerprints of two result sets. Only if the fingerprints differ, the original and combined queries
+     * are executed again to materialize their result sets, which are then compared and reported by
+     * {@link #assumeResultSetsAreEqual(List, List, String, List, SQLGlobalState, UnaryOperator)}.
+     *
+     * @param resultSet
+     *            the fingerprint of the original query's result set
+     * @param secondResultSet
+     *            the fingerprint of the combined queries' result sets
+     * @param originalQueryString
+     *            the original query
+     * @param combinedString
+     *            the queries whose concatenated result sets are fingerprinted by secondResultSet
+     * @param state
+     *            the global state
+     * @param errors
+     *            the errors that the queries might result in
+     * @param canonicalizationRule
+     *            the canonicalization function that was used to compute both fingerprints
+     *
+     * @throws SQLException
+     *             if a result set cannot be read
+     */
+    public static void assumeResultSetsAreEqual(ResultSetFingerprint resultSet, ResultSetFingerprint secondResultSet,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state, ExpectedErrors errors,
+            UnaryOperator<String> canonicalizationRule) throws SQLException {
+        if (resultSet.equals(secondResultSet)) {
+            return;
+        }
+        List<String> firstMaterialized = getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        List<String> secondMaterialized = new ArrayList<>();
+        for (String query : combinedString) {
+            secondMaterialized.addAll(getResultSetFirstColumnAsString(query, errors, state));
+        }
+        assumeResultSetsAreEqual(firstMaterialized, secondMaterialized, originalQueryString, combinedString, state,
+                canonicalizationRule);
+    }
+
+    public static void assumeResultSetsAreEqual(ResultSetFingerprint resultSet, ResultSetFingerprint secondResultSet,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state, ExpectedErrors errors)
+            throws SQLException {
+        assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString, state, errors,
+                UnaryOperator.identity());
+    }
+
+    /**
+     * Compares two result sets row by row, based on all of their columns. If the rows' fingerprints differ, the rows
+     * are rendered as strings and compared and reported by
+     * {@link #assumeResultSetsAreEqual(List, List, String, List, SQLGlobalState)}.
+     *
+     * @param resultSet
+     *            the rows of the original query
+     * @param secondResultSet
+     *            the rows of the combined queries
+     * @param originalQueryString
+     *            the original query
+     * @param combinedString
+     *            the combined queries
+     * @param state
+     *            the global state
+     * @param canonicalizer
+     *            the canonicalization applied to the values of both result sets before comparing them
+     */
+    public static void assumeResultSetsAreEqual(ColumnarResultSet resultSet, ColumnarResultSet secondResultSet,
+            String originalQueryString, List<String> combinedString, SQLGlobalState<?, ?> state,
+            ValueCanonicalizer canonicalizer) {
+        long startTime = System.nanoTime();
+        boolean fingerprintsAreEqual = resultSet.getColumnCount() == secondResultSet.getColumnCount()
+                && resultSet.getFingerprint(canonicalizer).equals(secondResultSet.getFingerprint(canonicalizer));
+        COMPARISON_TIME.recordSince(startTime);
+        if (fingerprintsAreEqual) {
+            return;
+        }
+        assumeResultSetsAreEqual(resultSet.getRowsAsStrings(canonicalizer),
+                secondResultSet.getRowsAsStrings(canonicalizer), originalQueryString, combinedString, state);
+    }
+
     public static List<String> getCombinedResultSet(String firstQueryString, String secondQueryString,
             String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
             ExpectedErrors errors) throws SQLException {
@@ -150,6 +329,57 @@ public final class ComparatorHelper {
         return secondResultSet;
     }
 
+    public static ResultSetFingerprint getCombinedResultSetFingerprint(String firstQueryString,
+            String secondQueryString, String thirdQueryString, List<String> combinedString, boolean asUnion,
+            SQLGlobalState<?, ?> state, ExpectedErrors errors, UnaryOperator<String> canonicalizationRule)
+            throws SQLException {
+        ResultSetFingerprint secondResultSet;
+        if (asUnion) {
+            String unionString = firstQueryString + " UNION ALL " + secondQueryString + " UNION ALL "
+                    + thirdQueryString;
+            combinedString.add(unionString);
+            secondResultSet = getResultSetFirstColumnFingerprint(unionString, errors, state, canonicalizationRule);
+        } else {
+            secondResultSet = new ResultSetFingerprint();
+            secondResultSet
+                    .addAll(getResultSetFirstColumnFingerprint(firstQueryString, errors, state, canonicalizationRule));
+            secondResultSet
+                    .addAll(getResultSetFirstColumnFingerprint(secondQueryString, errors, state, canonicalizationRule));
+            secondResultSet
+                    .addAll(getResultSetFirstColumnFingerprint(thirdQueryString, errors, state, canonicalizationRule));
+            combinedString.add(firstQueryString);
+            combinedString.add(secondQueryString);
+            combinedString.add(thirdQueryString);
+        }
+        return secondResultSet;
+    }
+
+    public static ResultSetFingerprint getCombinedResultSetFingerprint(String firstQueryString,
+            String secondQueryString, String thirdQueryString, List<String> combinedString, boolean asUnion,
+            SQLGlobalState<?, ?> state, ExpectedErrors errors) throws SQLException {
+        return getCombinedResultSetFingerprint(firstQueryString, secondQueryString, thirdQueryString, combinedString,
+                asUnion, state, errors, UnaryOperator.identity());
+    }
+
+    public static ColumnarResultSet getCombinedResultSetRows(String firstQueryString, String secondQueryString,
+            String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
+            ExpectedErrors errors) throws SQLException {
+        if (asUnion) {
+            String unionString = firstQueryString + " UNION ALL " + secondQueryString + " UNION ALL "
+                    + thirdQueryString;
+            combinedString.add(unionString);
+            return getResultSetRows(unionString, errors, state);
+        }
+        ColumnarResultSet secondResultSet = new ColumnarResultSet();
+        executeAndConsume(firstQueryString, errors, state, secondResultSet::appendRows);
+        executeAndConsume(secondQueryString, errors, state, secondResultSet::appendRows);
+        executeAndConsume(thirdQueryString, errors, state, secondResultSet::appendRows);
+        combinedString.add(firstQueryString);
+        combinedString.add(secondQueryString);
+        combinedString.add(thirdQueryString);
+        return secondResultSet;
+    }
+
     public static List<String> getCombinedResultSetNoDuplicates(String firstQueryString, String secondQueryString,
             String thirdQueryString, List<String> combinedString, boolean asUnion, SQLGlobalState<?, ?> state,
             ExpectedErrors errors) throws SQLException {
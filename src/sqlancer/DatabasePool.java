@@ -0,0 +1,123 @@
+package sqlancer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Provides the connections to the databases that a single thread generates one after another. If enabled by
+ * <code>--reuse-databases</code>, the connection of the previous database is kept when it is released, and the next
+ * database is obtained by resetting it using {@link DatabaseProvider#resetDatabase(GlobalState, SQLancerDBConnection)}
+ * rather than by creating a new database. The pool is owned by a single thread and is thus not thread-safe; the setup
+ * time statistics are shared by all pools.
+ */
+public class DatabasePool implements AutoCloseable {
+
+    private static final AtomicLong NR_CREATED_DATABASES = new AtomicLong();
+    private static final AtomicLong NR_RESET_DATABASES = new AtomicLong();
+    private static final AtomicLong SETUP_TIME_NANOS = new AtomicLong();
+
+    private final boolean reuseDatabases;
+    private SQLancerDBConnection idleConnection;
+
+    public DatabasePool(boolean reuseDatabases) {
+        this.reuseDatabases = reuseDatabases;
+    }
+
+    /**
+     * Obtains a connection to an empty database for the given global state.
+     *
+     * @param <G>
+     *            the global state type
+     * @param <C>
+     *            the connection type
+     * @param provider
+     *            the provider used to create or reset the database
+     * @param globalState
+     *            the global state of the database to be generated
+     *
+     * @return the connection, which must be returned by {@link #release(SQLancerDBConnection)} or closed
+     *
+     * @throws Exception
+     *             if the database cannot be created
+     */
+    @SuppressWarnings("unchecked")
+    public <G extends GlobalState<?, ?, C>, C extends SQLancerDBConnection> C lease(DatabaseProvider<G, ?, C> provider,
+            G globalState) throws Exception {
+        long startTime = System.nanoTime();
+        try {
+            if (idleConnection != null) {
+                C connection = (C) idleConnection;
+                idleConnection = null;
+                if (tryReset(provider, globalState, connection)) {
+                    NR_RESET_DATABASES.incrementAndGet();
+                    return connection;
+                }
+            }
+            C connection = provider.createDatabase(globalState);
+            NR_CREATED_DATABASES.incrementAndGet();
+            return connection;
+        } finally {
+            SETUP_TIME_NANOS.addAndGet(System.nanoTime() - startTime);
+        }
+    }
+
+    private <G extends GlobalState<?, ?, C>, C extends SQLancerDBConnection> boolean tryReset(
+            DatabaseProvider<G, ?, C> provider, G globalState, C connection) {
+        try {
+            if (provider.resetDatabase(globalState, connection)) {
+                return true;
+            }
+        } catch (Exception e) {
+            // fall back to creating a new database
+        }
+        closeQuietly(connection);
+        return false;
+    }
+
+    /**
+     * Returns a connection obtained by {@link #lease(DatabaseProvider, GlobalState)} after the database has been tested
+     * without finding a bug. The connection is closed if databases are not reused.
+     *
+     * @param connection
+     *            the connection to be released
+     */
+    public void release(SQLancerDBConnection connection) {
+        if (reuseDatabases) {
+            if (idleConnection != null) {
+                closeQuietly(idleConnection);
+            }
+            idleConnection = connection;
+        } else {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (idleConnection != null) {
+            closeQuietly(idleConnection);
+            idleConnection = null;
+        }
+    }
+
+    private static void closeQuietly(SQLancerDBConnection connection) {
+        try {
+            connection.close();
+        } catch (Exception e) {
+            // the connection is discarded anyway
+        }
+    }
+
+    public static long getNrCreatedDatabases() {
+        return NR_CREATED_DATABASES.get();
+    }
+
+    public static long getNrResetDatabases() {
+        return NR_RESET_DATABASES.get();
+    }
+
+    public static long getTotalSetupTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(SETUP_TIME_NANOS.get());
+    }
+
+}
@@ -1,6 +1,9 @@
 package sqlancer;
 
+import java.util.List;
+
 import sqlancer.common.log.LoggableFactory;
+import sqlancer.common.query.Query;
 
 public interface DatabaseProvider<G extends GlobalState<O, ?, C>, O extends DBMSSpecificOptions<?>, C extends SQLancerDBConnection> {
 
@@ -46,6 +49,70 @@ public interface DatabaseProvider<G extends GlobalState<O, ?, C>, O extends DBMS
 
     C createDatabase(G globalState) throws Exception;
 
+    /**
+     * Resets a database that was created by {@link #createDatabase(GlobalState)}, so that its connection can be reused
+     * for the next database instead of creating a new one (see {@link DatabasePool}). An implementation should bring
+     * the database into the state of a newly-created one, and log the statements that it executed in the given global
+     * state.
+     *
+     * @param globalState
+     *            the global state of the database to be generated next
+     * @param connection
+     *            the connection to the database that was tested previously
+     *
+     * @return true if the database was reset, and false if resetting is not supported
+     *
+     * @throws Exception
+     *             if resetting the database fails, in which case a new database is created
+     */
+    default boolean resetDatabase(G globalState, C connection) throws Exception {
+        return false;
+    }
+
+    /**
+     * Returns whether test oracles can be executed on additional connections to each generated database (see
+     * <code>--num-oracle-connections</code>).
+     *
+     * @return true if the provider can open additional connections to its databases
+     */
+    default boolean supportsOracleConnections() {
+        return false;
+    }
+
+    /**
+     * Drops the database of the given global state, which was created by {@link #createDatabase(GlobalState)} and whose
+     * connection has been closed. Databases that are not dropped are overwritten when a database with the same name is
+     * created again.
+     *
+     * @param globalState
+     *            the global state whose database is dropped
+     *
+     * @throws Exception
+     *             if dropping the database fails
+     */
+    default void dropDatabase(G globalState) throws Exception {
+    }
+
+    /**
+     * Captures the database of the given global state, so that it can be restored without executing the statements that
+     * led to its state again (see {@link StatementReducer}).
+     *
+     * @param globalState
+     *            the global state whose connection refers to the database
+     * @param executedStatements
+     *            the statements that were executed on the database since it was created; an implementation can use them
+     *            to detect state that a snapshot would not capture, such as session settings
+     *
+     * @return the snapshot, or null if the database cannot be captured
+     *
+     * @throws Exception
+     *             if capturing the database fails
+     */
+    default DatabaseSnapshot<G, C> createSnapshot(G globalState, List<? extends Query<?>> executedStatements)
+            throws Exception {
+        return null;
+    }
+
     /**
      * The DBMS name is used to name the log directory and command to test the respective DBMS.
      *
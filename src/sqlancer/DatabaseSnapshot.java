@@ -0,0 +1,41 @@
+package sqlancer;
+
+import java.io.IOException;
+
+/**
+ * A copy of a database at some point in time, created by
+ * {@link DatabaseProvider#createSnapshot(GlobalState, java.util.List)}. Restoring a snapshot is usually much faster
+ * than executing the statements that led to the captured state again.
+ *
+ * @param <G>
+ *            the global state type
+ * @param <C>
+ *            the connection type
+ */
+public interface DatabaseSnapshot<G extends GlobalState<?, ?, C>, C extends SQLancerDBConnection>
+        extends AutoCloseable {
+
+    /**
+     * Creates the database of the given global state in the captured state. Any existing database with the same name is
+     * replaced. A snapshot can be restored several times, also concurrently for distinct databases.
+     *
+     * @param globalState
+     *            the global state of the database to be created
+     *
+     * @return the connection to the database
+     *
+     * @throws Exception
+     *             if the database cannot be created
+     */
+    C restore(G globalState) throws Exception;
+
+    /**
+     * Discards the snapshot.
+     *
+     * @throws IOException
+     *             if the files of the snapshot cannot be deleted
+     */
+    @Override
+    void close() throws IOException;
+
+}
@@ -1,22 +1,28 @@
 package sqlancer;
 
+import java.util.concurrent.TimeUnit;
+
 public final class ExecutionTimer {
 
     private long startTime;
     private long endTime;
 
     public ExecutionTimer start() {
-        startTime = System.currentTimeMillis();
+        startTime = System.nanoTime();
         return this;
     }
 
     public ExecutionTimer end() {
-        endTime = System.currentTimeMillis();
+        endTime = System.nanoTime();
         return this;
     }
 
+    public long getNanos() {
+        return endTime - startTime;
+    }
+
     public String asString() {
-        long timeMillis = endTime - startTime;
+        long timeMillis = TimeUnit.NANOSECONDS.toMillis(getNanos());
         return timeMillis + "ms";
     }
 
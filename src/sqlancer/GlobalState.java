@@ -1,9 +1,16 @@
 package sqlancer;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import sqlancer.common.log.SlowStatementLog;
+import sqlancer.common.metrics.StatementSource;
 import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLancerResultSet;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTable;
+import sqlancer.common.schema.RowCountChange;
+import sqlancer.common.schema.SchemaChange;
 
 public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends AbstractSchema<?, ?>, C extends SQLancerDBConnection> {
 
@@ -16,6 +23,10 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
     private StateToReproduce state;
     private Main.QueryManager<C> manager;
     private String databaseName;
+    private int nrIncrementalSchemaUpdates;
+    private StatementSource statementSource = StatementSource.OTHER;
+    // whether a statement is executed by executeStatement or executeStatementAndGet, which record its latency
+    private boolean timingStatement;
 
     public void setConnection(C con) {
         this.databaseConnection = con;
@@ -82,12 +93,63 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
         this.databaseName = databaseName;
     }
 
-    private ExecutionTimer executePrologue(Query<?> q) throws Exception {
-        boolean logExecutionTime = getOptions().logExecutionTime();
-        ExecutionTimer timer = null;
-        if (logExecutionTime) {
-            timer = new ExecutionTimer().start();
+    /**
+     * Sets the action or test oracle whose statements are executed next, to which their latencies are attributed.
+     *
+     * @param source
+     *            the source of the next statements
+     */
+    public void setStatementSource(StatementSource source) {
+        this.statementSource = source;
+    }
+
+    public StatementSource getStatementSource() {
+        return statementSource;
+    }
+
+    /**
+     * Determines whether the statement that is currently executed is timed by this global state. Queries that execute
+     * themselves should record their latency using {@link #recordStatementLatency(Query, long)} only if this is not the
+     * case.
+     *
+     * @return true if the statement is executed by {@link #executeStatement(Query, String...)} or
+     *         {@link #executeStatementAndGet(Query, String...)}
+     */
+    public boolean isTimingStatement() {
+        return timingStatement;
+    }
+
+    /**
+     * Records the latency of a statement executed on behalf of the current statement source (see
+     * {@link #setStatementSource(StatementSource)}), and logs the statement if it exceeds
+     * <code>--slow-statement-threshold-ms</code>.
+     *
+     * @param q
+     *            the statement
+     * @param nanos
+     *            the time it took to execute the statement, in nanoseconds
+     */
+    public void recordStatementLatency(Query<?> q, long nanos) {
+        StatementSource source = statementSource;
+        source.getLatencies().record(nanos);
+        long thresholdMillis = getOptions().getSlowStatementThresholdMillis();
+        if (thresholdMillis != -1 && nanos >= TimeUnit.MILLISECONDS.toNanos(thresholdMillis)
+                && source.sampleSlowStatement()) {
+            SlowStatementLog.log(q.getLogString(), nanos, source, databaseName);
         }
+    }
+
+    private ExecutionTimer executePrologue(Query<?> q) throws Exception {
+        logPrologue(q, getOptions().logExecutionTime());
+        return new ExecutionTimer().start();
+    }
+
+    private void recordExecution(Query<?> q, ExecutionTimer timer) {
+        timer.end();
+        recordStatementLatency(q, timer.getNanos());
+    }
+
+    private void logPrologue(Query<?> q, boolean logExecutionTime) {
         if (getOptions().printAllStatements()) {
             System.out.println(q.getLogString());
         }
@@ -98,25 +160,39 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
                 getLogger().writeCurrent(q.getLogString());
             }
         }
-        return timer;
     }
 
     protected abstract void executeEpilogue(Query<?> q, boolean success, ExecutionTimer timer) throws Exception;
 
     public boolean executeStatement(Query<C> q, String... fills) throws Exception {
         ExecutionTimer timer = executePrologue(q);
-        boolean success = manager.execute(q, fills);
+        boolean success;
+        timingStatement = true;
+        try {
+            success = manager.execute(q, fills);
+        } finally {
+            timingStatement = false;
+        }
+        recordExecution(q, timer);
         executeEpilogue(q, success, timer);
         return success;
     }
 
     public SQLancerResultSet executeStatementAndGet(Query<C> q, String... fills) throws Exception {
         ExecutionTimer timer = executePrologue(q);
-        SQLancerResultSet result = manager.executeAndGet(q, fills);
+        SQLancerResultSet result;
+        timingStatement = true;
+        try {
+            result = manager.executeAndGet(q, fills);
+        } finally {
+            timingStatement = false;
+        }
         boolean success = result != null;
         if (success) {
+            // the statement has been executed when its result has been read
             result.registerEpilogue(() -> {
                 try {
+                    recordExecution(q, timer);
                     executeEpilogue(q, success, timer);
                 } catch (Exception e) {
                     throw new AssertionError(e);
@@ -126,6 +202,126 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
         return result;
     }
 
+    /**
+     * Determines whether the given statement can be sent to the DBMS as part of a batch using
+     * {@link #executeBatch(List)}, rather than on its own using {@link #executeStatement(Query, String...)}.
+     *
+     * @param q
+     *            the statement
+     *
+     * @return true if the statement can be batched, which requires it to not affect the schema
+     */
+    public boolean canBeBatched(Query<?> q) {
+        return false;
+    }
+
+    /**
+     * The outcome of a batch sent to the DBMS: the DBMS executed a prefix of the batch's statements in their order,
+     * each of which either took effect or failed, and did not execute the remaining statements.
+     */
+    protected static final class BatchResult {
+
+        private final int nrExecuted;
+        private final Exception[] failures;
+
+        /**
+         * Creates the outcome of a batch.
+         *
+         * @param nrExecuted
+         *            the number of leading statements that the DBMS executed
+         * @param failures
+         *            for each executed statement, the error with which it failed, or null if it took effect
+         */
+        public BatchResult(int nrExecuted, Exception[] failures) {
+            if (failures.length < nrExecuted) {
+                throw new IllegalArgumentException();
+            }
+            this.nrExecuted = nrExecuted;
+            this.failures = failures.clone();
+        }
+
+        public static BatchResult notExecuted() {
+            return new BatchResult(0, new Exception[0]);
+        }
+
+        public int getNrExecuted() {
+            return nrExecuted;
+        }
+
+        public Exception getFailure(int i) {
+            return failures[i];
+        }
+
+    }
+
+    /**
+     * Sends the statements to the DBMS as a single batch. The statements that the DBMS executed are logged and checked
+     * as if they had been executed one at a time, in their order; a statement that failed with an unexpected error is
+     * reported (see {@link #checkBatchFailure(Query, Exception)}). The remaining statements, for example, those after a
+     * failing statement at which the DBMS aborted the batch, have no effect and must be executed individually by the
+     * caller, in their order, after this method returns.
+     *
+     * @param queries
+     *            the statements, each of which must satisfy {@link #canBeBatched(Query)}
+     *
+     * @return the number of leading statements that the DBMS executed
+     *
+     * @throws Exception
+     *             if the batch cannot be executed
+     */
+    public int executeBatch(List<Query<C>> queries) throws Exception {
+        boolean logExecutionTime = getOptions().logExecutionTime();
+        // the latencies of the individual statements are unknown, so they are not recorded
+        ExecutionTimer timer = new ExecutionTimer().start();
+        BatchResult result = executeBatchOnConnection(queries);
+        timer.end();
+        for (int i = 0; i < result.getNrExecuted(); i++) {
+            Query<C> q = queries.get(i);
+            Exception failure = result.getFailure(i);
+            boolean success = failure == null;
+            if (!success) {
+                Main.NR_UNSUCCESSFUL_ACTIONS.increment();
+                checkBatchFailure(q, failure);
+            }
+            if (success || getOptions().loggerPrintFailed()) {
+                logPrologue(q, logExecutionTime);
+                manager.logExecuted(q);
+            }
+            executeEpilogue(q, success, timer);
+        }
+        return result.getNrExecuted();
+    }
+
+    /**
+     * Executes the statements as a single batch on the database connection.
+     *
+     * @param queries
+     *            the statements
+     *
+     * @return which statements the DBMS executed, and which of them failed
+     *
+     * @throws Exception
+     *             if the batch cannot be executed
+     */
+    protected BatchResult executeBatchOnConnection(List<Query<C>> queries) throws Exception {
+        return BatchResult.notExecuted();
+    }
+
+    /**
+     * Checks the error with which a statement of a batch failed, like an error of a statement executed on its own.
+     *
+     * @param q
+     *            the statement
+     * @param failure
+     *            the error
+     *
+     * @throws AssertionError
+     *             if the error is not expected for the statement
+     */
+    protected void checkBatchFailure(Query<C> q, Exception failure) {
+        throw new AssertionError(q.getLogString(), failure);
+    }
+
     public S getSchema() {
         if (schema == null) {
             try {
@@ -148,6 +344,125 @@ public abstract class GlobalState<O extends DBMSSpecificOptions<?>, S extends Ab
         }
     }
 
+    /**
+     * Updates the schema after the given statement was executed. If <code>--incremental-schema</code> is enabled, the
+     * statement's effect is applied to the current schema using
+     * {@link #applySchemaChange(AbstractSchema, SchemaChange, boolean)}; otherwise, or if the effect cannot be applied,
+     * the schema is read from the catalog.
+     *
+     * @param q
+     *            the statement that could have affected the schema
+     * @param success
+     *            whether the statement was executed successfully
+     *
+     * @throws Exception
+     *             if the schema cannot be read
+     */
+    public void updateSchema(Query<?> q, boolean success) throws Exception {
+        if (schema != null && getOptions().useIncrementalSchema()) {
+            S updatedSchema = applySchemaChange(schema, SchemaChange.fromQueryString(q.getQueryString()), success);
+            if (updatedSchema != null) {
+                // the row counts of tables whose rows might have changed are invalidated by updateRowCounts
+                setSchema(updatedSchema);
+                int verificationInterval = getOptions().getSchemaVerificationInterval();
+                if (verificationInterval != 0 && ++nrIncrementalSchemaUpdates % verificationInterval == 0) {
+                    verifySchema(q);
+                }
+                return;
+            }
+        }
+        updateSchema();
+    }
+
+    private void verifySchema(Query<?> q) throws Exception {
+        // reading the schema may draw random numbers (e.g., SQLite's rowid alias), which must not depend on whether the
+        // schema is verified
+        String expectedSchema = Randomly.withSeparateGenerator(this::readSchema).getCanonicalDescription();
+        String actualSchema = schema.getCanonicalDescription();
+        if (!expectedSchema.equals(actualSchema)) {
+            throw new AssertionError(String.format(
+                    "the incrementally updated schema differs from the catalog after %s%n-- incremental schema:%n%s-- catalog:%n%s",
+                    q.getQueryString(), actualSchema, expectedSchema));
+        }
+    }
+
+    /**
+     * Applies the effect of a statement to the schema, without reading the whole schema from the catalog.
+     *
+     * @param currentSchema
+     *            the schema before the statement was executed
+     * @param change
+     *            the effect of the statement, as determined from the statement's string
+     * @param success
+     *            whether the statement was executed successfully
+     *
+     * @return the updated schema, or null if the whole schema must be read from the catalog
+     *
+     * @throws Exception
+     *             if the affected part of the schema cannot be read
+     */
+    protected S applySchemaChange(S currentSchema, SchemaChange change, boolean success) throws Exception {
+        return null;
+    }
+
+    /**
+     * Maintains the cached row counts of the tables after the given statement was executed. The row count of the
+     * modified table is adjusted using the statement's update count where possible and is otherwise invalidated;
+     * statements whose effect is unknown invalidate the row counts of all tables. The rows of the tables whose row
+     * counts are affected are invalidated as well (see {@link AbstractTable#invalidateRows()}).
+     *
+     * @param q
+     *            the executed statement
+     * @param success
+     *            whether the statement was executed successfully
+     */
+    protected void updateRowCounts(Query<?> q, boolean success) {
+        if (schema == null) {
+            return;
+        }
+        RowCountChange change = RowCountChange.fromQueryString(q.getQueryString());
+        if (change.getKind() == RowCountChange.Kind.NONE) {
+            return;
+        }
+        AbstractTable<?, ?, ?> table = change.getTableName() == null ? null
+                : schema.getDatabaseTable(change.getTableName());
+        if (!success || table == null || table.isView() || dmlMayHaveIndirectEffects(table)) {
+            // a failing statement might have been applied partially or have rolled back the transaction
+            for (AbstractTable<?, ?, ?> t : schema.getDatabaseTables()) {
+                t.recomputeCount();
+                t.invalidateRows();
+            }
+            return;
+        }
+        for (AbstractTable<?, ?, ?> view : schema.getViews()) {
+            view.recomputeCount();
+            view.invalidateRows();
+        }
+        table.invalidateRows();
+        long updateCount = q.getUpdateCount();
+        if (!change.isExact() || updateCount < 0) {
+            table.recomputeCount();
+        } else if (change.getKind() == RowCountChange.Kind.INSERT) {
+            table.adjustRowCount(updateCount);
+        } else if (change.getKind() == RowCountChange.Kind.DELETE) {
+            table.adjustRowCount(-updateCount);
+        }
+    }
+
+    /**
+     * Determines whether inserting, deleting, or updating rows of the given table can change other tables or can change
+     * the number of rows by more than the update count (e.g., due to triggers or foreign key actions). If so, each such
+     * statement invalidates the row counts of all tables.
+     *
+     * @param table
+     *            the modified table
+     *
+     * @return true, unless the DBMS-specific global state determines otherwise
+     */
+    protected boolean dmlMayHaveIndirectEffects(AbstractTable<?, ?, ?> table) {
+        return true;
+    }
+
     protected abstract S readSchema() throws Exception;
 
 }
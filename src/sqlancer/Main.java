@@ -4,7 +4,10 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.Writer;
+import java.lang.reflect.Method;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -16,24 +19,31 @@ import java.util.ServiceLoader;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.JCommander.Builder;
 
+import sqlancer.common.log.AsyncLogWriter;
 import sqlancer.common.log.Loggable;
+import sqlancer.common.log.SlowStatementLog;
+import sqlancer.common.metrics.Metrics;
+import sqlancer.common.metrics.StatementSource;
 import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLancerResultSet;
 
 public final class Main {
 
     public static final File LOG_DIRECTORY = new File("logs");
-    public static volatile AtomicLong nrQueries = new AtomicLong();
-    public static volatile AtomicLong nrDatabases = new AtomicLong();
-    public static volatile AtomicLong nrSuccessfulActions = new AtomicLong();
-    public static volatile AtomicLong nrUnsuccessfulActions = new AtomicLong();
+    public static final LongAdder NR_QUERIES = Metrics.getCounter("sqlancer_queries_total");
+    public static final LongAdder NR_DATABASES = Metrics.getCounter("sqlancer_databases_total");
+    public static final LongAdder NR_SUCCESSFUL_ACTIONS = Metrics.getCounter("sqlancer_successful_statements_total");
+    public static final LongAdder NR_UNSUCCESSFUL_ACTIONS = Metrics
+            .getCounter("sqlancer_unsuccessful_statements_total");
     public static volatile AtomicLong threadsShutdown = new AtomicLong();
     static boolean progressMonitorStarted;
 
@@ -54,9 +64,11 @@ public final class Main {
         private File queryPlanFile;
         private FileWriter logFileWriter;
         public FileWriter currentFileWriter;
+        private AsyncLogWriter asyncCurrentWriter;
         private FileWriter queryPlanFileWriter;
         private static final List<String> INITIALIZED_PROVIDER_NAMES = new ArrayList<>();
         private final boolean logEachSelect;
+        private final boolean asyncLogging;
         private final boolean logQueryPlan;
         private final DatabaseProvider<?, ?, ?> databaseProvider;
 
@@ -90,6 +102,7 @@ public final class Main {
             if (logEachSelect) {
                 curFile = new File(dir, databaseName + "-cur.log");
             }
+            asyncLogging = options.asyncLogging();
             logQueryPlan = options.logQueryPlan();
             if (logQueryPlan) {
                 queryPlanFile = new File(dir, databaseName + "-plan.log");
@@ -145,6 +158,50 @@ public final class Main {
             return currentFileWriter;
         }
 
+        private AsyncLogWriter getAsyncCurrentWriter() {
+            if (asyncCurrentWriter == null) {
+                asyncCurrentWriter = new AsyncLogWriter(curFile);
+            }
+            return asyncCurrentWriter;
+        }
+
+        /**
+         * Ensures that everything that was written to the current log file has reached the file.
+         */
+        public void flushCurrent() {
+            if (!logEachSelect) {
+                throw new UnsupportedOperationException();
+            }
+            if (asyncCurrentWriter != null) {
+                asyncCurrentWriter.flush();
+            }
+            if (currentFileWriter != null) {
+                try {
+                    currentFileWriter.flush();
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        }
+
+        /**
+         * Flushes and closes the current log file. The file is truncated if it is written to again.
+         */
+        public void closeCurrent() {
+            if (asyncCurrentWriter != null) {
+                asyncCurrentWriter.close();
+                asyncCurrentWriter = null;
+            }
+            if (currentFileWriter != null) {
+                try {
+                    currentFileWriter.close();
+                } catch (IOException e) {
+                    throw new AssertionError(e);
+                }
+                currentFileWriter = null;
+            }
+        }
+
         public FileWriter getQueryPlanFileWriter() {
             if (!logQueryPlan) {
                 throw new UnsupportedOperationException();
@@ -163,6 +220,10 @@ public final class Main {
             if (!logEachSelect) {
                 throw new UnsupportedOperationException();
             }
+            if (asyncLogging) {
+                getAsyncCurrentWriter().write(getStateString(state));
+                return;
+            }
             printState(getCurrentFileWriter(), state);
             try {
                 currentFileWriter.flush();
@@ -184,6 +245,10 @@ public final class Main {
             if (!logEachSelect) {
                 throw new UnsupportedOperationException();
             }
+            if (asyncLogging) {
+                getAsyncCurrentWriter().write(loggable.getLogString());
+                return;
+            }
             try {
                 getCurrentFileWriter().write(loggable.getLogString());
 
@@ -228,6 +293,14 @@ public final class Main {
         }
 
         private void printState(FileWriter writer, StateToReproduce state) {
+            try {
+                writer.write(getStateString(state));
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        }
+
+        private String getStateString(StateToReproduce state) {
             StringBuilder sb = new StringBuilder();
 
             sb.append(databaseProvider.getLoggableFactory()
@@ -236,11 +309,7 @@ public final class Main {
             for (Query<?> s : state.getStatements()) {
                 sb.append(databaseProvider.getLoggableFactory().createLoggable(s.getLogString()).getLogString());
             }
-            try {
-                writer.write(sb.toString());
-            } catch (IOException e) {
-                throw new AssertionError(e);
-            }
+            return sb.toString();
         }
 
         private String removeNamesFromQueryPlans(String queryPlan) {
@@ -263,31 +332,36 @@ public final class Main {
         public boolean execute(Query<C> q, String... fills) throws Exception {
             boolean success;
             success = q.execute(globalState, fills);
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             if (globalState.getOptions().loggerPrintFailed() || success) {
                 globalState.getState().logStatement(q);
             }
             return success;
         }
 
+        void logExecuted(Query<C> q) {
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
+            globalState.getState().logStatement(q);
+        }
+
         public SQLancerResultSet executeAndGet(Query<C> q, String... fills) throws Exception {
             globalState.getState().logStatement(q);
             SQLancerResultSet result;
             result = q.executeAndGet(globalState, fills);
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             return result;
         }
 
         public void incrementSelectQueryCount() {
-            Main.nrQueries.addAndGet(1);
+            Main.NR_QUERIES.increment();
         }
 
         public Long getSelectQueryCount() {
-            return Main.nrQueries.get();
+            return Main.NR_QUERIES.sum();
         }
 
         public void incrementCreateDatabase() {
-            Main.nrDatabases.addAndGet(1);
+            Main.NR_DATABASES.increment();
         }
 
     }
@@ -305,14 +379,21 @@ public final class Main {
         private StateLogger logger;
         private StateToReproduce stateToRepro;
         private final Randomly r;
+        private final DatabasePool databasePool;
 
         public DBMSExecutor(DatabaseProvider<G, O, C> provider, MainOptions options, O dbmsSpecificOptions,
                 String databaseName, Randomly r) {
+            this(provider, options, dbmsSpecificOptions, databaseName, r, new DatabasePool(false));
+        }
+
+        public DBMSExecutor(DatabaseProvider<G, O, C> provider, MainOptions options, O dbmsSpecificOptions,
+                String databaseName, Randomly r, DatabasePool databasePool) {
             this.provider = provider;
             this.options = options;
             this.databaseName = databaseName;
             this.command = dbmsSpecificOptions;
             this.r = r;
+            this.databasePool = databasePool;
         }
 
         private G createGlobalState() {
@@ -344,7 +425,10 @@ public final class Main {
             state.setDatabaseName(databaseName);
             state.setMainOptions(options);
             state.setDbmsSpecificOptions(command);
-            try (C con = provider.createDatabase(state)) {
+            C con = databasePool.lease(provider, state);
+            Reproducer<G> reproducer = null;
+            boolean canBeReused = false;
+            try {
                 QueryManager<C> manager = new QueryManager<>(state);
                 try {
                     stateToRepro.databaseVersion = con.getDatabaseVersion();
@@ -357,36 +441,45 @@ public final class Main {
                 if (options.logEachSelect()) {
                     logger.writeCurrent(state.getState());
                 }
-                Reproducer<G> reproducer = null;
                 if (options.enableQPG()) {
                     provider.generateAndTestDatabaseWithQueryPlanGuidance(state);
                 } else {
                     reproducer = provider.generateAndTestDatabase(state);
                 }
-                try {
-                    logger.getCurrentFileWriter().close();
-                    logger.currentFileWriter = null;
-                } catch (IOException e) {
-                    throw new AssertionError(e);
-                }
-                if (reproducer != null && options.useReducer()) {
-                    System.out.println("EXPERIMENTAL: Trying to reduce queries using a simple reducer.");
-                    System.out.println("Reduced query will be output to stdout but not logs.");
-                    G newGlobalState = createGlobalState();
-                    newGlobalState.setState(stateToRepro);
-                    newGlobalState.setRandomly(r);
-                    newGlobalState.setDatabaseName(databaseName);
-                    newGlobalState.setMainOptions(options);
-                    newGlobalState.setDbmsSpecificOptions(command);
-                    QueryManager<C> newManager = new QueryManager<>(newGlobalState);
-                    newGlobalState.setStateLogger(new StateLogger(databaseName, provider, options));
-                    newGlobalState.setManager(newManager);
-
-                    Reducer<G> reducer = new StatementReducer<>(provider);
-                    reducer.reduce(state, reproducer, newGlobalState);
-                    throw new AssertionError("Found a potential bug");
+                logger.closeCurrent();
+                canBeReused = reproducer == null;
+            } catch (IgnoreMeException e) {
+                canBeReused = true;
+                throw e;
+            } finally {
+                if (canBeReused) {
+                    databasePool.release(con);
+                } else {
+                    con.close();
                 }
             }
+            if (reproducer != null && options.useReducer()) {
+                System.out.println("EXPERIMENTAL: Trying to reduce queries using a simple reducer.");
+                System.out.println("Reduced query will be output to stdout but not logs.");
+                Reducer<G> reducer = new StatementReducer<>(provider, options.getNumberReducerThreads(),
+                        i -> createReducerGlobalState(databaseName + "_reduce" + i));
+                reducer.reduce(state, reproducer, createReducerGlobalState(databaseName));
+                throw new AssertionError("Found a potential bug");
+            }
+        }
+
+        private G createReducerGlobalState(String reducerDatabaseName) {
+            G newGlobalState = createGlobalState();
+            // the statements that the provider logs when creating the databases must not be added to stateToRepro
+            newGlobalState.setState(provider.getStateToReproduce(reducerDatabaseName));
+            // the generator is created by the reducer's thread that uses the global state (see StatementReducer)
+            newGlobalState.setDatabaseName(reducerDatabaseName);
+            newGlobalState.setMainOptions(options);
+            newGlobalState.setDbmsSpecificOptions(command);
+            QueryManager<C> newManager = new QueryManager<>(newGlobalState);
+            newGlobalState.setStateLogger(new StateLogger(reducerDatabaseName, provider, options));
+            newGlobalState.setManager(newManager);
+            return newGlobalState;
         }
 
         private G getInitializedGlobalState(long seed) {
@@ -436,11 +529,15 @@ public final class Main {
             return command;
         }
 
-        @SuppressWarnings("unchecked")
         public DBMSExecutor<G, O, C> getDBMSExecutor(String databaseName, Randomly r) {
+            return getDBMSExecutor(databaseName, r, new DatabasePool(false));
+        }
+
+        @SuppressWarnings("unchecked")
+        public DBMSExecutor<G, O, C> getDBMSExecutor(String databaseName, Randomly r, DatabasePool databasePool) {
             try {
                 return new DBMSExecutor<G, O, C>(provider.getClass().getDeclaredConstructor().newInstance(), options,
-                        command, databaseName, r);
+                        command, databaseName, r, databasePool);
             } catch (Exception e) {
                 throw new AssertionError(e);
             }
@@ -452,6 +549,21 @@ public final class Main {
 
     }
 
+    // checks whether the test oracles can be executed on the number of additional connections given by the options
+    private static String getOracleConnectionsError(MainOptions options, DatabaseProvider<?, ?, ?> provider) {
+        if (options.getNrOracleConnections() == 0) {
+            return null;
+        }
+        if (!provider.supportsOracleConnections()) {
+            return provider.getDBMSName() + " does not support --num-oracle-connections";
+        }
+        if (options.enableQPG()) {
+            // query plan guidance mutates the database between the queries
+            return "--num-oracle-connections cannot be combined with --qpg-enable";
+        }
+        return null;
+    }
+
     public static int executeMain(String... args) throws AssertionError {
         List<DatabaseProvider<?, ?, ?>> providers = getDBMSProviders();
         Map<String, DBMSExecutorFactory<?, ?, ?>> nameToProvider = new HashMap<>();
@@ -470,8 +582,20 @@ public final class Main {
             jc.usage();
             return options.getErrorExitCode();
         }
+        String optionError = getOracleConnectionsError(options,
+                nameToProvider.get(jc.getParsedCommand()).getProvider());
+        if (optionError != null) {
+            System.err.println(optionError);
+            jc.usage();
+            return options.getErrorExitCode();
+        }
 
         Randomly.initialize(options);
+        Metrics.setCommonLabels("dbms", jc.getParsedCommand());
+        SlowStatementLog.setFile(new File(new File(LOG_DIRECTORY, jc.getParsedCommand()), "slow-statements.log"));
+        if (options.getMetricsFile() != null) {
+            startMetricsExporter(options);
+        }
         if (options.printProgressInformation()) {
             startProgressMonitor();
             if (options.printProgressSummary()) {
@@ -481,12 +605,23 @@ public final class Main {
                     public void run() {
                         System.out.println("Overall execution statistics");
                         System.out.println("============================");
-                        System.out.println(formatInteger(nrQueries.get()) + " queries");
-                        System.out.println(formatInteger(nrDatabases.get()) + " databases");
+                        System.out.println(formatInteger(NR_QUERIES.sum()) + " queries");
+                        System.out.println(formatInteger(NR_DATABASES.sum()) + " databases");
                         System.out.println(
-                                formatInteger(nrSuccessfulActions.get()) + " successfully-executed statements");
+                                formatInteger(NR_SUCCESSFUL_ACTIONS.sum()) + " successfully-executed statements");
                         System.out.println(
-                                formatInteger(nrUnsuccessfulActions.get()) + " unsuccessfuly-executed statements");
+                                formatInteger(NR_UNSUCCESSFUL_ACTIONS.sum()) + " unsuccessfuly-executed statements");
+                        System.out.println(formatInteger(DatabasePool.getNrCreatedDatabases()) + " created databases");
+                        System.out.println(formatInteger(DatabasePool.getNrResetDatabases()) + " reset databases");
+                        System.out.println(formatInteger(DatabasePool.getTotalSetupTimeMillis())
+                                + " ms spent setting up databases");
+                        System.out.println();
+                        System.out.println("Statement latencies by action or test oracle");
+                        try {
+                            Metrics.writeLatencySummary(System.out, StatementSource.STATEMENT_SECONDS, 15);
+                        } catch (IOException e) {
+                            throw new AssertionError(e);
+                        }
                     }
 
                     private String formatInteger(long intValue) {
@@ -500,7 +635,9 @@ public final class Main {
             }
         }
 
-        ExecutorService execService = Executors.newFixedThreadPool(options.getNumberConcurrentThreads());
+        ExecutorService execService = createExecutorService(options);
+        // bounds the number of databases tested concurrently, which is otherwise unbounded for virtual threads
+        Semaphore concurrencyLimiter = new Semaphore(options.getNumberConcurrentThreads());
         DBMSExecutorFactory<?, ?, ?> executorFactory = nameToProvider.get(jc.getParsedCommand());
 
         if (options.performConnectionTest()) {
@@ -534,17 +671,26 @@ public final class Main {
 
                 private void runThread(final String databaseName) {
                     Randomly r = new Randomly(seed);
-                    try {
+                    boolean acquired = false;
+                    try (DatabasePool databasePool = new DatabasePool(options.reuseDatabases())) {
+                        concurrencyLimiter.acquire();
+                        acquired = true;
                         int maxNrDbs = options.getMaxGeneratedDatabases();
                         // run without a limit if maxNrDbs == -1
                         for (int i = 0; i < maxNrDbs || maxNrDbs == -1; i++) {
-                            Boolean continueRunning = run(options, execService, executorFactory, r, databaseName);
+                            Boolean continueRunning = run(options, execService, executorFactory, r, databaseName,
+                                    databasePool);
                             if (!continueRunning) {
                                 someOneFails.set(true);
                                 break;
                             }
                         }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
                     } finally {
+                        if (acquired) {
+                            concurrencyLimiter.release();
+                        }
                         threadsShutdown.addAndGet(1);
                         if (threadsShutdown.get() == options.getTotalNumberTries()) {
                             execService.shutdown();
@@ -553,8 +699,9 @@ public final class Main {
                 }
 
                 private boolean run(MainOptions options, ExecutorService execService,
-                        DBMSExecutorFactory<?, ?, ?> executorFactory, Randomly r, final String databaseName) {
-                    DBMSExecutor<?, ?, ?> executor = executorFactory.getDBMSExecutor(databaseName, r);
+                        DBMSExecutorFactory<?, ?, ?> executorFactory, Randomly r, final String databaseName,
+                        DatabasePool databasePool) {
+                    DBMSExecutor<?, ?, ?> executor = executorFactory.getDBMSExecutor(databaseName, r, databasePool);
                     try {
                         executor.run();
                         return true;
@@ -563,18 +710,19 @@ public final class Main {
                     } catch (Throwable reduce) {
                         reduce.printStackTrace();
                         executor.getStateToReproduce().exception = reduce.getMessage();
+                        if (options.logEachSelect()) {
+                            // the current log must be complete before the bug is reported
+                            executor.getLogger().flushCurrent();
+                        }
                         executor.getLogger().logFileWriter = null;
                         executor.getLogger().logException(reduce, executor.getStateToReproduce());
                         return false;
                     } finally {
                         try {
                             if (options.logEachSelect()) {
-                                if (executor.getLogger().currentFileWriter != null) {
-                                    executor.getLogger().currentFileWriter.close();
-                                }
-                                executor.getLogger().currentFileWriter = null;
+                                executor.getLogger().closeCurrent();
                             }
-                        } catch (IOException e) {
+                        } catch (AssertionError e) {
                             e.printStackTrace();
                         }
                     }
@@ -594,6 +742,20 @@ public final class Main {
         return someOneFails.get() ? options.getErrorExitCode() : 0;
     }
 
+    private static ExecutorService createExecutorService(MainOptions options) {
+        if (options.useVirtualThreads()) {
+            try {
+                // looked up reflectively, since SQLancer is compiled for Java 11
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Virtual threads require Java 21 or later; using "
+                        + options.getNumberConcurrentThreads() + " platform threads instead.");
+            }
+        }
+        return Executors.newFixedThreadPool(options.getNumberConcurrentThreads());
+    }
+
     /**
      * To register a new provider, it is necessary to implement the DatabaseProvider interface and add an additional
      * configuration file, see https://docs.oracle.com/javase/9/docs/api/java/util/ServiceLoader.html. Currently, we use
@@ -612,6 +774,26 @@ public final class Main {
         return providers;
     }
 
+    private static void startMetricsExporter(MainOptions options) {
+        Path metricsFile = Paths.get(options.getMetricsFile());
+        Runnable export = () -> {
+            try {
+                Metrics.export(metricsFile, options.getMetricsFormat());
+            } catch (IOException e) {
+                System.err.println("Could not write the metrics to " + metricsFile + ": " + e.getMessage());
+            }
+        };
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sqlancer-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(export, options.getMetricsIntervalSeconds(), options.getMetricsIntervalSeconds(),
+                TimeUnit.SECONDS);
+        // the last export contains the metrics of the whole run
+        Runtime.getRuntime().addShutdownHook(new Thread(export));
+    }
+
     private static synchronized void startProgressMonitor() {
         if (progressMonitorStarted) {
             /*
@@ -636,14 +818,14 @@ public final class Main {
             @Override
             public void run() {
                 long elapsedTimeMillis = System.currentTimeMillis() - timeMillis;
-                long currentNrQueries = nrQueries.get();
+                long currentNrQueries = NR_QUERIES.sum();
                 long nrCurrentQueries = currentNrQueries - lastNrQueries;
                 double throughput = nrCurrentQueries / (elapsedTimeMillis / 1000d);
-                long currentNrDbs = nrDatabases.get();
+                long currentNrDbs = NR_DATABASES.sum();
                 long nrCurrentDbs = currentNrDbs - lastNrDbs;
                 double throughputDbs = nrCurrentDbs / (elapsedTimeMillis / 1000d);
-                long successfulStatementsRatio = (long) (100.0 * nrSuccessfulActions.get()
-                        / (nrSuccessfulActions.get() + nrUnsuccessfulActions.get()));
+                long successfulStatementsRatio = (long) (100.0 * NR_SUCCESSFUL_ACTIONS.sum()
+                        / (NR_SUCCESSFUL_ACTIONS.sum() + NR_UNSUCCESSFUL_ACTIONS.sum()));
                 DateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd HH:mm:ss");
                 Date date = new Date();
                 System.out.println(String.format(
@@ -6,6 +6,7 @@ import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 
 import sqlancer.Randomly.StringGenerationStrategy;
+import sqlancer.common.metrics.Metrics;
 
 @Parameters(separators = "=", commandDescription = "Options applicable to all DBMS")
 public class MainOptions {
@@ -19,6 +20,9 @@ public class MainOptions {
             "--num-threads" }, description = "How many threads should run concurrently to test separate databases")
     private int nrConcurrentThreads = 16; // NOPMD
 
+    @Parameter(names = "--use-virtual-threads", description = "Run each database on a virtual thread (requires Java 21 or later) rather than on a platform thread, while still testing at most --num-threads databases concurrently", arity = 1)
+    private boolean useVirtualThreads; // NOPMD
+
     @Parameter(names = {
             "--random-seed" }, description = "A seed value != -1 that can be set to make the query and database generation deterministic")
     private long randomSeed = -1; // NOPMD
@@ -37,16 +41,34 @@ public class MainOptions {
             "--num-queries" }, description = "Specifies the number of queries to be issued to a database before creating a new database")
     private int nrQueries = 100000; // NOPMD
 
+    @Parameter(names = {
+            "--num-oracle-connections" }, description = "Specifies the number of additional read-only connections to each generated database, on which test oracles are executed concurrently to share the --num-queries queries (only for test oracles that issue queries only; supported by SQLite3, DuckDB and H2, and not with --qpg-enable)")
+    private int nrOracleConnections; // NOPMD
+
     @Parameter(names = {
             "--num-statement-kind-retries" }, description = "Specifies the number of times a specific statement kind (e.g., INSERT) should be retried when the DBMS indicates that it failed")
     private int nrStatementRetryCount = 1000; // NOPMD
 
+    @Parameter(names = {
+            "--statement-batch-size" }, description = "Specifies how many consecutive statements that do not affect the schema are sent to the DBMS as a single batch when generating a database (1 disables batching)")
+    private int statementBatchSize = 1; // NOPMD
+
+    @Parameter(names = "--incremental-schema", description = "Apply the effect of DDL statements to the schema rather than reading the whole schema after each statement that could affect it (only supported by some DBMS)", arity = 1)
+    private boolean incrementalSchema; // NOPMD
+
+    @Parameter(names = {
+            "--schema-verification-interval" }, description = "Compare the incrementally-updated schema against the catalog after every n-th incremental update (0 disables the verification)")
+    private int schemaVerificationInterval; // NOPMD
+
     @Parameter(names = "--log-each-select", description = "Logs every statement issued", arity = 1)
     private boolean logEachSelect = true; // NOPMD
 
     @Parameter(names = "--log-execution-time", description = "Logs the execution time of each statement (requires --log-each-select to be enabled)", arity = 1)
     private boolean logExecutionTime = true; // NOPMD
 
+    @Parameter(names = "--async-logging", description = "Write the log of each statement (see --log-each-select) using a background thread rather than flushing it after each statement. The last statements might be missing from the log if the JVM crashes", arity = 1)
+    private boolean asyncLogging; // NOPMD
+
     @Parameter(names = "--print-failed", description = "Logs failed insert, create and other statements without results", arity = 1)
     private boolean loggerPrintFailed = true; // NOPMD
 
@@ -65,6 +87,15 @@ public class MainOptions {
     @Parameter(names = "--qpg-selection-probability", description = "The probability (0-1) of the random selection of mutators. A higher value (>0.5) favors exploration over exploitation. (requires --qpg-enable)")
     private static double qpgProbability = 0.7;
 
+    @Parameter(names = "--qpg-max-pool-size", description = "The maximum number of query plans of the current database, and of queries producing them, that are kept to be re-checked after a mutation. The least recently observed query plan is evicted first (requires --qpg-enable)")
+    private int qpgMaxPoolSize = 1000; // NOPMD
+
+    @Parameter(names = "--qpg-max-observed-plans", description = "The maximum number of fingerprints of observed query plans that are shared by all threads. Query plans not observed recently are evicted and count as new again (requires --qpg-enable)")
+    private int qpgMaxObservedPlans = 100000; // NOPMD
+
+    @Parameter(names = "--qpg-recheck-sample-size", description = "The maximum number of queries whose query plans are re-checked after a mutation; if the pool contains more queries, a random sample is re-checked (requires --qpg-enable)")
+    private int qpgRecheckSampleSize = 100; // NOPMD
+
     @Parameter(names = "--username", description = "The user name used to log into the DBMS")
     private String userName = "sqlancer"; // NOPMD
 
@@ -80,6 +111,27 @@ public class MainOptions {
     @Parameter(names = "--print-progress-information", description = "Whether to print progress information such as the number of databases generated or queries issued", arity = 1)
     private boolean printProgressInformation = true; // NOPMD
 
+    @Parameter(names = "--metrics-file", description = "Periodically writes counters and latency histograms (e.g., of statement execution and of each test oracle) to the given file, which is rewritten as a whole at each interval")
+    private String metricsFile; // NOPMD
+
+    @Parameter(names = "--metrics-format", description = "The format of the metrics file (see --metrics-file)")
+    private Metrics.Format metricsFormat = Metrics.Format.JSON; // NOPMD
+
+    @Parameter(names = "--metrics-interval-seconds", description = "The interval in seconds at which the metrics file is rewritten (see --metrics-file)")
+    private int metricsIntervalSeconds = 5; // NOPMD
+
+    @Parameter(names = "--slow-statement-threshold-ms", description = "Logs a sample of the statements whose execution takes at least the given number of milliseconds to slow-statements.log in the log directory (-1 to disable)")
+    private long slowStatementThresholdMillis = 1000; // NOPMD
+
+    @Parameter(names = "--performance-slowdown-factor", description = "The factor by which the optimized query of an equivalent query pair must be slower than the unoptimized one to be reported by the PERFORMANCE oracles")
+    private double performanceSlowdownFactor = 100; // NOPMD
+
+    @Parameter(names = "--performance-min-time-ms", description = "The minimum execution time in milliseconds of the optimized query of an equivalent query pair to be reported by the PERFORMANCE oracles")
+    private long performanceMinTimeMillis = 50; // NOPMD
+
+    @Parameter(names = "--performance-repetitions", description = "The number of times that the PERFORMANCE oracles re-execute a suspiciously slow query pair to compare the median execution times")
+    private int performanceRepetitions = 5; // NOPMD
+
     @Parameter(names = "--print-progress-summary", description = "Whether to print an execution summary when exiting SQLancer", arity = 1)
     private boolean printProgressSummary; // NOPMD
 
@@ -122,9 +174,15 @@ public class MainOptions {
     @Parameter(names = "--database-prefix", description = "The prefix used for each database created")
     private String databasePrefix = "database"; // NOPMD
 
+    @Parameter(names = "--reuse-databases", description = "Reuse each thread's connection and reset its database instead of creating a new database (only supported by some DBMS)", arity = 1)
+    private boolean reuseDatabases; // NOPMD
+
     @Parameter(names = "--use-reducer", description = "EXPERIMENTAL Attempt to reduce queries using a simple reducer")
     private boolean useReducer = false; // NOPMD
 
+    @Parameter(names = "--num-reducer-threads", description = "The number of reduction candidates that the reducer (see --use-reducer) tests in parallel, each on a separate database")
+    private int nrReducerThreads = 1; // NOPMD
+
     public int getMaxExpressionDepth() {
         return maxExpressionDepth;
     }
@@ -137,6 +195,18 @@ public class MainOptions {
         return nrConcurrentThreads;
     }
 
+    public boolean useVirtualThreads() {
+        return useVirtualThreads;
+    }
+
+    public boolean useIncrementalSchema() {
+        return incrementalSchema;
+    }
+
+    public int getSchemaVerificationInterval() {
+        return schemaVerificationInterval;
+    }
+
     public boolean logEachSelect() {
         return logEachSelect;
     }
@@ -155,6 +225,10 @@ public class MainOptions {
         return printSucceedingStatements;
     }
 
+    public boolean asyncLogging() {
+        return asyncLogging;
+    }
+
     public boolean logExecutionTime() {
         if (!logEachSelect) {
             throw new AssertionError();
@@ -186,10 +260,54 @@ public class MainOptions {
         return qpgProbability;
     }
 
+    public int getQPGMaxPoolSize() {
+        return qpgMaxPoolSize;
+    }
+
+    public int getQPGMaxObservedPlans() {
+        return qpgMaxObservedPlans;
+    }
+
+    public int getQPGRecheckSampleSize() {
+        return qpgRecheckSampleSize;
+    }
+
+    public String getMetricsFile() {
+        return metricsFile;
+    }
+
+    public Metrics.Format getMetricsFormat() {
+        return metricsFormat;
+    }
+
+    public int getMetricsIntervalSeconds() {
+        return metricsIntervalSeconds;
+    }
+
+    public long getSlowStatementThresholdMillis() {
+        return slowStatementThresholdMillis;
+    }
+
+    public double getPerformanceSlowdownFactor() {
+        return performanceSlowdownFactor;
+    }
+
+    public long getPerformanceMinTimeMillis() {
+        return performanceMinTimeMillis;
+    }
+
+    public int getPerformanceRepetitions() {
+        return performanceRepetitions;
+    }
+
     public int getNrQueries() {
         return nrQueries;
     }
 
+    public int getNrOracleConnections() {
+        return nrOracleConnections;
+    }
+
     public int getMaxNumberInserts() {
         return maxNumberInserts;
     }
@@ -198,6 +316,10 @@ public class MainOptions {
         return nrStatementRetryCount;
     }
 
+    public int getStatementBatchSize() {
+        return statementBatchSize;
+    }
+
     public String getUserName() {
         return userName;
     }
@@ -278,6 +400,10 @@ public class MainOptions {
         return databasePrefix;
     }
 
+    public boolean reuseDatabases() {
+        return reuseDatabases;
+    }
+
     public boolean performConnectionTest() {
         return useConnectionTest;
     }
@@ -285,4 +411,8 @@ public class MainOptions {
     public boolean useReducer() {
         return useReducer;
     }
+
+    public int getNumberReducerThreads() {
+        return nrReducerThreads;
+    }
 }
@@ -1,27 +1,41 @@
 package sqlancer;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
 
 import sqlancer.StateToReproduce.OracleRunReproductionState;
-import sqlancer.common.DBMSCommon;
+import sqlancer.common.metrics.LatencyHistogram;
+import sqlancer.common.metrics.Metrics;
+import sqlancer.common.metrics.StatementSource;
 import sqlancer.common.oracle.CompositeTestOracle;
 import sqlancer.common.oracle.TestOracle;
+import sqlancer.common.query.Query;
 import sqlancer.common.schema.AbstractSchema;
 
 public abstract class ProviderAdapter<G extends GlobalState<O, ? extends AbstractSchema<G, ?>, C>, O extends DBMSSpecificOptions<? extends OracleFactory<G>>, C extends SQLancerDBConnection>
         implements DatabaseProvider<G, O, C> {
 
+    private static final LatencyHistogram DATABASE_GENERATION_TIME = Metrics.getPhaseHistogram("database_generation");
+
     private final Class<G> globalClass;
     private final Class<O> optionClass;
 
-    // Variables for QPG
-    Map<String, String> queryPlanPool = new HashMap<>();
-    static double[] weightedAverageReward; // static variable for sharing across all threads
+    // Variables for QPG; the rewards and the observed query plans are shared by all threads, while the query plans of
+    // the current database are kept as a local view that maps their fingerprints to a query producing them
+    QueryPlanGuidance queryPlanGuidance;
+    Map<Long, String> queryPlanPool;
     int currentSelectRewards;
     int currentSelectCounts;
     int currentMutationOperator = -1;
@@ -48,39 +62,221 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
 
     @Override
     public Reproducer<G> generateAndTestDatabase(G globalState) throws Exception {
-        try {
-            generateDatabase(globalState);
-            checkViewsAreValid(globalState);
-            globalState.getManager().incrementCreateDatabase();
+        long startTime = System.nanoTime();
+        generateDatabase(globalState);
+        checkViewsAreValid(globalState);
+        DATABASE_GENERATION_TIME.recordSince(startTime);
+        globalState.getManager().incrementCreateDatabase();
+
+        int nrOracleConnections = globalState.getOptions().getNrOracleConnections();
+        if (nrOracleConnections > 0) {
+            return testDatabaseConcurrently(globalState, nrOracleConnections);
+        }
+        return testDatabase(globalState, globalState.getOptions().getNrQueries(), new AtomicBoolean());
+    }
 
-            TestOracle<G> oracle = getTestOracle(globalState);
-            for (int i = 0; i < globalState.getOptions().getNrQueries(); i++) {
-                try (OracleRunReproductionState localState = globalState.getState().createLocalState()) {
-                    assert localState != null;
-                    try {
-                        oracle.check();
-                        globalState.getManager().incrementSelectQueryCount();
-                    } catch (IgnoreMeException e) {
+    // executes the given number of test oracle checks, or fewer if another connection has already found a bug
+    private Reproducer<G> testDatabase(G globalState, int nrQueries, AtomicBoolean stop) throws Exception {
+        TestOracle<G> oracle = getTestOracle(globalState);
+        LatencyHistogram checkTime = getCheckTimeHistogram(oracle);
+        for (int i = 0; i < nrQueries && !stop.get(); i++) {
+            try (OracleRunReproductionState localState = globalState.getState().createLocalState()) {
+                assert localState != null;
+                try {
+                    check(globalState, oracle, checkTime);
+                    globalState.getManager().incrementSelectQueryCount();
+                } catch (IgnoreMeException e) {
+
+                } catch (AssertionError e) {
+                    Reproducer<G> reproducer = oracle.getLastReproducer();
+                    if (reproducer != null) {
+                        return reproducer;
+                    }
+                    throw e;
+                }
+                assert localState != null;
+                localState.executedWithoutError();
+            }
+        }
+        return null;
+    }
 
-                    } catch (AssertionError e) {
-                        Reproducer<G> reproducer = oracle.getLastReproducer();
-                        if (reproducer != null) {
-                            return reproducer;
-                        }
-                        throw e;
+    /*
+     * Executes the test oracles both on the connection that generated the database and on additional connections to the
+     * same database, each of which is used by its own thread with its own global state, random number generator, and
+     * state to reproduce. The test oracles only issue queries, and the additional connections are brought into the
+     * state of the first one before any of them is used (see createOracleConnection), so a bug found on any connection
+     * can be reproduced from the statements that generated the database, followed by the statements of the failing test
+     * oracle run, which are added to the state to reproduce of the given global state.
+     */
+    private Reproducer<G> testDatabaseConcurrently(G globalState, int nrOracleConnections) throws Exception {
+        int nrQueries = globalState.getOptions().getNrQueries();
+        int nrQueriesPerConnection = nrQueries / (nrOracleConnections + 1);
+        AtomicBoolean stop = new AtomicBoolean();
+        List<C> connections = new ArrayList<>();
+        List<OracleConnectionRun> runs = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(nrOracleConnections);
+        Reproducer<G> reproducer;
+        try {
+            // the connections are opened before the test oracles are executed, which might change session settings
+            try {
+                for (int i = 0; i < nrOracleConnections; i++) {
+                    connections.add(createOracleConnection(globalState));
+                }
+            } catch (IgnoreMeException e) {
+                return testDatabase(globalState, nrQueries, stop);
+            }
+            List<Future<Reproducer<G>>> futures = new ArrayList<>();
+            for (int i = 0; i < nrOracleConnections; i++) {
+                OracleConnectionRun run = new OracleConnectionRun(globalState, connections.get(i),
+                        globalState.getDatabaseName() + "-oracle" + (i + 1),
+                        globalState.getRandomly().getLong(0, Long.MAX_VALUE), nrQueriesPerConnection, stop);
+                runs.add(run);
+                futures.add(executor.submit(run));
+            }
+            try {
+                reproducer = testDatabase(globalState, nrQueries - nrOracleConnections * nrQueriesPerConnection, stop);
+            } finally {
+                stop.set(true);
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                Reproducer<G> connectionReproducer;
+                try {
+                    connectionReproducer = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    runs.get(i).addStatementsTo(globalState.getState());
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
                     }
-                    assert localState != null;
-                    localState.executedWithoutError();
+                    throw (Error) cause;
+                }
+                if (reproducer == null && connectionReproducer != null) {
+                    runs.get(i).addStatementsTo(globalState.getState());
+                    reproducer = connectionReproducer;
                 }
             }
         } finally {
-            globalState.getConnection().close();
+            // the other connections must be closed before the database is dropped or overwritten
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            for (C connection : connections) {
+                connection.close();
+            }
         }
-        return null;
+        return reproducer;
+    }
+
+    /**
+     * Opens an additional connection to the database of the given global state, on which test oracles are executed
+     * concurrently to those on the global state's connection (see <code>--num-oracle-connections</code>). The
+     * connection should be read-only if the DBMS supports it. Since temporary tables and session settings are not
+     * shared by connections, an implementation must execute the statements of the global state that changed its session
+     * settings on the new connection, and must throw an {@link IgnoreMeException} if the database has state that cannot
+     * be reproduced in this way. This method is called before any test oracle is executed on the global state's
+     * connection, and only if {@link #supportsOracleConnections()} returns true, so a provider that overrides it must
+     * also override {@link #supportsOracleConnections()}.
+     *
+     * @param globalState
+     *            the global state whose database has been generated
+     *
+     * @return the connection
+     *
+     * @throws IgnoreMeException
+     *             if the database cannot be shared with another connection in its current state, in which case all test
+     *             oracles are executed on the global state's connection
+     * @throws Exception
+     *             if the connection cannot be opened
+     */
+    protected C createOracleConnection(G globalState) throws Exception {
+        // the option is rejected for providers that do not support it
+        throw new AssertionError(getDBMSName() + " does not support --num-oracle-connections");
+    }
+
+    // the test oracle checks on an additional connection, which are executed by another thread
+    private final class OracleConnectionRun implements Callable<Reproducer<G>> {
+
+        private final G mainState;
+        private final C connection;
+        private final String name;
+        private final long seed;
+        private final int nrQueries;
+        private final AtomicBoolean stop;
+        private final StateToReproduce state;
+
+        OracleConnectionRun(G mainState, C connection, String name, long seed, int nrQueries, AtomicBoolean stop) {
+            this.mainState = mainState;
+            this.connection = connection;
+            this.name = name;
+            this.seed = seed;
+            this.nrQueries = nrQueries;
+            this.stop = stop;
+            this.state = getStateToReproduce(name);
+            this.state.seedValue = seed;
+        }
+
+        @Override
+        public Reproducer<G> call() throws Exception {
+            G globalState;
+            try {
+                globalState = globalClass.getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new AssertionError(e);
+            }
+            globalState.setState(state);
+            // the generator is created by this thread, so that the static methods of Randomly use it, too
+            globalState.setRandomly(new Randomly(seed));
+            globalState.setDatabaseName(mainState.getDatabaseName());
+            globalState.setMainOptions(mainState.getOptions());
+            globalState.setDbmsSpecificOptions(mainState.getDbmsSpecificOptions());
+            globalState.setStateLogger(new Main.StateLogger(name, ProviderAdapter.this, mainState.getOptions()));
+            globalState.setManager(new Main.QueryManager<>(globalState));
+            globalState.setConnection(connection);
+            try {
+                return testDatabase(globalState, nrQueries, stop);
+            } catch (IgnoreMeException e) {
+                return null; // for example, if the test oracle cannot be created for the database
+            } catch (Throwable t) {
+                stop.set(true);
+                throw t;
+            } finally {
+                globalState.getLogger().closeCurrent();
+            }
+        }
+
+        // adds the statements of the failing test oracle run, for reproducing the bug on the database
+        void addStatementsTo(StateToReproduce mainStateToReproduce) {
+            for (Query<?> statement : state.getStatements()) {
+                mainStateToReproduce.logStatement(statement);
+            }
+        }
+
     }
 
     protected abstract void checkViewsAreValid(G globalState) throws SQLException;
 
+    // composite oracles measure the check time, and set the statement source, of each of their oracles
+    private static LatencyHistogram getCheckTimeHistogram(TestOracle<?> oracle) {
+        return oracle instanceof CompositeTestOracle ? null
+                : Metrics.getOracleCheckHistogram(oracle.getClass().getSimpleName());
+    }
+
+    private static void check(GlobalState<?, ?, ?> globalState, TestOracle<?> oracle, LatencyHistogram checkTime)
+            throws Exception {
+        long startTime = System.nanoTime();
+        if (checkTime != null) {
+            globalState.setStatementSource(StatementSource.ofOracle(oracle));
+        }
+        try {
+            oracle.check();
+        } finally {
+            if (checkTime != null) {
+                checkTime.recordSince(startTime);
+            }
+            globalState.setStatementSource(StatementSource.OTHER);
+        }
+    }
+
     protected TestOracle<G> getTestOracle(G globalState) throws Exception {
         List<? extends OracleFactory<G>> testOracleFactory = globalState.getDbmsSpecificOptions()
                 .getTestOracleFactory();
@@ -113,66 +309,67 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
     // QPG: entry function
     @Override
     public void generateAndTestDatabaseWithQueryPlanGuidance(G globalState) throws Exception {
-        if (weightedAverageReward == null) {
-            weightedAverageReward = initializeWeightedAverageReward(); // Same length as the list of mutators
-        }
-        try {
-            generateDatabase(globalState);
-            checkViewsAreValid(globalState);
-            globalState.getManager().incrementCreateDatabase();
-
-            Long executedQueryCount = 0L;
-            while (executedQueryCount < globalState.getOptions().getNrQueries()) {
-                int numOfNoNewQueryPlans = 0;
-                TestOracle<G> oracle = getTestOracle(globalState);
-                while (true) {
-                    try (OracleRunReproductionState localState = globalState.getState().createLocalState()) {
-                        assert localState != null;
-                        try {
-                            oracle.check();
-                            String query = oracle.getLastQueryString();
-                            executedQueryCount += 1;
-                            if (addQueryPlan(query, globalState)) {
-                                numOfNoNewQueryPlans = 0;
-                            } else {
-                                numOfNoNewQueryPlans++;
-                            }
-                            globalState.getManager().incrementSelectQueryCount();
-                        } catch (IgnoreMeException e) {
-
+        // The rewards have the same length as the list of mutators
+        queryPlanGuidance = QueryPlanGuidance.getInstance(getDBMSName(), this::initializeWeightedAverageReward,
+                globalState.getOptions().getQPGMaxObservedPlans());
+        queryPlanPool = QueryPlanGuidance.createQueryPlanPool(globalState.getOptions().getQPGMaxPoolSize());
+        long startTime = System.nanoTime();
+        generateDatabase(globalState);
+        checkViewsAreValid(globalState);
+        DATABASE_GENERATION_TIME.recordSince(startTime);
+        globalState.getManager().incrementCreateDatabase();
+
+        Long executedQueryCount = 0L;
+        while (executedQueryCount < globalState.getOptions().getNrQueries()) {
+            int numOfNoNewQueryPlans = 0;
+            TestOracle<G> oracle = getTestOracle(globalState);
+            LatencyHistogram checkTime = getCheckTimeHistogram(oracle);
+            while (true) {
+                try (OracleRunReproductionState localState = globalState.getState().createLocalState()) {
+                    assert localState != null;
+                    try {
+                        check(globalState, oracle, checkTime);
+                        String query = oracle.getLastQueryString();
+                        executedQueryCount += 1;
+                        if (addQueryPlan(query, globalState)) {
+                            numOfNoNewQueryPlans = 0;
+                        } else {
+                            numOfNoNewQueryPlans++;
                         }
-                        assert localState != null;
-                        localState.executedWithoutError();
-                    }
-                    // exit loop to mutate tables if no new query plans have been found after a while
-                    if (numOfNoNewQueryPlans > globalState.getOptions().getQPGMaxMutationInterval()) {
-                        mutateTables(globalState);
-                        break;
+                        globalState.getManager().incrementSelectQueryCount();
+                    } catch (IgnoreMeException e) {
+
                     }
+                    assert localState != null;
+                    localState.executedWithoutError();
+                }
+                // exit loop to mutate tables if no new query plans have been found after a while
+                if (numOfNoNewQueryPlans > globalState.getOptions().getQPGMaxMutationInterval()) {
+                    mutateTables(globalState);
+                    break;
                 }
             }
-        } finally {
-            globalState.getConnection().close();
         }
     }
 
     // QPG: mutate tables for a new database state
-    private synchronized boolean mutateTables(G globalState) throws Exception {
+    private boolean mutateTables(G globalState) throws Exception {
         // Update rewards based on a set of newly generated queries in last iteration
         if (currentMutationOperator != -1) {
-            weightedAverageReward[currentMutationOperator] += ((double) currentSelectRewards
-                    / (double) currentSelectCounts) * globalState.getOptions().getQPGk();
+            queryPlanGuidance.addReward(currentMutationOperator,
+                    ((double) currentSelectRewards / (double) currentSelectCounts)
+                            * globalState.getOptions().getQPGk());
         }
         currentMutationOperator = -1;
 
         // Choose mutator based on the rewards
         int selectedActionIndex = 0;
         if (Randomly.getPercentage() < globalState.getOptions().getQPGProbability()) {
-            selectedActionIndex = globalState.getRandomly().getInteger(0, weightedAverageReward.length);
+            selectedActionIndex = globalState.getRandomly().getInteger(0, queryPlanGuidance.getNrMutators());
         } else {
-            selectedActionIndex = DBMSCommon.getMaxIndexInDoubleArrary(weightedAverageReward);
+            selectedActionIndex = queryPlanGuidance.getBestMutator();
         }
-        int reward = 0;
+        double reward = 0;
 
         try {
             executeMutator(selectedActionIndex, globalState);
@@ -181,7 +378,7 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
         } catch (IgnoreMeException | AssertionError e) {
         } finally {
             // Update rewards based on existing queries associated with the query plan pool
-            updateReward(selectedActionIndex, (double) reward / (double) queryPlanPool.size(), globalState);
+            updateReward(selectedActionIndex, reward, globalState);
             currentMutationOperator = selectedActionIndex;
         }
 
@@ -191,7 +388,7 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
         return true;
     }
 
-    // QPG: add a query plan to the query plan pool and return true if the query plan is new
+    // QPG: add a query plan to the query plan pool and return true if no thread has observed the query plan before
     private boolean addQueryPlan(String selectStr, G globalState) throws Exception {
         String queryPlan = getQueryPlan(selectStr, globalState);
 
@@ -200,42 +397,54 @@ public abstract class ProviderAdapter<G extends GlobalState<O, ? extends Abstrac
         }
 
         currentSelectCounts += 1;
-        if (queryPlanPool.containsKey(queryPlan)) {
-            return false;
-        } else {
-            queryPlanPool.put(queryPlan, selectStr);
+        long fingerprint = QueryPlanGuidance.getFingerprint(queryPlan);
+        queryPlanPool.putIfAbsent(fingerprint, selectStr);
+        if (queryPlanGuidance.addObservedQueryPlan(fingerprint)) {
             currentSelectRewards += 1;
             return true;
+        } else {
+            return false;
         }
     }
 
-    // Obtain the reward of the current action based on the queries associated with the query plan pool
-    private int checkQueryPlan(G globalState) throws Exception {
+    // Obtain the reward of the current action, which is the fraction of new query plans among the re-checked queries of
+    // the query plan pool; if the pool is larger than the sample size, only a random sample of its queries is
+    // re-checked
+    private double checkQueryPlan(G globalState) throws Exception {
+        List<Map.Entry<Long, String>> items = new ArrayList<>(queryPlanPool.entrySet());
+        int nrCheckedQueries = Math.min(items.size(), globalState.getOptions().getQPGRecheckSampleSize());
+        if (nrCheckedQueries < items.size()) {
+            // Move a random sample to the front by a partial Fisher-Yates shuffle
+            for (int i = 0; i < nrCheckedQueries; i++) {
+                Collections.swap(items, i, globalState.getRandomly().getInteger(i, items.size()));
+            }
+        }
         int newQueryPlanFound = 0;
-        HashMap<String, String> modifiedQueryPlan = new HashMap<>();
-        for (Iterator<Map.Entry<String, String>> it = queryPlanPool.entrySet().iterator(); it.hasNext();) {
-            Map.Entry<String, String> item = it.next();
-            String queryPlan = item.getKey();
+        Map<Long, String> modifiedQueryPlan = new HashMap<>();
+        for (Map.Entry<Long, String> item : items.subList(0, nrCheckedQueries)) {
+            long queryPlan = item.getKey();
             String selectStr = item.getValue();
             String newQueryPlan = getQueryPlan(selectStr, globalState);
             if (newQueryPlan.isEmpty()) { // Invalid query
-                it.remove();
-            } else if (!queryPlan.equals(newQueryPlan)) { // A query plan has been changed
-                it.remove();
-                modifiedQueryPlan.put(newQueryPlan, selectStr);
-                if (!queryPlanPool.containsKey(newQueryPlan)) { // A new query plan is found
+                queryPlanPool.remove(queryPlan);
+                continue;
+            }
+            long newFingerprint = QueryPlanGuidance.getFingerprint(newQueryPlan);
+            if (queryPlan != newFingerprint) { // A query plan has been changed
+                queryPlanPool.remove(queryPlan);
+                modifiedQueryPlan.put(newFingerprint, selectStr);
+                if (queryPlanGuidance.addObservedQueryPlan(newFingerprint)) { // A new query plan is found
                     newQueryPlanFound++;
                 }
             }
         }
         queryPlanPool.putAll(modifiedQueryPlan);
-        return newQueryPlanFound;
+        return nrCheckedQueries == 0 ? 0 : (double) newQueryPlanFound / nrCheckedQueries;
     }
 
     // QPG: update the reward of current action
     private void updateReward(int actionIndex, double reward, G globalState) {
-        weightedAverageReward[actionIndex] += (reward - weightedAverageReward[actionIndex])
-                * globalState.getOptions().getQPGk();
+        queryPlanGuidance.updateReward(actionIndex, reward, globalState.getOptions().getQPGk());
     }
 
     // QPG: initialize the weighted average reward of all mutation operators (required implementation in specific DBMS)
@@ -0,0 +1,256 @@
+package sqlancer;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import sqlancer.common.DBMSCommon;
+
+/**
+ * The Query Plan Guidance (QPG) state that is shared by all threads testing the same DBMS, namely the weighted average
+ * rewards of the mutators and the fingerprints of all query plans observed so far. A query plan counts as new only if
+ * no thread has observed it before, so that the threads do not duplicate each other's exploration. Each thread
+ * additionally keeps a local view of the query plans of its current database, together with the queries that produced
+ * them, to re-check the plans after a mutation (see {@link ProviderAdapter}). The rewards are updated lock-free by
+ * compare-and-set, so that a thread mutating its database never blocks the others.
+ *
+ * Query plans are identified by fingerprints of their canonical form, and both the shared fingerprints and the local
+ * views are bounded, so that the memory used by QPG does not grow on long runs. When the number of fingerprints exceeds
+ * the limit, the fingerprints of the plans that have not been observed recently are evicted; such a plan counts as new
+ * again when it is observed next.
+ */
+public final class QueryPlanGuidance {
+
+    private static final Map<String, QueryPlanGuidance> INSTANCES = new ConcurrentHashMap<>();
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    // the bits of the weighted average reward of each mutator, as obtained by Double.doubleToRawLongBits
+    private final AtomicLongArray weightedAverageRewards;
+    // maps the fingerprint of each observed query plan to the time (in observations) of its last observation
+    private final Map<Long, Long> observedQueryPlans = new ConcurrentHashMap<>();
+    private final AtomicLong nrObservations = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final int maxObservedQueryPlans;
+
+    QueryPlanGuidance(int maxObservedQueryPlans, double... initialRewards) {
+        this.maxObservedQueryPlans = maxObservedQueryPlans;
+        weightedAverageRewards = new AtomicLongArray(initialRewards.length);
+        for (int i = 0; i < initialRewards.length; i++) {
+            weightedAverageRewards.set(i, Double.doubleToRawLongBits(initialRewards[i]));
+        }
+    }
+
+    /**
+     * Gets the QPG state shared by all threads that test the given DBMS, which is created on first use.
+     *
+     * @param dbmsName
+     *            the name of the DBMS
+     * @param initialRewards
+     *            provides the initial rewards of the mutators, and thus their number
+     * @param maxObservedQueryPlans
+     *            the maximum number of query plan fingerprints that are kept
+     *
+     * @return the shared state
+     */
+    public static QueryPlanGuidance getInstance(String dbmsName, Supplier<double[]> initialRewards,
+            int maxObservedQueryPlans) {
+        return INSTANCES.computeIfAbsent(dbmsName,
+                name -> new QueryPlanGuidance(maxObservedQueryPlans, initialRewards.get()));
+    }
+
+    /**
+     * Creates the local view of a thread, which maps the fingerprints of the query plans of its current database to a
+     * query producing them. The view keeps at most the given number of query plans, evicting the least recently
+     * observed one when a new one is added.
+     *
+     * @param maxSize
+     *            the maximum number of query plans
+     *
+     * @return an empty local view
+     */
+    public static Map<Long, String> createQueryPlanPool(int maxSize) {
+        return new QueryPlanPool(maxSize);
+    }
+
+    public int getNrMutators() {
+        return weightedAverageRewards.length();
+    }
+
+    public double getReward(int mutatorIndex) {
+        return Double.longBitsToDouble(weightedAverageRewards.get(mutatorIndex));
+    }
+
+    /**
+     * Returns the index of the mutator with the highest weighted average reward, or 0 if no reward is positive.
+     *
+     * @return the mutator index
+     */
+    public int getBestMutator() {
+        double[] rewards = new double[getNrMutators()];
+        for (int i = 0; i < rewards.length; i++) {
+            rewards[i] = getReward(i);
+        }
+        return DBMSCommon.getMaxIndexInDoubleArrary(rewards);
+    }
+
+    /**
+     * Adds the given value to the reward of a mutator.
+     *
+     * @param mutatorIndex
+     *            the index of the mutator
+     * @param value
+     *            the value to be added
+     */
+    public void addReward(int mutatorIndex, double value) {
+        long current;
+        long updated;
+        do {
+            current = weightedAverageRewards.get(mutatorIndex);
+            updated = Double.doubleToRawLongBits(Double.longBitsToDouble(current) + value);
+        } while (!weightedAverageRewards.compareAndSet(mutatorIndex, current, updated));
+    }
+
+    /**
+     * Moves the weighted average reward of a mutator towards the last reward.
+     *
+     * @param mutatorIndex
+     *            the index of the mutator
+     * @param lastReward
+     *            the reward obtained by the last application of the mutator
+     * @param weight
+     *            the weight (0-1) of the last reward
+     */
+    public void updateReward(int mutatorIndex, double lastReward, double weight) {
+        long current;
+        long updated;
+        do {
+            current = weightedAverageRewards.get(mutatorIndex);
+            double average = Double.longBitsToDouble(current);
+            updated = Double.doubleToRawLongBits(average + (lastReward - average) * weight);
+        } while (!weightedAverageRewards.compareAndSet(mutatorIndex, current, updated));
+    }
+
+    /**
+     * Records that a query plan has been observed.
+     *
+     * @param queryPlanFingerprint
+     *            the fingerprint of the query plan, as computed by {@link #getFingerprint(String)}
+     *
+     * @return true if no thread has observed the query plan before
+     */
+    public boolean addObservedQueryPlan(long queryPlanFingerprint) {
+        long time = nrObservations.incrementAndGet();
+        boolean isNew = observedQueryPlans.put(queryPlanFingerprint, time) == null;
+        if (isNew && observedQueryPlans.size() > maxObservedQueryPlans) {
+            evictQueryPlans(time);
+        }
+        return isNew;
+    }
+
+    // evicts the query plans that have not been observed during the last maxObservedQueryPlans / 2 observations
+    private void evictQueryPlans(long time) {
+        if (evictionLock.tryLock()) { // the other threads continue, since one eviction suffices
+            try {
+                long oldestKeptTime = time - maxObservedQueryPlans / 2;
+                observedQueryPlans.values().removeIf(lastObservation -> lastObservation < oldestKeptTime);
+            } finally {
+                evictionLock.unlock();
+            }
+        }
+    }
+
+    public int getNrObservedQueryPlans() {
+        return observedQueryPlans.size();
+    }
+
+    /**
+     * Computes a 64-bit fingerprint of the canonical form of a query plan (see {@link #getCanonicalQueryPlan(String)}),
+     * which identifies the plan (with overwhelming probability) without retaining its text.
+     *
+     * @param queryPlan
+     *            the textual representation of the query plan
+     *
+     * @return the fingerprint
+     */
+    public static long getFingerprint(String queryPlan) {
+        String canonicalQueryPlan = getCanonicalQueryPlan(queryPlan);
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < canonicalQueryPlan.length(); i++) {
+            hash ^= canonicalQueryPlan.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        // the finalizer of SplitMix64
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        return hash ^ (hash >>> 31);
+    }
+
+    /**
+     * Brings a query plan, whose operators are separated by <code>;</code> (see
+     * {@link ProviderAdapter#getQueryPlan(String, GlobalState)}), into a canonical form that does not depend on the
+     * formatting of the plan or on the identifiers that some DBMS assign to the operators of each plan. Whitespace is
+     * collapsed, and removed at the start and end of each operator, and numeric suffixes such as the <code>_7</code> in
+     * <code>TableReader_7</code> are removed.
+     *
+     * @param queryPlan
+     *            the textual representation of the query plan
+     *
+     * @return the canonical form
+     */
+    static String getCanonicalQueryPlan(String queryPlan) {
+        StringBuilder sb = new StringBuilder(queryPlan.length());
+        int i = 0;
+        while (i < queryPlan.length()) {
+            char c = queryPlan.charAt(i);
+            int end = i + 1;
+            if (Character.isWhitespace(c)) {
+                while (end < queryPlan.length() && Character.isWhitespace(queryPlan.charAt(end))) {
+                    end++;
+                }
+                boolean atOperatorStart = sb.length() == 0 || sb.charAt(sb.length() - 1) == ';';
+                boolean atOperatorEnd = end == queryPlan.length() || queryPlan.charAt(end) == ';';
+                if (!atOperatorStart && !atOperatorEnd) {
+                    sb.append(' ');
+                }
+            } else if (c == '_' && sb.length() != 0 && Character.isLetter(sb.charAt(sb.length() - 1))) {
+                while (end < queryPlan.length() && Character.isDigit(queryPlan.charAt(end))) {
+                    end++;
+                }
+                boolean isNumericSuffix = end > i + 1 && (end == queryPlan.length()
+                        || !Character.isLetterOrDigit(queryPlan.charAt(end)) && queryPlan.charAt(end) != '_');
+                if (!isNumericSuffix) {
+                    sb.append(c);
+                    end = i + 1;
+                }
+            } else {
+                sb.append(c);
+            }
+            i = end;
+        }
+        return sb.toString();
+    }
+
+    private static final class QueryPlanPool extends LinkedHashMap<Long, String> {
+
+        private static final long serialVersionUID = 1L;
+        private final int maxSize;
+
+        QueryPlanPool(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+            return size() > maxSize;
+        }
+
+    }
+
+}
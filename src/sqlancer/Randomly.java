@@ -3,8 +3,11 @@ package sqlancer;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Random;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
 import java.util.function.Supplier;
 
 public final class Randomly {
@@ -14,67 +17,52 @@ public final class Randomly {
     private static boolean useCaching = true;
     private static int cacheSize = 100;
 
-    private final List<Long> cachedLongs = new ArrayList<>();
-    private final List<String> cachedStrings = new ArrayList<>();
-    private final List<Double> cachedDoubles = new ArrayList<>();
+    private final LongCache cachedLongs = new LongCache();
+    private final StringCache cachedStrings = new StringCache();
+    private final LongCache cachedDoubles = new LongCache(); // the bits of the doubles
     private final List<byte[]> cachedBytes = new ArrayList<>();
     private Supplier<String> provider;
 
-    private static final ThreadLocal<Random> THREAD_RANDOM = new ThreadLocal<>();
+    // the generator of the worker thread, which is also referenced by the Randomly instance used by the thread
+    private static final ThreadLocal<SplittableRandom> THREAD_RANDOM = new ThreadLocal<>();
+    private final SplittableRandom random;
     private long seed;
 
+    // the probabilities that the absolute value of a normally distributed value is less than 1, 2, ..., 7
+    private static final double[] HALF_NORMAL_CUMULATIVE_PROBABILITIES = { 0.6826894921370859, 0.9544997361036416,
+            0.9973002039367398, 0.9999366575163338, 0.9999994266968562, 0.9999999980268246, 0.9999999999974403 };
+
     private void addToCache(long val) {
-        if (useCaching && cachedLongs.size() < cacheSize && !cachedLongs.contains(val)) {
+        if (useCaching) {
             cachedLongs.add(val);
         }
     }
 
     private void addToCache(double val) {
-        if (useCaching && cachedDoubles.size() < cacheSize && !cachedDoubles.contains(val)) {
-            cachedDoubles.add(val);
+        if (useCaching) {
+            cachedDoubles.add(Double.doubleToLongBits(val));
         }
     }
 
     private void addToCache(String val) {
-        if (useCaching && cachedStrings.size() < cacheSize && !cachedStrings.contains(val)) {
+        if (useCaching) {
             cachedStrings.add(val);
         }
     }
 
-    private Long getFromLongCache() {
-        if (!useCaching || cachedLongs.isEmpty()) {
-            return null;
-        } else {
-            return Randomly.fromList(cachedLongs);
-        }
-    }
-
-    private Double getFromDoubleCache() {
-        if (!useCaching) {
-            return null;
-        }
-        if (Randomly.getBoolean() && !cachedLongs.isEmpty()) {
-            return (double) Randomly.fromList(cachedLongs);
-        } else if (!cachedDoubles.isEmpty()) {
-            return Randomly.fromList(cachedDoubles);
-        } else {
-            return null;
-        }
-    }
-
     private String getFromStringCache() {
         if (!useCaching) {
             return null;
         }
         if (Randomly.getBoolean() && !cachedLongs.isEmpty()) {
-            return String.valueOf(Randomly.fromList(cachedLongs));
+            return String.valueOf(cachedLongs.getRandom());
         } else if (Randomly.getBoolean() && !cachedDoubles.isEmpty()) {
-            return String.valueOf(Randomly.fromList(cachedDoubles));
+            return String.valueOf(Double.longBitsToDouble(cachedDoubles.getRandom()));
         } else if (Randomly.getBoolean() && !cachedBytes.isEmpty()
                 && stringGenerationStrategy == StringGenerationStrategy.SOPHISTICATED) {
             return new String(Randomly.fromList(cachedBytes));
         } else if (!cachedStrings.isEmpty()) {
-            String randomString = Randomly.fromList(cachedStrings);
+            String randomString = cachedStrings.getRandom();
             if (Randomly.getBoolean()) {
                 return randomString;
             } else {
@@ -131,64 +119,117 @@ public final class Randomly {
         return extractNrRandomColumns(columns, nr);
     }
 
-    public static <T> List<T> subset(int nr, @SuppressWarnings("unchecked") T... values) {
-        List<T> list = new ArrayList<>();
-        for (T val : values) {
-            list.add(val);
-        }
-        return extractNrRandomColumns(list, nr);
-    }
-
-    public static <T> List<T> subset(@SuppressWarnings("unchecked") T... values) {
-        List<T> list = new ArrayList<>();
-        for (T val : values) {
-            list.add(val);
-        }
-        return subset(list);
+    @SafeVarargs
+    public static <T> List<T> subset(int nr, T... values) {
+        return extractNrRandomColumns(Arrays.asList(values), nr);
     }
 
+    @SafeVarargs
+    public static <T> List<T> subset(T... values) {
+        return subset(Arrays.asList(values));
+    }
+
+    /**
+     * Selects the given number of distinct elements of a list in a random order, by a partial Fisher-Yates shuffle of a
+     * copy of the list, which takes time proportional to the number of elements rather than to their product.
+     *
+     * @param <T>
+     *            the type of the elements
+     * @param columns
+     *            the list, which is not modified
+     * @param nr
+     *            the number of elements to select
+     *
+     * @return a new list of the selected elements
+     */
     public static <T> List<T> extractNrRandomColumns(List<T> columns, int nr) {
         assert nr >= 0;
-        List<T> selectedColumns = new ArrayList<>();
-        List<T> remainingColumns = new ArrayList<>(columns);
+        if (nr > columns.size()) {
+            throw new IndexOutOfBoundsException(nr + " " + columns.size());
+        }
+        List<T> selectedColumns = new ArrayList<>(nr);
+        if (nr == 1) {
+            selectedColumns.add(fromList(columns));
+            return selectedColumns;
+        }
+        Object[] remainingColumns = columns.toArray();
         for (int i = 0; i < nr; i++) {
-            selectedColumns.add(remainingColumns.remove(getNextInt(0, remainingColumns.size())));
+            int selected = getNextInt(i, remainingColumns.length);
+            @SuppressWarnings("unchecked")
+            T column = (T) remainingColumns[selected];
+            remainingColumns[selected] = remainingColumns[i];
+            selectedColumns.add(column);
         }
         return selectedColumns;
     }
 
     public static int smallNumber() {
         // no need to cache for small numbers
-        return (int) (Math.abs(getThreadRandom().get().nextGaussian())) * 2;
+        // equivalent to (int) Math.abs(nextGaussian()) * 2, but without computing a logarithm and square root
+        double probability = getThreadRandom().nextDouble();
+        int absoluteValue = 0;
+        while (absoluteValue < HALF_NORMAL_CUMULATIVE_PROBABILITIES.length
+                && probability >= HALF_NORMAL_CUMULATIVE_PROBABILITIES[absoluteValue]) {
+            absoluteValue++;
+        }
+        return absoluteValue * 2;
     }
 
     public static boolean getBoolean() {
-        return getThreadRandom().get().nextBoolean();
+        return getThreadRandom().nextBoolean();
     }
 
     public static double getPercentage() {
-        return getThreadRandom().get().nextDouble();
+        return getThreadRandom().nextDouble();
     }
 
-    private static ThreadLocal<Random> getThreadRandom() {
-        if (THREAD_RANDOM.get() == null) {
+    private static SplittableRandom getThreadRandom() {
+        SplittableRandom threadRandom = THREAD_RANDOM.get();
+        if (threadRandom == null) {
             // a static method has been called, before Randomly was instantiated
-            THREAD_RANDOM.set(new Random());
+            threadRandom = new SplittableRandom();
+            THREAD_RANDOM.set(threadRandom);
+        }
+        return threadRandom;
+    }
+
+    /**
+     * Calls the given action with a separate generator for the static methods of the current thread, so that the
+     * numbers drawn by the action do not change the numbers that are generated afterwards.
+     *
+     * @param <T>
+     *            the type of the action's result
+     * @param action
+     *            the action, which must not use the instance methods of a {@link Randomly}
+     *
+     * @return the action's result
+     *
+     * @throws Exception
+     *             if the action throws an exception
+     */
+    public static <T> T withSeparateGenerator(Callable<T> action) throws Exception {
+        SplittableRandom threadRandom = THREAD_RANDOM.get();
+        // a fixed seed keeps the action reproducible; splitting the current generator would advance it
+        THREAD_RANDOM.set(new SplittableRandom(0));
+        try {
+            return action.call();
+        } finally {
+            if (threadRandom == null) {
+                THREAD_RANDOM.remove();
+            } else {
+                THREAD_RANDOM.set(threadRandom);
+            }
         }
-        return THREAD_RANDOM;
     }
 
     public long getInteger() {
         if (smallBiasProbability()) {
             return Randomly.fromOptions(-1L, Long.MAX_VALUE, Long.MIN_VALUE, 1L, 0L);
         } else {
-            if (cacheProbability()) {
-                Long l = getFromLongCache();
-                if (l != null) {
-                    return l;
-                }
+            if (cacheProbability() && !cachedLongs.isEmpty()) {
+                return cachedLongs.getRandom();
             }
-            long nextLong = getThreadRandom().get().nextInt();
+            long nextLong = random.nextInt();
             addToCache(nextLong);
             return nextLong;
         }
@@ -332,7 +373,7 @@ public final class Randomly {
     public byte[] getBytes() {
         int size = Randomly.smallNumber();
         byte[] arr = new byte[size];
-        getThreadRandom().get().nextBytes(arr);
+        random.nextBytes(arr);
         return arr;
     }
 
@@ -341,9 +382,9 @@ public final class Randomly {
         if (smallBiasProbability()) {
             return Randomly.fromOptions(-1L, Long.MAX_VALUE, Long.MIN_VALUE, 1L);
         }
-        if (cacheProbability()) {
-            Long l = getFromLongCache();
-            if (l != null && l != 0) {
+        if (cacheProbability() && !cachedLongs.isEmpty()) {
+            long l = cachedLongs.getRandom();
+            if (l != 0) {
                 return l;
             }
         }
@@ -356,9 +397,9 @@ public final class Randomly {
     }
 
     public long getPositiveInteger() {
-        if (cacheProbability()) {
-            Long value = getFromLongCache();
-            if (value != null && value >= 0) {
+        if (cacheProbability() && !cachedLongs.isEmpty()) {
+            long value = cachedLongs.getRandom();
+            if (value >= 0) {
                 return value;
             }
         }
@@ -387,22 +428,23 @@ public final class Randomly {
             return Randomly.fromOptions(0.0, -0.0, Double.MAX_VALUE, -Double.MAX_VALUE, Double.POSITIVE_INFINITY,
                     Double.NEGATIVE_INFINITY);
         } else if (cacheProbability()) {
-            Double d = getFromDoubleCache();
-            if (d != null) {
-                return d;
+            if (Randomly.getBoolean() && !cachedLongs.isEmpty()) {
+                return cachedLongs.getRandom();
+            } else if (!cachedDoubles.isEmpty()) {
+                return Double.longBitsToDouble(cachedDoubles.getRandom());
             }
         }
-        double value = getThreadRandom().get().nextDouble();
+        double value = random.nextDouble();
         addToCache(value);
         return value;
     }
 
     private static boolean smallBiasProbability() {
-        return getThreadRandom().get().nextInt(100) == 1;
+        return getThreadRandom().nextInt(100) == 1;
     }
 
     public static boolean getBooleanWithRatherLowProbability() {
-        return getThreadRandom().get().nextInt(10) == 1;
+        return getThreadRandom().nextInt(10) == 1;
     }
 
     public static boolean getBooleanWithSmallProbability() {
@@ -425,7 +467,7 @@ public final class Randomly {
     }
 
     public BigDecimal getRandomBigDecimal() {
-        return new BigDecimal(getThreadRandom().get().nextDouble());
+        return new BigDecimal(random.nextDouble());
     }
 
     public long getPositiveIntegerNotNull() {
@@ -438,7 +480,7 @@ public final class Randomly {
     }
 
     public static long getNonCachedInteger() {
-        return getThreadRandom().get().nextLong();
+        return getThreadRandom().nextLong();
     }
 
     public static long getPositiveOrZeroNonCachedInteger() {
@@ -451,19 +493,22 @@ public final class Randomly {
 
     public Randomly(Supplier<String> provider) {
         this.provider = provider;
+        this.random = getThreadRandom();
     }
 
     public Randomly() {
-        THREAD_RANDOM.set(new Random());
+        this.random = new SplittableRandom();
+        THREAD_RANDOM.set(random);
     }
 
     public Randomly(long seed) {
         this.seed = seed;
-        THREAD_RANDOM.set(new Random(seed));
+        this.random = new SplittableRandom(seed);
+        THREAD_RANDOM.set(random);
     }
 
     public static double getUncachedDouble() {
-        return getThreadRandom().get().nextDouble();
+        return getThreadRandom().nextDouble();
     }
 
     public String getChar() {
@@ -484,9 +529,6 @@ public final class Randomly {
         }
     }
 
-    // see https://stackoverflow.com/a/2546158
-    // uniformity does not seem to be important for us
-    // SQLancer previously used ThreadLocalRandom.current().nextLong(lower, upper)
     private static long getNextLong(long lower, long upper) {
         if (lower > upper) {
             throw new IllegalArgumentException(lower + " " + upper);
@@ -494,7 +536,7 @@ public final class Randomly {
         if (lower == upper) {
             return lower;
         }
-        return (long) (getThreadRandom().get().longs(lower, upper).findFirst().getAsLong());
+        return getThreadRandom().nextLong(lower, upper);
     }
 
     private static int getNextInt(int lower, int upper) {
@@ -512,4 +554,124 @@ public final class Randomly {
         cacheSize = options.getConstantCacheSize();
     }
 
+    /**
+     * A cache of the most recently generated distinct values, which replaces the oldest value once it contains
+     * <code>--constant-cache-size</code> values. The values are kept in a ring buffer of primitive longs, and a hash
+     * table with linear probing maps them to their positions in the buffer, so that values can be added, checked for
+     * duplicates, and evicted in constant time without boxing.
+     */
+    private static final class LongCache {
+
+        private static final int EMPTY = -1;
+
+        private long[] values;
+        private int[] positions; // the positions of the values in the ring buffer, or EMPTY
+        private int size;
+        private int next;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long getRandom() {
+            return values[getNextInt(0, size)];
+        }
+
+        void add(long value) {
+            if (values == null) {
+                if (cacheSize <= 0) {
+                    return;
+                }
+                values = new long[cacheSize];
+                positions = new int[Integer.highestOneBit(cacheSize) * 4];
+                Arrays.fill(positions, EMPTY);
+            }
+            int slot = getSlot(value);
+            if (positions[slot] != EMPTY) {
+                return;
+            }
+            if (size == values.length) {
+                remove(values[next]);
+                slot = getSlot(value);
+            } else {
+                size++;
+            }
+            values[next] = value;
+            positions[slot] = next;
+            next = (next + 1) % values.length;
+        }
+
+        // returns the slot of the hash table that contains the value, or the empty slot at which it can be inserted
+        private int getSlot(long value) {
+            int mask = positions.length - 1;
+            int slot = hash(value) & mask;
+            while (positions[slot] != EMPTY && values[positions[slot]] != value) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void remove(long value) {
+            int mask = positions.length - 1;
+            int emptySlot = getSlot(value);
+            positions[emptySlot] = EMPTY;
+            // move the subsequent values of the cluster that can no longer be found into the emptied slot
+            for (int slot = (emptySlot + 1) & mask; positions[slot] != EMPTY; slot = (slot + 1) & mask) {
+                int home = hash(values[positions[slot]]) & mask;
+                boolean isReachable = emptySlot <= slot ? emptySlot < home && home <= slot
+                        : emptySlot < home || home <= slot;
+                if (!isReachable) {
+                    positions[emptySlot] = positions[slot];
+                    positions[slot] = EMPTY;
+                    emptySlot = slot;
+                }
+            }
+        }
+
+        private static int hash(long value) {
+            long hash = value * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ hash >>> 32);
+        }
+
+    }
+
+    /**
+     * Like {@link LongCache}, a cache of the most recently generated distinct strings.
+     */
+    private static final class StringCache {
+
+        private final Set<String> contained = new HashSet<>();
+        private String[] values;
+        private int size;
+        private int next;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        String getRandom() {
+            return values[getNextInt(0, size)];
+        }
+
+        void add(String value) {
+            if (values == null) {
+                if (cacheSize <= 0) {
+                    return;
+                }
+                values = new String[cacheSize];
+            }
+            if (!contained.add(value)) {
+                return;
+            }
+            if (size == values.length) {
+                contained.remove(values[next]);
+            } else {
+                size++;
+            }
+            values[next] = value;
+            next = (next + 1) % values.length;
+        }
+
+    }
+
 }
@@ -31,4 +31,14 @@ public class SQLConnection implements SQLancerDBConnection {
     public Statement createStatement() throws SQLException {
         return connection.createStatement();
     }
+
+    /**
+     * Returns the underlying JDBC connection, for DBMS-specific features that are not accessible using
+     * {@link Connection#unwrap(Class)}.
+     *
+     * @return the JDBC connection
+     */
+    public Connection getJdbcConnection() {
+        return connection;
+    }
 }
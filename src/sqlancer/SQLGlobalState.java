@@ -1,6 +1,15 @@
 package sqlancer;
 
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import sqlancer.common.query.Query;
+import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.schema.AbstractSchema;
 
 /**
@@ -14,6 +23,8 @@ import sqlancer.common.schema.AbstractSchema;
 public abstract class SQLGlobalState<O extends DBMSSpecificOptions<?>, S extends AbstractSchema<?, ?>>
         extends GlobalState<O, S, SQLConnection> {
 
+    private boolean batchesSupported = true;
+
     @Override
     protected void executeEpilogue(Query<?> q, boolean success, ExecutionTimer timer) throws Exception {
         boolean logExecutionTime = getOptions().logExecutionTime();
@@ -21,10 +32,79 @@ public abstract class SQLGlobalState<O extends DBMSSpecificOptions<?>, S extends
             System.out.println(q.getQueryString());
         }
         if (logExecutionTime) {
-            getLogger().writeCurrent(" -- " + timer.end().asString());
+            getLogger().writeCurrent(" -- " + timer.asString());
         }
         if (q.couldAffectSchema()) {
-            updateSchema();
+            updateSchema(q, success);
+        }
+        updateRowCounts(q, success);
+    }
+
+    @Override
+    public boolean canBeBatched(Query<?> q) {
+        // subclasses of SQLQueryAdapter might not execute the query string as is
+        return batchesSupported && q.getClass() == SQLQueryAdapter.class && !q.couldAffectSchema();
+    }
+
+    @Override
+    protected BatchResult executeBatchOnConnection(List<Query<SQLConnection>> queries) throws SQLException {
+        try (Statement s = getConnection().createStatement()) {
+            try {
+                for (Query<SQLConnection> q : queries) {
+                    s.addBatch(q.getQueryString());
+                }
+            } catch (SQLFeatureNotSupportedException e) {
+                batchesSupported = false;
+                return BatchResult.notExecuted();
+            }
+            try {
+                s.executeBatch();
+                return new BatchResult(queries.size(), new Exception[queries.size()]);
+            } catch (BatchUpdateException e) {
+                BatchResult result = getBatchResult(e, queries.size());
+                if (result == null) {
+                    // the driver does not report which statements were executed, so the database's state is unknown
+                    batchesSupported = false;
+                    throw new IgnoreMeException();
+                }
+                return result;
+            }
         }
     }
+
+    // returns null if the executed statements cannot be determined
+    static BatchResult getBatchResult(BatchUpdateException e, int nrQueries) {
+        int[] updateCounts = e.getUpdateCounts();
+        List<SQLException> nextExceptions = new ArrayList<>();
+        for (SQLException next = e.getNextException(); next != null; next = next.getNextException()) {
+            nextExceptions.add(next);
+        }
+        Exception[] failures = new Exception[nrQueries];
+        if (updateCounts != null && updateCounts.length < nrQueries) {
+            // the driver stopped at the failing statement, which is the one after the applied statements
+            failures[updateCounts.length] = nextExceptions.isEmpty() ? e : nextExceptions.get(0);
+            return new BatchResult(updateCounts.length + 1, failures);
+        }
+        int nrFailures = updateCounts == null ? 0
+                : (int) Arrays.stream(updateCounts).filter(c -> c == Statement.EXECUTE_FAILED).count();
+        if (nrFailures == 0) {
+            return null;
+        }
+        // the driver continued after the failing statements, so all statements were executed in their order; the
+        // chained exceptions belong to the failing statements if there is one for each of them
+        int failureIndex = 0;
+        for (int i = 0; i < nrQueries; i++) {
+            if (updateCounts[i] == Statement.EXECUTE_FAILED) {
+                failures[i] = nextExceptions.size() == nrFailures ? nextExceptions.get(failureIndex) : e;
+                failureIndex++;
+            }
+        }
+        return new BatchResult(nrQueries, failures);
+    }
+
+    @Override
+    protected void checkBatchFailure(Query<SQLConnection> q, Exception failure) {
+        // only SQLQueryAdapters are batched, see canBeBatched
+        ((SQLQueryAdapter) q).checkException(failure);
+    }
 }
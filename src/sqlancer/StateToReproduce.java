@@ -5,11 +5,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import sqlancer.common.log.StatementJournal;
 import sqlancer.common.query.Query;
 
 public class StateToReproduce {
 
-    private List<Query<?>> statements = new ArrayList<>();
+    private final StatementJournal statements = new StatementJournal();
 
     private final String databaseName;
 
@@ -66,17 +67,23 @@ public class StateToReproduce {
         statements.add(query);
     }
 
+    /**
+     * Gets the logged statements. The statements are re-created from a compact representation, so this method should
+     * only be called when the statements are needed, for example, to report or reduce a bug.
+     *
+     * @return the logged statements
+     */
     public List<Query<?>> getStatements() {
-        return Collections.unmodifiableList(statements);
+        return Collections.unmodifiableList(statements.getQueries());
     }
 
     @Deprecated
     public void commentStatements() {
-        for (int i = 0; i < statements.size(); i++) {
-            Query<?> statement = statements.get(i);
-            Query<?> newQuery = databaseProvider.getLoggableFactory().commentOutQuery(statement);
-            statements.set(i, newQuery);
+        List<Query<?>> commentedStatements = new ArrayList<>();
+        for (Query<?> statement : statements.getQueries()) {
+            commentedStatements.add(databaseProvider.getLoggableFactory().commentOutQuery(statement));
         }
+        setStatements(commentedStatements);
     }
 
     public long getSeedValue() {
@@ -129,7 +136,8 @@ public class StateToReproduce {
     }
 
     public void setStatements(List<Query<?>> statements) {
-        this.statements = statements;
+        this.statements.clear();
+        this.statements.addAll(statements);
     }
 
 }
@@ -3,14 +3,19 @@ package sqlancer;
 import java.util.ArrayList;
 import java.util.List;
 
+import sqlancer.common.metrics.StatementSource;
 import sqlancer.common.query.Query;
 
 public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends AbstractAction<G>> {
 
     private final G globalState;
     private final A[] actions;
+    private final StatementSource[] sources;
     private final ActionMapper<G, A> mapping;
     private final AfterQueryAction queryConsumer;
+    private final int batchSize;
+    private final List<A> batchedActions = new ArrayList<>();
+    private final List<Query<?>> batchedQueries = new ArrayList<>();
 
     @FunctionalInterface
     public interface AfterQueryAction {
@@ -25,12 +30,35 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
     public StatementExecutor(G globalState, A[] actions, ActionMapper<G, A> mapping, AfterQueryAction queryConsumer) {
         this.globalState = globalState;
         this.actions = actions.clone();
+        this.sources = new StatementSource[actions.length];
+        for (int i = 0; i < actions.length; i++) {
+            sources[i] = StatementSource.ofAction(actions[i]);
+        }
         this.mapping = mapping;
         this.queryConsumer = queryConsumer;
+        this.batchSize = globalState.getOptions().getStatementBatchSize();
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Executes the statements of randomly-selected actions. If <code>--statement-batch-size</code> is greater than 1,
+     * consecutive statements that can be batched (see {@link GlobalState#canBeBatched(Query)}) are sent to the DBMS as
+     * a single batch. The statements that the DBMS executed are checked against their expected errors and logged in
+     * their order; if the DBMS aborted the batch at a failing statement, the statements after it are then executed one
+     * at a time. Note that actions whose statements are generated while a batch is pending do not yet observe its
+     * effects.
+     *
+     * @throws Exception
+     *             if executing a statement fails unexpectedly
+     */
     public void executeStatements() throws Exception {
+        try {
+            executeRandomStatements();
+        } finally {
+            globalState.setStatementSource(StatementSource.OTHER);
+        }
+    }
+
+    private void executeRandomStatements() throws Exception {
         Randomly r = globalState.getRandomly();
         int[] nrRemaining = new int[actions.length];
         List<A> availableActions = new ArrayList<>();
@@ -60,24 +88,67 @@ public class StatementExecutor<G extends GlobalState<?, ?, ?>, A extends Abstrac
             assert nextAction != null;
             assert nrRemaining[i] > 0;
             nrRemaining[i]--;
-            @SuppressWarnings("rawtypes")
-            Query query = null;
+            Query<?> query;
             try {
-                boolean success;
-                int nrTries = 0;
-                do {
-                    query = nextAction.getQuery(globalState);
-                    success = globalState.executeStatement(query);
-                } while (nextAction.canBeRetried() && !success
-                        && nrTries++ < globalState.getOptions().getNrStatementRetryCount());
+                query = nextAction.getQuery(globalState);
             } catch (IgnoreMeException e) {
+                total--;
+                continue;
+            }
+            if (batchSize > 1 && globalState.canBeBatched(query)) {
+                batchedActions.add(nextAction);
+                batchedQueries.add(query);
+                if (batchedQueries.size() >= batchSize) {
+                    executeBatch();
+                }
+            } else {
+                executeBatch();
+                globalState.setStatementSource(sources[i]);
+                executeWithRetries(nextAction, query);
+            }
+            total--;
+        }
+        executeBatch();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void executeBatch() throws Exception {
+        if (batchedQueries.isEmpty()) {
+            return;
+        }
+        int nrExecuted = globalState.executeBatch((List) batchedQueries);
+        for (int i = nrExecuted; i < batchedQueries.size(); i++) {
+            // execute the statements that the DBMS did not execute, in their order
+            globalState.setStatementSource(StatementSource.ofAction(batchedActions.get(i)));
+            executeWithRetries(batchedActions.get(i), batchedQueries.get(i));
+        }
+        batchedActions.clear();
+        batchedQueries.clear();
+    }
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private void executeWithRetries(A action, Query<?> firstQuery) throws Exception {
+        Query query = firstQuery;
+        boolean success = false;
+        boolean ignored = false;
+        try {
+            success = globalState.executeStatement(query);
+            int nrTries = 0;
+            while (action.canBeRetried() && !success
+                    && nrTries++ < globalState.getOptions().getNrStatementRetryCount()) {
+                query = action.getQuery(globalState);
+                success = globalState.executeStatement(query);
             }
-            if (query != null && query.couldAffectSchema()) {
+        } catch (IgnoreMeException e) {
+            ignored = true;
+        }
+        if (query.couldAffectSchema()) {
+            if (ignored) {
                 globalState.updateSchema();
-                queryConsumer.notify(query);
+            } else {
+                globalState.updateSchema(query, success);
             }
-            total--;
+            queryConsumer.notify(query);
         }
     }
 }
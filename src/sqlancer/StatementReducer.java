@@ -1,79 +1,372 @@
 package sqlancer;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
 import java.util.List;
-import java.util.function.BiFunction;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
 
 import sqlancer.common.query.Query;
 
+/**
+ * Reduces the statements that reproduce a bug using delta debugging (ddmin). In each round, the statements are split
+ * into chunks, and the candidates obtained by removing one of the chunks are tested; if no candidate reproduces the
+ * bug, the chunks are made smaller. The result is 1-minimal, that is, removing any single statement no longer
+ * reproduces the bug.
+ *
+ * Each candidate is tested on a newly-created database. The candidates of a round can be tested in parallel on separate
+ * databases, each of which has its own global state; of the candidates that reproduce the bug, the first one is chosen,
+ * so the result does not depend on the number of threads. The outcome of each tested candidate is cached, so that no
+ * candidate is tested twice.
+ *
+ * The global states are only used by the reducer's threads, each of which creates the random number generator of the
+ * global state that it uses (see {@link Randomly#Randomly(long)}). The generator is seeded by the tested statements, so
+ * the outcome of a test does not depend on the thread that executes it. The databases of the additional global states
+ * are dropped after the reduction.
+ *
+ * @param <G>
+ *            the global state type
+ * @param <O>
+ *            the options type
+ * @param <C>
+ *            the connection type
+ */
 public class StatementReducer<G extends GlobalState<O, ?, C>, O extends DBMSSpecificOptions<?>, C extends SQLancerDBConnection>
         implements Reducer<G> {
+    private static final int MAX_SNAPSHOTS_PER_ROUND = 32;
+
     private final DatabaseProvider<G, O, C> provider;
-    private boolean observedChange;
+    private final int nrThreads;
+    private final IntFunction<G> globalStateFactory;
+    private final Map<BitSet, Boolean> testedCandidates = new ConcurrentHashMap<>();
+    private final AtomicLong nrTests = new AtomicLong();
+    private final AtomicLong nrCacheHits = new AtomicLong();
+    private final AtomicLong nrExecutedStatements = new AtomicLong();
+    private final AtomicLong nrRestoredSnapshots = new AtomicLong();
+    private final BlockingQueue<G> idleGlobalStates = new LinkedBlockingQueue<>();
+    private List<Query<C>> statements;
+    private Reproducer<G> reproducer;
+    private long seed;
+    private ExecutorService executor;
+    private boolean useSnapshots = true;
 
+    /**
+     * Creates a reducer that tests the candidates sequentially on the global state passed to
+     * {@link #reduce(GlobalState, Reproducer, GlobalState)}.
+     *
+     * @param provider
+     *            the provider that creates the databases
+     */
     public StatementReducer(DatabaseProvider<G, O, C> provider) {
+        this(provider, 1, null);
+    }
+
+    /**
+     * Creates a reducer that tests the candidates on the given number of threads.
+     *
+     * @param provider
+     *            the provider that creates the databases
+     * @param nrThreads
+     *            the number of candidates that are tested in parallel
+     * @param globalStateFactory
+     *            creates the global state for the thread with the given index (starting at one); the global states must
+     *            refer to distinct databases
+     */
+    public StatementReducer(DatabaseProvider<G, O, C> provider, int nrThreads, IntFunction<G> globalStateFactory) {
+        if (nrThreads < 1 || nrThreads > 1 && globalStateFactory == null) {
+            throw new IllegalArgumentException();
+        }
         this.provider = provider;
+        this.nrThreads = nrThreads;
+        this.globalStateFactory = globalStateFactory;
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public void reduce(G state, Reproducer<G> reproducer, G newGlobalState) throws Exception {
-
-        List<Query<C>> knownToReproduceBugStatements = new ArrayList<>();
+        statements = new ArrayList<>();
         for (Query<?> stat : state.getState().getStatements()) {
-            knownToReproduceBugStatements.add((Query<C>) stat);
+            statements.add((Query<C>) stat);
         }
+        this.reproducer = reproducer;
+        seed = state.getRandomly().getSeed();
         System.out.println("Starting query:");
-        printQueries(knownToReproduceBugStatements);
+        printQueries(statements);
         System.out.println();
 
-        do {
-            observedChange = false;
-            knownToReproduceBugStatements = tryReduction(state, reproducer, newGlobalState,
-                    knownToReproduceBugStatements, (candidateStatements, i) -> {
-                        candidateStatements.remove((int) i);
-                        return true;
-                    });
-        } while (observedChange);
+        long startTime = System.currentTimeMillis();
+        idleGlobalStates.add(newGlobalState);
+        List<G> additionalGlobalStates = new ArrayList<>();
+        for (int i = 1; i < nrThreads; i++) {
+            additionalGlobalStates.add(globalStateFactory.apply(i));
+        }
+        idleGlobalStates.addAll(additionalGlobalStates);
+        executor = Executors.newFixedThreadPool(nrThreads);
+        BitSet reduced;
+        try {
+            BitSet all = new BitSet();
+            all.set(0, statements.size());
+            reduced = reduce(all);
+            BitSet reducedStatementIndexes = reduced;
+            if (nrRestoredSnapshots.get() != 0
+                    && !runOnReducerThread(() -> test(new Candidate(reducedStatementIndexes, null, 0), false))) {
+                System.out.println(
+                        "The reduced statements do not reproduce the bug without snapshots; reducing again without snapshots.");
+                useSnapshots = false;
+                testedCandidates.clear();
+                reduced = reduce(all);
+            }
+        } finally {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+            dropDatabases(additionalGlobalStates);
+        }
 
+        List<Query<C>> reducedStatements = new ArrayList<>();
+        reduced.stream().forEach(i -> reducedStatements.add(statements.get(i)));
         System.out.println("Reduced query:");
-        printQueries(knownToReproduceBugStatements);
+        printQueries(reducedStatements);
+        double seconds = Math.max(System.currentTimeMillis() - startTime, 1) / 1000.0;
+        System.out.println(String.format(
+                "Reduced %d to %d statements in %.1f s (%d candidates tested, %d cached outcomes reused, %d snapshots restored, %.0f statements/s)",
+                statements.size(), reducedStatements.size(), seconds, nrTests.get(), nrCacheHits.get(),
+                nrRestoredSnapshots.get(), nrExecutedStatements.get() / seconds));
     }
 
-    private List<Query<C>> tryReduction(G state, // NOPMD
-            Reproducer<G> reproducer, G newGlobalState, List<Query<C>> knownToReproduceBugStatements,
-            BiFunction<List<Query<C>>, Integer, Boolean> reductionOperation) throws Exception {
-
-        List<Query<C>> statements = knownToReproduceBugStatements;
-        for (int i = 0; i < statements.size(); i++) {
-            try (C con2 = provider.createDatabase(newGlobalState)) {
-                newGlobalState.setConnection(con2);
-                List<Query<C>> candidateStatements = new ArrayList<>(statements);
-                if (!reductionOperation.apply(candidateStatements, i)) {
-                    continue;
+    /**
+     * A set of statements to be tested. If a snapshot is given, the statements with an index below firstIndex have
+     * already been executed on the snapshot's database.
+     */
+    private final class Candidate {
+
+        private final BitSet statementIndexes;
+        private final DatabaseSnapshot<G, C> snapshot;
+        private final int firstIndex;
+
+        Candidate(BitSet statementIndexes, DatabaseSnapshot<G, C> snapshot, int firstIndex) {
+            this.statementIndexes = statementIndexes;
+            this.snapshot = snapshot;
+            this.firstIndex = firstIndex;
+        }
+
+    }
+
+    private BitSet reduce(BitSet all) throws Exception {
+        BitSet current = all;
+        int granularity = 2;
+        while (current.cardinality() >= 2) {
+            int[] indexes = current.stream().toArray();
+            // each chunk must contain at least one statement
+            granularity = Math.min(granularity, indexes.length);
+            int[] chunkStarts = new int[granularity + 1];
+            for (int chunk = 0; chunk <= granularity; chunk++) {
+                chunkStarts[chunk] = chunk * indexes.length / granularity;
+            }
+            BitSet currentStatementIndexes = current;
+            List<DatabaseSnapshot<G, C>> snapshots = runOnReducerThread(
+                    () -> createSnapshots(currentStatementIndexes, indexes, chunkStarts));
+            BitSet reproducing;
+            try {
+                List<Candidate> candidates = new ArrayList<>();
+                for (int chunk = 0; chunk < granularity; chunk++) {
+                    BitSet complement = (BitSet) current.clone();
+                    for (int i = chunkStarts[chunk]; i < chunkStarts[chunk + 1]; i++) {
+                        complement.clear(indexes[i]);
+                    }
+                    // use the snapshot of the longest prefix that precedes the removed chunk
+                    int snapshotChunk = Math.min(chunk, snapshots.size() - 1);
+                    while (snapshotChunk > 0 && snapshots.get(snapshotChunk) == null) {
+                        snapshotChunk--;
+                    }
+                    candidates.add(new Candidate(complement, snapshots.get(snapshotChunk),
+                            indexes[chunkStarts[snapshotChunk]]));
+                }
+                reproducing = findFirstReproducing(candidates);
+            } finally {
+                for (DatabaseSnapshot<G, C> snapshot : snapshots) {
+                    if (snapshot != null) {
+                        snapshot.close();
+                    }
                 }
-                newGlobalState.getState().setStatements(candidateStatements.stream().collect(Collectors.toList()));
-                for (Query<C> s : candidateStatements) {
+            }
+            if (reproducing != null) {
+                current = reproducing;
+                granularity = Math.max(granularity - 1, 2);
+            } else if (granularity >= indexes.length) {
+                break;
+            } else {
+                granularity = Math.min(granularity * 2, indexes.length);
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Executes the chunks of the current statements one after another, and captures the database before a chunk is
+     * executed. The snapshots are spaced so that at most {@link #MAX_SNAPSHOTS_PER_ROUND} are created.
+     *
+     * @param current
+     *            the indexes of the current statements
+     * @param indexes
+     *            the indexes of the current statements in ascending order
+     * @param chunkStarts
+     *            the position in indexes at which each chunk starts, followed by the number of current statements
+     *
+     * @return a list whose element at the index of a chunk is the snapshot taken before executing the chunk, or null
+     */
+    private List<DatabaseSnapshot<G, C>> createSnapshots(BitSet current, int[] indexes, int[] chunkStarts)
+            throws Exception {
+        int nrChunks = chunkStarts.length - 1;
+        List<DatabaseSnapshot<G, C>> snapshots = new ArrayList<>(Collections.nCopies(nrChunks, null));
+        // the last chunk whose candidate is not yet known to (not) reproduce the bug
+        int lastChunk = -1;
+        for (int chunk = 0; chunk < nrChunks; chunk++) {
+            BitSet complement = (BitSet) current.clone();
+            complement.clear(indexes[chunkStarts[chunk]], indexes[chunkStarts[chunk + 1] - 1] + 1);
+            if (!testedCandidates.containsKey(complement)) {
+                lastChunk = chunk;
+            }
+        }
+        if (!useSnapshots || lastChunk < 1) {
+            return snapshots;
+        }
+        int step = (lastChunk + MAX_SNAPSHOTS_PER_ROUND - 1) / MAX_SNAPSHOTS_PER_ROUND;
+        G globalState = takeGlobalState(current);
+        try (C con = provider.createDatabase(globalState)) {
+            globalState.setConnection(con);
+            List<Query<C>> executedStatements = new ArrayList<>();
+            for (int chunk = 1; chunk <= lastChunk; chunk++) {
+                for (int i = chunkStarts[chunk - 1]; i < chunkStarts[chunk]; i++) {
+                    Query<C> statement = statements.get(indexes[i]);
                     try {
-                        s.execute(newGlobalState);
+                        statement.execute(globalState);
                     } catch (Throwable ignoredException) {
                         // ignore
                     }
+                    executedStatements.add(statement);
                 }
-                try {
-                    if (reproducer.bugStillTriggers(newGlobalState)) {
-                        observedChange = true;
-                        statements = candidateStatements;
-                        // reproducer.outputHook((SQLite3GlobalState) newGlobalState);
-                        // state.getLogger().logReduced(newGlobalState.getState());
+                nrExecutedStatements.addAndGet(chunkStarts[chunk] - chunkStarts[chunk - 1]);
+                if (chunk % step == 0) {
+                    DatabaseSnapshot<G, C> snapshot = provider.createSnapshot(globalState, executedStatements);
+                    if (snapshot == null) {
+                        break;
                     }
-                } catch (Throwable ignoredException) {
+                    snapshots.set(chunk, snapshot);
+                }
+            }
+        } finally {
+            idleGlobalStates.add(globalState);
+        }
+        return snapshots;
+    }
 
+    private BitSet findFirstReproducing(List<Candidate> candidates) throws Exception {
+        for (int batchStart = 0; batchStart < candidates.size(); batchStart += nrThreads) {
+            List<Candidate> batch = candidates.subList(batchStart, Math.min(batchStart + nrThreads, candidates.size()));
+            List<Future<Boolean>> outcomes = new ArrayList<>();
+            for (Candidate candidate : batch) {
+                outcomes.add(executor.submit(() -> test(candidate, true)));
+            }
+            BitSet reproducing = null;
+            for (int i = 0; i < batch.size(); i++) {
+                if (getResult(outcomes.get(i)) && reproducing == null) {
+                    reproducing = batch.get(i).statementIndexes;
                 }
             }
+            if (reproducing != null) {
+                return reproducing;
+            }
+        }
+        return null;
+    }
+
+    private boolean test(Candidate candidate, boolean useCache) throws Exception {
+        if (useCache) {
+            Boolean cachedOutcome = testedCandidates.get(candidate.statementIndexes);
+            if (cachedOutcome != null) {
+                nrCacheHits.incrementAndGet();
+                return cachedOutcome;
+            }
+        }
+        G globalState = takeGlobalState(candidate.statementIndexes);
+        try (C con = openDatabase(candidate, globalState)) {
+            int firstIndex = candidate.snapshot == null ? 0 : candidate.firstIndex;
+            globalState.setConnection(con);
+            nrTests.incrementAndGet();
+            BitSet statementIndexes = candidate.statementIndexes;
+            for (int i = statementIndexes.nextSetBit(firstIndex); i >= 0; i = statementIndexes.nextSetBit(i + 1)) {
+                try {
+                    statements.get(i).execute(globalState);
+                } catch (Throwable ignoredException) {
+                    // ignore
+                }
+                nrExecutedStatements.incrementAndGet();
+            }
+            boolean reproduces;
+            try {
+                reproduces = reproducer.bugStillTriggers(globalState);
+            } catch (Throwable ignoredException) {
+                reproduces = false;
+            }
+            if (useCache) {
+                testedCandidates.put(statementIndexes, reproduces);
+            }
+            return reproduces;
+        } finally {
+            idleGlobalStates.add(globalState);
+        }
+    }
+
+    // must be called by a reducer thread, whose generator is replaced by that of the global state
+    private G takeGlobalState(BitSet statementIndexes) throws InterruptedException {
+        G globalState = idleGlobalStates.take();
+        globalState.setRandomly(new Randomly(seed + statementIndexes.hashCode()));
+        return globalState;
+    }
+
+    // the calling thread's generator must not be replaced, so the global states are only used by the reducer's threads
+    private <T> T runOnReducerThread(Callable<T> task) throws Exception {
+        return getResult(executor.submit(task));
+    }
+
+    private static <T> T getResult(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw new AssertionError(e.getCause());
+        }
+    }
+
+    private void dropDatabases(List<G> globalStates) {
+        for (G globalState : globalStates) {
+            try {
+                provider.dropDatabase(globalState);
+            } catch (Exception e) {
+                System.err.println("Could not drop " + globalState.getDatabaseName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private C openDatabase(Candidate candidate, G globalState) throws Exception {
+        if (candidate.snapshot == null) {
+            return provider.createDatabase(globalState);
         }
-        return statements;
+        nrRestoredSnapshots.incrementAndGet();
+        return candidate.snapshot.restore(globalState);
     }
 
     private void printQueries(List<Query<C>> statements) {
@@ -1,14 +1,16 @@
 package sqlancer.arangodb;
 
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map.Entry;
 
-import com.arangodb.entity.BaseDocument;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
 
 import sqlancer.IgnoreMeException;
 import sqlancer.Main;
 import sqlancer.arangodb.query.ArangoDBSelectQuery;
+import sqlancer.common.query.DocumentDigests;
 import sqlancer.common.query.ExpectedErrors;
 
 public final class ArangoDBComparatorHelper {
@@ -17,20 +19,20 @@ public final class ArangoDBComparatorHelper {
 
     }
 
-    public static List<BaseDocument> getResultSetAsDocumentList(ArangoDBSelectQuery query,
+    public static List<VPackSlice> getResultSetAsDocumentList(ArangoDBSelectQuery query,
             ArangoDBProvider.ArangoDBGlobalState state) throws Exception {
         ExpectedErrors errors = query.getExpectedErrors();
-        List<BaseDocument> result;
+        List<VPackSlice> result;
         try {
             query.executeAndGet(state);
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             result = query.getResultSet();
             return result;
         } catch (Exception e) {
             if (e instanceof IgnoreMeException) {
                 throw e;
             }
-            Main.nrUnsuccessfulActions.addAndGet(1);
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             if (e.getMessage() == null) {
                 throw new AssertionError(query.getLogString(), e);
             }
@@ -42,32 +44,73 @@ public final class ArangoDBComparatorHelper {
 
     }
 
-    public static void assumeResultSetsAreEqual(List<BaseDocument> resultSet, List<BaseDocument> secondResultSet,
+    public static void assumeResultSetsAreEqual(List<VPackSlice> resultSet, List<VPackSlice> secondResultSet,
             ArangoDBSelectQuery originalQuery) {
         if (resultSet.size() != secondResultSet.size()) {
             String assertionMessage = String.format("The Size of the result sets mismatch (%d and %d)!\n%s",
                     resultSet.size(), secondResultSet.size(), originalQuery.getLogString());
             throw new AssertionError(assertionMessage);
         }
-        Set<BaseDocument> firstHashSet = new HashSet<>(resultSet);
-        Set<BaseDocument> secondHashSet = new HashSet<>(secondResultSet);
+        long[] firstDigests = getDigests(resultSet);
+        long[] secondDigests = getDigests(secondResultSet);
 
-        if (!firstHashSet.equals(secondHashSet)) {
-            Set<BaseDocument> firstResultSetMisses = new HashSet<>(firstHashSet);
-            firstResultSetMisses.removeAll(secondHashSet);
-            Set<BaseDocument> secondResultSetMisses = new HashSet<>(secondHashSet);
-            secondResultSetMisses.removeAll(firstHashSet);
+        if (!DocumentDigests.haveSameDigests(firstDigests, secondDigests)) {
             StringBuilder firstMisses = new StringBuilder();
-            for (BaseDocument document : firstResultSetMisses) {
-                firstMisses.append(document).append(" ");
+            for (int i : DocumentDigests.getMissingPositions(firstDigests, secondDigests)) {
+                firstMisses.append(resultSet.get(i)).append(" ");
             }
             StringBuilder secondMisses = new StringBuilder();
-            for (BaseDocument document : secondResultSetMisses) {
-                secondMisses.append(document).append(" ");
+            for (int i : DocumentDigests.getMissingPositions(secondDigests, firstDigests)) {
+                secondMisses.append(secondResultSet.get(i)).append(" ");
             }
             String assertMessage = String.format("The Content of the result sets mismatch!\n %s \n %s\n %s",
                     firstMisses.toString(), secondMisses.toString(), originalQuery.getLogString());
             throw new AssertionError(assertMessage);
         }
     }
+
+    static long[] getDigests(List<VPackSlice> documents) {
+        long[] digests = new long[documents.size()];
+        for (int i = 0; i < digests.length; i++) {
+            digests[i] = getDigest(documents.get(i));
+        }
+        return digests;
+    }
+
+    /*
+     * Computes the digest of a value from its serialized form. VelocyPack encodes the same integer as a SMALLINT, INT,
+     * or UINT depending on its value and the writer, and the same array with or without an index table, so integers are
+     * hashed by their value and arrays element by element.
+     */
+    private static long getDigest(VPackSlice value) {
+        if (value.isObject()) {
+            long attributeDigestSum = 0;
+            int nrAttributes = 0;
+            for (Iterator<Entry<String, VPackSlice>> it = value.objectIterator(); it.hasNext();) {
+                Entry<String, VPackSlice> attribute = it.next();
+                attributeDigestSum += DocumentDigests.hashField(attribute.getKey(), getType(attribute.getValue()),
+                        getDigest(attribute.getValue()));
+                nrAttributes++;
+            }
+            return DocumentDigests.hashDocument(attributeDigestSum, nrAttributes);
+        } else if (value.isArray()) {
+            long arrayHash = DocumentDigests.EMPTY_ARRAY_HASH;
+            for (Iterator<VPackSlice> it = value.arrayIterator(); it.hasNext();) {
+                VPackSlice element = it.next();
+                arrayHash = DocumentDigests.hashArrayElement(arrayHash, getType(element), getDigest(element));
+            }
+            return arrayHash;
+        } else if (value.isInteger() && !(value.isUInt() && value.getAsLong() < 0)) {
+            return DocumentDigests.hashInteger(value.getAsLong());
+        } else {
+            return DocumentDigests.hashValue(value.getBuffer(), value.getStart(), value.getByteSize());
+        }
+    }
+
+    private static int getType(VPackSlice value) {
+        if (value.isInteger()) {
+            return ValueType.INT.ordinal();
+        }
+        return value.getType().ordinal();
+    }
 }
@@ -71,7 +71,7 @@ public class ArangoDBProvider
                 System.out.println(q.getLogString());
             }
             if (logExecutionTime) {
-                getLogger().writeCurrent("//" + timer.end().asString());
+                getLogger().writeCurrent("//" + timer.asString());
             }
             if (q.couldAffectSchema()) {
                 updateSchema();
@@ -24,10 +24,10 @@ public class ArangoDBCreateTableQuery extends ArangoDBQueryAdapter {
             throws Exception {
         try {
             globalState.getConnection().getDatabase().createCollection(tableName);
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             return true;
         } catch (Exception e) {
-            Main.nrUnsuccessfulActions.addAndGet(1);
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             throw e;
         }
     }
@@ -31,10 +31,10 @@ public class ArangoDBInsertQuery extends ArangoDBQueryAdapter {
             throws Exception {
         try {
             globalState.getConnection().getDatabase().collection(table.getName()).insertDocument(documentToBeInserted);
-            Main.nrSuccessfulActions.addAndGet(1);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             return true;
         } catch (Exception e) {
-            Main.nrUnsuccessfulActions.addAndGet(1);
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             throw e;
         }
     }
@@ -1,13 +1,12 @@
 package sqlancer.arangodb.query;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import com.arangodb.ArangoCursor;
-import com.arangodb.entity.BaseDocument;
 import com.arangodb.model.AqlQueryOptions;
+import com.arangodb.velocypack.VPackSlice;
 
 import sqlancer.GlobalState;
 import sqlancer.arangodb.ArangoDBConnection;
@@ -21,7 +20,8 @@ public class ArangoDBSelectQuery extends ArangoDBQueryAdapter {
 
     private List<String> optimizerRules;
 
-    private List<BaseDocument> resultSet;
+    // the documents are kept in their serialized form, and are only decoded on demand
+    private List<VPackSlice> resultSet;
 
     public ArangoDBSelectQuery(String query) {
         this.query = query;
@@ -59,26 +59,21 @@ public class ArangoDBSelectQuery extends ArangoDBQueryAdapter {
             String... fills) throws Exception {
         if (globalState.getOptions().logEachSelect()) {
             globalState.getLogger().writeCurrent(this.getLogString());
-            try {
-                globalState.getLogger().getCurrentFileWriter().flush();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
 
-        ArangoCursor<BaseDocument> cursor;
+        ArangoCursor<VPackSlice> cursor;
         if (optimizerRules.isEmpty()) {
-            cursor = globalState.getConnection().getDatabase().query(query, BaseDocument.class);
+            cursor = globalState.getConnection().getDatabase().query(query, VPackSlice.class);
         } else {
             AqlQueryOptions options = new AqlQueryOptions();
             cursor = globalState.getConnection().getDatabase().query(query, options.rules(optimizerRules),
-                    BaseDocument.class);
+                    VPackSlice.class);
         }
         resultSet = cursor.asListRemaining();
         return null;
     }
 
-    public List<BaseDocument> getResultSet() {
+    public List<VPackSlice> getResultSet() {
         return resultSet;
     }
 
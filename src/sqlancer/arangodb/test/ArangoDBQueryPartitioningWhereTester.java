@@ -5,7 +5,7 @@ import static sqlancer.arangodb.ArangoDBComparatorHelper.getResultSetAsDocumentL
 
 import java.util.List;
 
-import com.arangodb.entity.BaseDocument;
+import com.arangodb.velocypack.VPackSlice;
 
 import sqlancer.arangodb.ArangoDBProvider;
 import sqlancer.arangodb.query.ArangoDBSelectQuery;
@@ -22,15 +22,15 @@ public class ArangoDBQueryPartitioningWhereTester extends ArangoDBQueryPartition
         select.setFilterClause(null);
 
         ArangoDBSelectQuery query = ArangoDBVisitor.asSelectQuery(select);
-        List<BaseDocument> firstResultSet = getResultSetAsDocumentList(query, state);
+        List<VPackSlice> firstResultSet = getResultSetAsDocumentList(query, state);
 
         select.setFilterClause(predicate);
         query = ArangoDBVisitor.asSelectQuery(select);
-        List<BaseDocument> secondResultSet = getResultSetAsDocumentList(query, state);
+        List<VPackSlice> secondResultSet = getResultSetAsDocumentList(query, state);
 
         select.setFilterClause(negatedPredicate);
         query = ArangoDBVisitor.asSelectQuery(select);
-        List<BaseDocument> thirdResultSet = getResultSetAsDocumentList(query, state);
+        List<VPackSlice> thirdResultSet = getResultSetAsDocumentList(query, state);
 
         thirdResultSet.addAll(secondResultSet);
         assumeResultSetsAreEqual(firstResultSet, thirdResultSet, query);
@@ -39,7 +39,7 @@ public class ArangoDBQueryPartitioningWhereTester extends ArangoDBQueryPartition
             select.setFilterClause(predicate);
             query = ArangoDBVisitor.asSelectQuery(select);
             query.excludeRandomOptRules();
-            List<BaseDocument> forthResultSet = getResultSetAsDocumentList(query, state);
+            List<VPackSlice> forthResultSet = getResultSetAsDocumentList(query, state);
             assumeResultSetsAreEqual(secondResultSet, forthResultSet, query);
         }
     }
@@ -65,8 +65,7 @@ public class CitusProvider extends PostgresProvider {
 
     public enum Action implements AbstractAction<PostgresGlobalState> {
         ANALYZE(PostgresAnalyzeGenerator::create), //
-        ALTER_TABLE(g -> CitusAlterTableGenerator.create(g.getSchema().getRandomTable(t -> !t.isView()), g,
-                generateOnlyKnown)), //
+        ALTER_TABLE(g -> CitusAlterTableGenerator.create(g.getSchema().getRandomTableNoView(), g, generateOnlyKnown)), //
         CLUSTER(PostgresClusterGenerator::create), //
         COMMIT(g -> {
             SQLQueryAdapter query;
@@ -403,6 +402,12 @@ public class CitusProvider extends PostgresProvider {
         }
     }
 
+    @Override
+    public boolean resetDatabase(PostgresGlobalState globalState, SQLConnection con) {
+        // the worker nodes' databases would need to be reset as well
+        return false;
+    }
+
     @SuppressWarnings("deprecation")
     @Override
     public SQLConnection createDatabase(PostgresGlobalState globalState) throws SQLException {
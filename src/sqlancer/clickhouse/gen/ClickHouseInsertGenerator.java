@@ -36,7 +36,7 @@ public class ClickHouseInsertGenerator extends AbstractInsertGenerator<ClickHous
     }
 
     private SQLQueryAdapter get() {
-        ClickHouseTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        ClickHouseTable table = globalState.getSchema().getRandomTableNoView();
         List<ClickHouseColumn> columns = Collections.emptyList();
         while (columns.isEmpty()) {
             columns = table.getRandomNonEmptyColumnSubset().stream().filter(c -> !c.isAlias() && !c.isMaterialized())
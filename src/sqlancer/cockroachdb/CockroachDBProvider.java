@@ -1,6 +1,5 @@
 package sqlancer.cockroachdb;
 
-import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -36,6 +35,7 @@ import sqlancer.cockroachdb.gen.CockroachDBTruncateGenerator;
 import sqlancer.cockroachdb.gen.CockroachDBUpdateGenerator;
 import sqlancer.cockroachdb.gen.CockroachDBViewGenerator;
 import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 import sqlancer.common.query.SQLancerResultSet;
@@ -81,8 +81,7 @@ public class CockroachDBProvider extends SQLProviderAdapter<CockroachDBGlobalSta
             CockroachDBErrors.addExpressionErrors(errors);
             return new SQLQueryAdapter(sb.toString(), errors);
         }), //
-        SCRUB((g) -> new SQLQueryAdapter(
-                "EXPERIMENTAL SCRUB table " + g.getSchema().getRandomTable(t -> !t.isView()).getName(),
+        SCRUB((g) -> new SQLQueryAdapter("EXPERIMENTAL SCRUB table " + g.getSchema().getRandomTableNoView().getName(),
                 // https://github.com/cockroachdb/cockroach/issues/46401
                 ExpectedErrors.from("scrub-fk: column \"t.rowid\" does not exist",
                         "check-constraint: cannot access temporary tables of other sessions" /*
@@ -122,6 +121,13 @@ public class CockroachDBProvider extends SQLProviderAdapter<CockroachDBGlobalSta
             return CockroachDBSchema.fromConnection(getConnection(), getDatabaseName());
         }
 
+        @Override
+        public boolean canBeBatched(Query<?> q) {
+            // the driver executes a batch in one implicit transaction, so a failing statement rolls back the earlier
+            // ones
+            return false;
+        }
+
     }
 
     @Override
@@ -293,11 +299,6 @@ public class CockroachDBProvider extends SQLProviderAdapter<CockroachDBGlobalSta
         String explainQuery = "EXPLAIN (OPT) " + selectStr;
         if (globalState.getOptions().logEachSelect()) {
             globalState.getLogger().writeCurrent(explainQuery);
-            try {
-                globalState.getLogger().getCurrentFileWriter().flush();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
         SQLQueryAdapter q = new SQLQueryAdapter(explainQuery);
         boolean afterProjection = false; // Remove the concrete expression after each Projection operator
@@ -23,7 +23,7 @@ public final class CockroachDBCommentOnGenerator {
 
     public static SQLQueryAdapter comment(CockroachDBGlobalState globalState) {
         StringBuilder sb = new StringBuilder("COMMENT ON ");
-        CockroachDBTable randomTable = globalState.getSchema().getRandomTable(t -> !t.isView());
+        CockroachDBTable randomTable = globalState.getSchema().getRandomTableNoView();
         switch (Randomly.fromOptions(Option.values())) {
         case TABLE:
             sb.append("TABLE ");
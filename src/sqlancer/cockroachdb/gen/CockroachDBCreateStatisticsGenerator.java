@@ -12,7 +12,7 @@ public final class CockroachDBCreateStatisticsGenerator {
     }
 
     public static SQLQueryAdapter create(CockroachDBGlobalState globalState) {
-        CockroachDBTable randomTable = globalState.getSchema().getRandomTable(t -> !t.isView());
+        CockroachDBTable randomTable = globalState.getSchema().getRandomTableNoView();
         StringBuilder sb = new StringBuilder("CREATE STATISTICS s");
         sb.append(Randomly.smallNumber());
         if (Randomly.getBoolean()) {
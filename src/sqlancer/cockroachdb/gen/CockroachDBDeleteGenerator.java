@@ -17,7 +17,7 @@ public final class CockroachDBDeleteGenerator {
     public static SQLQueryAdapter delete(CockroachDBGlobalState globalState) {
         ExpectedErrors errors = new ExpectedErrors();
         StringBuilder sb = new StringBuilder();
-        CockroachDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        CockroachDBTable table = globalState.getSchema().getRandomTableNoView();
         sb.append("DELETE FROM ");
         sb.append(table.getName());
         if (Randomly.getBoolean()) {
@@ -12,7 +12,7 @@ public final class CockroachDBDropTableGenerator {
     }
 
     public static SQLQueryAdapter drop(CockroachDBGlobalState globalState) {
-        if (globalState.getSchema().getTables(t -> !t.isView()).size() <= 1) {
+        if (globalState.getSchema().getDatabaseTablesWithoutViews().size() <= 1) {
             throw new IgnoreMeException();
         }
 
@@ -23,7 +23,7 @@ public final class CockroachDBDropTableGenerator {
         sb.append("DROP");
         sb.append(" TABLE");
         sb.append(" ");
-        sb.append(globalState.getSchema().getRandomTable(t -> !t.isView()).getName());
+        sb.append(globalState.getSchema().getRandomTableNoView().getName());
 
         if (Randomly.getBoolean()) {
             sb.append(" ");
@@ -26,10 +26,10 @@ public final class CockroachDBDropViewGenerator {
                 if (i != 0) {
                     sb.append(", ");
                 }
-                sb.append(globalState.getSchema().getRandomTable(t -> t.isView()).getName());
+                sb.append(globalState.getSchema().getRandomView().getName());
             }
         } else {
-            sb.append(globalState.getSchema().getRandomTable(t -> t.isView()).getName());
+            sb.append(globalState.getSchema().getRandomView().getName());
         }
         if (Randomly.getBoolean()) {
             sb.append(" ");
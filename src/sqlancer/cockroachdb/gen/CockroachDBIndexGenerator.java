@@ -39,7 +39,7 @@ public class CockroachDBIndexGenerator extends CockroachDBGenerator {
             errors.add("overflow during Encode");
             errors.add("of type interval");
         }
-        CockroachDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        CockroachDBTable table = globalState.getSchema().getRandomTableNoView();
         sb.append("CREATE ");
         if (Randomly.getBoolean()) {
             sb.append("UNIQUE ");
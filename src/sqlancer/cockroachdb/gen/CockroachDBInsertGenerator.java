@@ -32,7 +32,7 @@ public final class CockroachDBInsertGenerator {
         errors.add("foreign key violation");
         errors.add("multi-part foreign key");
         StringBuilder sb = new StringBuilder();
-        CockroachDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        CockroachDBTable table = globalState.getSchema().getRandomTableNoView();
         boolean isUpsert = Randomly.getBoolean();
         if (!isUpsert) {
             sb.append("INSERT INTO ");
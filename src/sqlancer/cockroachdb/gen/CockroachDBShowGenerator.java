@@ -22,7 +22,7 @@ public final class CockroachDBShowGenerator {
         switch (Randomly.fromOptions(Option.values())) {
         case EXPERIMENTAL_FINGERPRINTS:
             sb.append("SHOW EXPERIMENTAL_FINGERPRINTS FROM TABLE ");
-            sb.append(globalState.getSchema().getRandomTable(t -> !t.isView()).getName());
+            sb.append(globalState.getSchema().getRandomTableNoView().getName());
             errors.add("as type bytes: bytea encoded value ends with incomplete escape sequence");
             errors.add("invalid bytea escape sequence");
             break;
@@ -34,7 +34,7 @@ public final class CockroachDBShowGenerator {
             break;
         case RANGES:
             sb.append("SHOW RANGES FROM TABLE ");
-            sb.append(globalState.getSchema().getRandomTable(t -> !t.isView()).getName());
+            sb.append(globalState.getSchema().getRandomTableNoView().getName());
             break;
         case LOCALITY:
             sb.append("SHOW LOCALITY");
@@ -26,7 +26,7 @@ public final class CockroachDBUpdateGenerator extends AbstractUpdateGenerator<Co
     }
 
     private SQLQueryAdapter generate() {
-        CockroachDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        CockroachDBTable table = globalState.getSchema().getRandomTableNoView();
         List<CockroachDBColumn> columns = table.getRandomNonEmptyColumnSubset();
         gen = new CockroachDBExpressionGenerator(globalState).setColumns(columns);
         sb.append("UPDATE ");
@@ -0,0 +1,188 @@
+package sqlancer.common.log;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes a log file asynchronously. The threads that log enqueue the strings to be written in a lock-free queue that is
+ * shared by all log files; a single writer thread appends them to per-file buffers, which it writes once the queue has
+ * been drained, once a buffer becomes large, or when a flush is requested. Thus, logging a statement does not cause a
+ * system call on the thread that executes it.
+ *
+ * Note that strings that have not yet been written are lost if the JVM crashes, for example, due to a crash of an
+ * embedded DBMS, so {@link #flush()} must be called before the log file is needed.
+ */
+public final class AsyncLogWriter implements Closeable {
+
+    private static final int MAX_BUFFERED_CHARS = 1 << 16;
+    private static final long WRITE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final Queue<Record> QUEUE = new ConcurrentLinkedQueue<>();
+    private static Thread writerThread;
+
+    private final File file;
+    private volatile IOException failure;
+
+    // only accessed by the writer thread
+    private final StringBuilder buffer = new StringBuilder();
+    private FileOutputStream out;
+    private Writer writer;
+
+    private static final class Record {
+
+        private final AsyncLogWriter target;
+        private final String text;
+        private final CountDownLatch done;
+        private final boolean close;
+
+        Record(AsyncLogWriter target, String text, CountDownLatch done, boolean close) {
+            this.target = target;
+            this.text = text;
+            this.done = done;
+            this.close = close;
+        }
+
+    }
+
+    /**
+     * Creates a writer that truncates the given file when the first string is written to it.
+     *
+     * @param file
+     *            the log file
+     */
+    public AsyncLogWriter(File file) {
+        this.file = file;
+        startWriterThread();
+    }
+
+    private static synchronized void startWriterThread() {
+        if (writerThread == null) {
+            writerThread = new Thread(AsyncLogWriter::writeRecords, "sqlancer-log-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    public void write(String text) {
+        QUEUE.add(new Record(this, text, null, false));
+    }
+
+    /**
+     * Waits until all strings that were passed to {@link #write(String)} have been written and synced to the storage
+     * device.
+     */
+    public void flush() {
+        awaitRecord(false);
+    }
+
+    /**
+     * Flushes and closes the log file.
+     */
+    @Override
+    public void close() {
+        awaitRecord(true);
+    }
+
+    private void awaitRecord(boolean close) {
+        CountDownLatch done = new CountDownLatch(1);
+        QUEUE.add(new Record(this, null, done, close));
+        LockSupport.unpark(writerThread);
+        boolean interrupted = false;
+        while (true) {
+            try {
+                done.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new AssertionError(failure);
+        }
+    }
+
+    private static void writeRecords() {
+        Set<AsyncLogWriter> dirtyWriters = new LinkedHashSet<>();
+        while (true) {
+            Record record = QUEUE.poll();
+            if (record == null) {
+                for (AsyncLogWriter dirtyWriter : dirtyWriters) {
+                    dirtyWriter.writeBuffer(false);
+                }
+                dirtyWriters.clear();
+                LockSupport.parkNanos(WRITE_INTERVAL_NANOS);
+                continue;
+            }
+            AsyncLogWriter target = record.target;
+            if (record.text != null) {
+                target.buffer.append(record.text);
+                if (target.buffer.length() >= MAX_BUFFERED_CHARS) {
+                    target.writeBuffer(false);
+                } else {
+                    dirtyWriters.add(target);
+                }
+            } else {
+                target.writeBuffer(true);
+                if (record.close) {
+                    target.closeFile();
+                }
+                dirtyWriters.remove(target);
+                record.done.countDown();
+            }
+        }
+    }
+
+    private void writeBuffer(boolean sync) {
+        if (failure != null) {
+            buffer.setLength(0);
+            return;
+        }
+        try {
+            if (writer == null) {
+                if (buffer.length() == 0) {
+                    return;
+                }
+                out = new FileOutputStream(file, false);
+                writer = new OutputStreamWriter(out, Charset.defaultCharset());
+            }
+            writer.append(buffer);
+            buffer.setLength(0);
+            writer.flush();
+            if (sync) {
+                out.getChannel().force(false);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    private void closeFile() {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        writer = null;
+        out = null;
+    }
+
+}
@@ -0,0 +1,41 @@
+package sqlancer.common.log;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import sqlancer.common.metrics.StatementSource;
+
+/**
+ * Logs the statements whose execution took longer than <code>--slow-statement-threshold-ms</code> to a file shared by
+ * all threads, together with their latency and source, to find DBMS performance issues and generator paths that produce
+ * pathologically slow statements. Only a sample of the slow statements of each source is logged (see
+ * {@link StatementSource#sampleSlowStatement()}).
+ */
+public final class SlowStatementLog {
+
+    private static volatile File file;
+
+    private SlowStatementLog() {
+    }
+
+    public static void setFile(File logFile) {
+        file = logFile;
+    }
+
+    public static synchronized void log(String statement, long nanos, StatementSource source, String databaseName) {
+        if (file == null) {
+            return;
+        }
+        try (Writer writer = new FileWriter(file, StandardCharsets.UTF_8, true)) {
+            writer.write(String.format("-- %d ms (%s, %s)%n%s%n", TimeUnit.NANOSECONDS.toMillis(nanos), source,
+                    databaseName, statement));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package sqlancer.common.log;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import sqlancer.common.query.Query;
+import sqlancer.common.query.SQLQueryAdapter;
+
+/**
+ * An append-only list of the statements that were logged for a database. Rather than retaining each {@link Query}
+ * (together with its {@link sqlancer.common.query.ExpectedErrors}), the string of a plain {@link SQLQueryAdapter} is
+ * appended to a byte array as a varint-prefixed UTF-8 string; short statements, which tend to repeat (e.g.,
+ * <code>COMMIT;</code>), are interned and appended only as their index. The queries are re-created when the statements
+ * are read, which only happens when a bug is reported or reduced. Queries of other classes cannot be re-created from
+ * their strings and are retained.
+ */
+public final class StatementJournal {
+
+    private static final int MAX_INTERNED_LENGTH = 64;
+    private static final int MAX_INTERNED_STRINGS = 1024;
+
+    // the two lowest bits of each entry's header
+    private static final int INLINE_STRING = 0;
+    private static final int INTERNED_STRING = 1;
+    private static final int RETAINED_QUERY = 2;
+    // the third bit of each entry's header
+    private static final int COULD_AFFECT_SCHEMA = 4;
+
+    private byte[] data = new byte[256];
+    private int length;
+    private int size;
+    private final List<String> internedStrings = new ArrayList<>();
+    private final Map<String, Integer> internedIndexes = new HashMap<>();
+    private final List<Query<?>> retainedQueries = new ArrayList<>();
+
+    public void add(Query<?> query) {
+        if (query.getClass() != SQLQueryAdapter.class) {
+            writeVarInt(retainedQueries.size() << 2 | RETAINED_QUERY);
+            retainedQueries.add(query);
+            size++;
+            return;
+        }
+        String queryString = query.getQueryString();
+        int schemaFlag = query.couldAffectSchema() ? COULD_AFFECT_SCHEMA : 0;
+        Integer index = internedIndexes.get(queryString);
+        if (index == null && queryString.length() <= MAX_INTERNED_LENGTH
+                && internedStrings.size() < MAX_INTERNED_STRINGS) {
+            index = internedStrings.size();
+            internedStrings.add(queryString);
+            internedIndexes.put(queryString, index);
+        }
+        if (index == null) {
+            byte[] bytes = queryString.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length << 3 | schemaFlag | INLINE_STRING);
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, data, length, bytes.length);
+            length += bytes.length;
+        } else {
+            writeVarInt(index << 3 | schemaFlag | INTERNED_STRING);
+        }
+        size++;
+    }
+
+    public void addAll(List<? extends Query<?>> queries) {
+        for (Query<?> query : queries) {
+            add(query);
+        }
+    }
+
+    public void clear() {
+        data = new byte[256];
+        length = 0;
+        size = 0;
+        internedStrings.clear();
+        internedIndexes.clear();
+        retainedQueries.clear();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Re-creates the statements in the order in which they were added.
+     *
+     * @return a new list of the statements
+     */
+    public List<Query<?>> getQueries() {
+        List<Query<?>> queries = new ArrayList<>(size);
+        int pos = 0;
+        while (pos < length) {
+            int header = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                header |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            switch (header & 3) {
+            case RETAINED_QUERY:
+                queries.add(retainedQueries.get(header >>> 2));
+                break;
+            case INTERNED_STRING:
+                queries.add(
+                        new SQLQueryAdapter(internedStrings.get(header >>> 3), (header & COULD_AFFECT_SCHEMA) != 0));
+                break;
+            case INLINE_STRING:
+                int stringLength = header >>> 3;
+                String queryString = new String(data, pos, stringLength, StandardCharsets.UTF_8);
+                pos += stringLength;
+                queries.add(new SQLQueryAdapter(queryString, (header & COULD_AFFECT_SCHEMA) != 0));
+                break;
+            default:
+                throw new AssertionError(header);
+            }
+        }
+        return queries;
+    }
+
+    private void writeVarInt(int value) {
+        ensureCapacity(5);
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            data[length++] = (byte) (remaining & 0x7F | 0x80);
+            remaining >>>= 7;
+        }
+        data[length++] = (byte) remaining;
+    }
+
+    private void ensureCapacity(int additionalBytes) {
+        if (length + additionalBytes > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + additionalBytes));
+        }
+    }
+
+}
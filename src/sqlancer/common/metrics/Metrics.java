@@ -0,0 +1,316 @@
+package sqlancer.common.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The registry of the counters and latency histograms that SQLancer maintains while testing. Counters are striped
+ * {@link LongAdder}s and histograms are {@link LatencyHistogram}s, so that threads updating them do not contend with
+ * each other. Each metric has a name and optional labels (e.g., the test oracle), and is created on first use; callers
+ * on hot paths should keep the returned metric rather than look it up for each update.
+ *
+ * The metrics can be exported as JSON or in the Prometheus text format (see <code>--metrics-file</code>). The labels
+ * set by {@link #setCommonLabels(String...)}, such as the DBMS under test, are added to each exported metric.
+ */
+public final class Metrics {
+
+    public enum Format {
+        JSON, PROMETHEUS
+    }
+
+    // the latencies of the phases of testing
+    public static final String PHASE_SECONDS = "sqlancer_phase_seconds";
+    public static final String ORACLE_CHECK_SECONDS = "sqlancer_oracle_check_seconds";
+
+    private static final double[] EXPORTED_PERCENTILES = { 50, 90, 99, 99.9 };
+    private static final String[] PROMETHEUS_QUANTILES = { "0.5", "0.9", "0.99", "0.999" };
+    private static final String[] JSON_PERCENTILE_KEYS = { "p50", "p90", "p99", "p999" };
+
+    private static final Map<String, Metric<LongAdder>> COUNTERS = new ConcurrentHashMap<>();
+    private static final Map<String, Metric<LatencyHistogram>> HISTOGRAMS = new ConcurrentHashMap<>();
+    private static volatile String[] commonLabels = {};
+
+    private Metrics() {
+    }
+
+    private static final class Metric<T> {
+
+        private final String name;
+        private final String[] labels;
+        private final T value;
+
+        Metric(String name, String[] labels, T value) {
+            this.name = name;
+            this.labels = labels.clone();
+            this.value = value;
+        }
+
+    }
+
+    /**
+     * Gets the counter with the given name and labels, which is created if it does not exist.
+     *
+     * @param name
+     *            the name of the counter, which should end with <code>_total</code>
+     * @param labels
+     *            pairs of label names and values
+     *
+     * @return the counter
+     */
+    public static LongAdder getCounter(String name, String... labels) {
+        return getMetric(COUNTERS, name, labels, n -> new LongAdder());
+    }
+
+    /**
+     * Gets the latency histogram with the given name and labels, which is created if it does not exist.
+     *
+     * @param name
+     *            the name of the histogram, which should end with <code>_seconds</code>
+     * @param labels
+     *            pairs of label names and values
+     *
+     * @return the histogram
+     */
+    public static LatencyHistogram getHistogram(String name, String... labels) {
+        return getMetric(HISTOGRAMS, name, labels, n -> new LatencyHistogram());
+    }
+
+    public static LatencyHistogram getPhaseHistogram(String phase) {
+        return getHistogram(PHASE_SECONDS, "phase", phase);
+    }
+
+    public static LatencyHistogram getOracleCheckHistogram(String oracleName) {
+        return getHistogram(ORACLE_CHECK_SECONDS, "oracle", oracleName);
+    }
+
+    private static <T> T getMetric(Map<String, Metric<T>> metrics, String name, String[] labels,
+            Function<String, T> factory) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("labels must be pairs of names and values: " + String.join(",", labels));
+        }
+        String key = getKey(name, labels);
+        Metric<T> metric = metrics.get(key);
+        if (metric == null) {
+            metric = metrics.computeIfAbsent(key, k -> new Metric<>(name, labels, factory.apply(k)));
+        }
+        return metric.value;
+    }
+
+    private static String getKey(String name, String... labels) {
+        StringBuilder sb = new StringBuilder(name);
+        for (String label : labels) {
+            sb.append('\0');
+            sb.append(label);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Sets the labels that are added to each exported metric.
+     *
+     * @param labels
+     *            pairs of label names and values
+     */
+    public static void setCommonLabels(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("labels must be pairs of names and values: " + String.join(",", labels));
+        }
+        commonLabels = labels.clone();
+    }
+
+    /**
+     * Writes all metrics to the given file. The file is written as a whole, so that a reader never observes a partially
+     * written file.
+     *
+     * @param file
+     *            the file to be (over)written
+     * @param format
+     *            the format of the file
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    public static void export(Path file, Format format) throws IOException {
+        Path absoluteFile = file.toAbsolutePath();
+        Path tempFile = Files.createTempFile(absoluteFile.getParent(), absoluteFile.getFileName().toString(), ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                write(writer, format);
+            }
+            Files.move(tempFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    public static void write(Appendable out, Format format) throws IOException {
+        // sorted by name and labels, so that the metrics are listed in the same order in each export
+        Map<String, Metric<LongAdder>> counters = new TreeMap<>(COUNTERS);
+        Map<String, Metric<LatencyHistogram>> histograms = new TreeMap<>(HISTOGRAMS);
+        if (format == Format.JSON) {
+            writeJson(out, counters, histograms);
+        } else {
+            writePrometheus(out, counters, histograms);
+        }
+    }
+
+    /**
+     * Writes a table of the percentiles of the histograms with the given name, ordered by their total latency.
+     *
+     * @param out
+     *            the output
+     * @param name
+     *            the name of the histograms
+     * @param maxNrRows
+     *            the maximum number of histograms listed
+     *
+     * @throws IOException
+     *             if the output cannot be written
+     */
+    public static void writeLatencySummary(Appendable out, String name, int maxNrRows) throws IOException {
+        List<Metric<LatencyHistogram>> histograms = new ArrayList<>();
+        for (Metric<LatencyHistogram> histogram : HISTOGRAMS.values()) {
+            if (histogram.name.equals(name) && histogram.value.getCount() != 0) {
+                histograms.add(histogram);
+            }
+        }
+        histograms.sort(Comparator.comparingLong((Metric<LatencyHistogram> h) -> h.value.getTotalNanos()).reversed());
+        out.append(String.format("%-45s %10s %10s %10s %10s %10s%n", "", "count", "p50 (ms)", "p99 (ms)", "max (ms)",
+                "total (s)"));
+        for (Metric<LatencyHistogram> histogram : histograms.subList(0, Math.min(maxNrRows, histograms.size()))) {
+            LatencyHistogram value = histogram.value;
+            StringBuilder labels = new StringBuilder();
+            for (int i = 1; i < histogram.labels.length; i += 2) {
+                labels.append(labels.length() == 0 ? "" : " ").append(histogram.labels[i]);
+            }
+            out.append(String.format("%-45s %10d %10.3f %10.3f %10.3f %10.1f%n", labels, value.getCount(),
+                    toMillis(value.getPercentileNanos(50)), toMillis(value.getPercentileNanos(99)),
+                    toMillis(value.getMaxNanos()), (double) value.getTotalNanos() / TimeUnit.SECONDS.toNanos(1)));
+        }
+    }
+
+    private static double toMillis(long nanos) {
+        return (double) nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static void writePrometheus(Appendable out, Map<String, Metric<LongAdder>> counters,
+            Map<String, Metric<LatencyHistogram>> histograms) throws IOException {
+        String lastName = null;
+        for (Metric<LongAdder> counter : counters.values()) {
+            if (!counter.name.equals(lastName)) {
+                out.append("# TYPE ").append(counter.name).append(" counter\n");
+                lastName = counter.name;
+            }
+            out.append(counter.name).append(getPrometheusLabels(counter.labels)).append(' ')
+                    .append(Long.toString(counter.value.sum())).append('\n');
+        }
+        for (Metric<LatencyHistogram> histogram : histograms.values()) {
+            if (!histogram.name.equals(lastName)) {
+                out.append("# TYPE ").append(histogram.name).append(" summary\n");
+                lastName = histogram.name;
+            }
+            LatencyHistogram value = histogram.value;
+            for (int i = 0; i < EXPORTED_PERCENTILES.length; i++) {
+                out.append(histogram.name)
+                        .append(getPrometheusLabels(histogram.labels, "quantile", PROMETHEUS_QUANTILES[i])).append(' ')
+                        .append(toSeconds(value.getPercentileNanos(EXPORTED_PERCENTILES[i]))).append('\n');
+            }
+            out.append(histogram.name).append("_sum").append(getPrometheusLabels(histogram.labels)).append(' ')
+                    .append(toSeconds(value.getTotalNanos())).append('\n');
+            out.append(histogram.name).append("_count").append(getPrometheusLabels(histogram.labels)).append(' ')
+                    .append(Long.toString(value.getCount())).append('\n');
+        }
+    }
+
+    private static String getPrometheusLabels(String[] labels, String... additionalLabels) {
+        StringBuilder sb = new StringBuilder();
+        for (String[] labelPairs : new String[][] { commonLabels, labels, additionalLabels }) {
+            for (int i = 0; i < labelPairs.length; i += 2) {
+                sb.append(sb.length() == 0 ? '{' : ',');
+                sb.append(labelPairs[i]).append("=\"").append(escape(labelPairs[i + 1])).append('"');
+            }
+        }
+        if (sb.length() != 0) {
+            sb.append('}');
+        }
+        return sb.toString();
+    }
+
+    private static void writeJson(Appendable out, Map<String, Metric<LongAdder>> counters,
+            Map<String, Metric<LatencyHistogram>> histograms) throws IOException {
+        out.append("{\n  \"counters\": [");
+        String separator = "\n";
+        for (Metric<LongAdder> counter : counters.values()) {
+            out.append(separator).append("    { ");
+            writeJsonNameAndLabels(out, counter);
+            out.append(", \"value\": ").append(Long.toString(counter.value.sum())).append(" }");
+            separator = ",\n";
+        }
+        out.append("\n  ],\n  \"histograms\": [");
+        separator = "\n";
+        for (Metric<LatencyHistogram> histogram : histograms.values()) {
+            LatencyHistogram value = histogram.value;
+            out.append(separator).append("    { ");
+            writeJsonNameAndLabels(out, histogram);
+            out.append(", \"count\": ").append(Long.toString(value.getCount()));
+            out.append(", \"sum\": ").append(toSeconds(value.getTotalNanos()));
+            out.append(", \"max\": ").append(toSeconds(value.getMaxNanos()));
+            for (int i = 0; i < EXPORTED_PERCENTILES.length; i++) {
+                out.append(", \"").append(JSON_PERCENTILE_KEYS[i]).append("\": ")
+                        .append(toSeconds(value.getPercentileNanos(EXPORTED_PERCENTILES[i])));
+            }
+            out.append(" }");
+            separator = ",\n";
+        }
+        out.append("\n  ]\n}\n");
+    }
+
+    private static void writeJsonNameAndLabels(Appendable out, Metric<?> metric) throws IOException {
+        out.append("\"name\": \"").append(escape(metric.name)).append("\", \"labels\": {");
+        String separator = " ";
+        for (String[] labelPairs : new String[][] { commonLabels, metric.labels }) {
+            for (int i = 0; i < labelPairs.length; i += 2) {
+                out.append(separator).append('"').append(escape(labelPairs[i])).append("\": \"")
+                        .append(escape(labelPairs[i + 1])).append('"');
+                separator = ", ";
+            }
+        }
+        out.append(separator.equals(" ") ? "}" : " }");
+    }
+
+    // escapes the characters that must be escaped in both JSON strings and Prometheus label values
+    private static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else if (c < ' ') {
+                sb.append(' ');
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String toSeconds(long nanos) {
+        return Double.toString((double) nanos / TimeUnit.SECONDS.toNanos(1));
+    }
+
+}
@@ -0,0 +1,63 @@
+package sqlancer.common.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The action (e.g., an <code>INSERT</code> generator) or test oracle whose statements are executed, to which the
+ * latencies of the statements are attributed (see {@link sqlancer.GlobalState#setStatementSource(StatementSource)}).
+ * The sources are shared by all threads.
+ */
+public final class StatementSource {
+
+    public static final String STATEMENT_SECONDS = "sqlancer_statement_seconds";
+    // bounds the number of slow statements logged per source, so that a single pathological source cannot flood the log
+    private static final int MAX_SAMPLED_SLOW_STATEMENTS = 20;
+    private static final Map<String, StatementSource> SOURCES = new ConcurrentHashMap<>();
+
+    public static final StatementSource OTHER = get("other", "other");
+
+    private final String type;
+    private final String name;
+    private final LatencyHistogram latencies;
+    private final AtomicInteger nrSampledSlowStatements = new AtomicInteger();
+
+    private StatementSource(String type, String name) {
+        this.type = type;
+        this.name = name;
+        this.latencies = Metrics.getHistogram(STATEMENT_SECONDS, "source_type", type, "source", name);
+    }
+
+    private static StatementSource get(String type, String name) {
+        return SOURCES.computeIfAbsent(type + ":" + name, k -> new StatementSource(type, name));
+    }
+
+    public static StatementSource ofAction(Object action) {
+        return get("action", action.toString());
+    }
+
+    public static StatementSource ofOracle(Object oracle) {
+        return get("oracle", oracle.getClass().getSimpleName());
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Determines whether a slow statement of this source should be logged.
+     *
+     * @return true for the first few slow statements of this source
+     */
+    public boolean sampleSlowStatement() {
+        return nrSampledSlowStatements.get() < MAX_SAMPLED_SLOW_STATEMENTS
+                && nrSampledSlowStatements.getAndIncrement() < MAX_SAMPLED_SLOW_STATEMENTS;
+    }
+
+    @Override
+    public String toString() {
+        return type + " " + name;
+    }
+
+}
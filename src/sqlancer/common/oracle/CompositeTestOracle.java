@@ -1,12 +1,18 @@
 package sqlancer.common.oracle;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import sqlancer.GlobalState;
+import sqlancer.common.metrics.LatencyHistogram;
+import sqlancer.common.metrics.Metrics;
+import sqlancer.common.metrics.StatementSource;
 
 public class CompositeTestOracle<G extends GlobalState<?, ?, ?>> implements TestOracle<G> {
 
     private final List<TestOracle<G>> oracles;
+    private final List<LatencyHistogram> checkTimes;
+    private final List<StatementSource> sources;
     private final G globalState;
     private int i;
     private int iLast;
@@ -14,10 +20,15 @@ public class CompositeTestOracle<G extends GlobalState<?, ?, ?>> implements Test
     public CompositeTestOracle(List<TestOracle<G>> oracles, G globalState) {
         this.globalState = globalState;
         this.oracles = oracles;
+        this.checkTimes = oracles.stream().map(o -> Metrics.getOracleCheckHistogram(o.getClass().getSimpleName()))
+                .collect(Collectors.toList());
+        this.sources = oracles.stream().map(StatementSource::ofOracle).collect(Collectors.toList());
     }
 
     @Override
     public void check() throws Exception {
+        long startTime = System.nanoTime();
+        globalState.setStatementSource(sources.get(i));
         try {
             oracles.get(i).check();
             iLast = i;
@@ -26,6 +37,7 @@ public class CompositeTestOracle<G extends GlobalState<?, ?, ?>> implements Test
                 globalState.getManager().incrementSelectQueryCount();
             }
         } finally {
+            checkTimes.get(i).recordSince(startTime);
             i = (i + 1) % oracles.size();
         }
     }
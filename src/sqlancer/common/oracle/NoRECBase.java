@@ -15,6 +15,9 @@ public abstract class NoRECBase<S extends SQLGlobalState<?, ?>> implements TestO
     protected final SQLConnection con;
     protected String optimizedQueryString;
     protected String unoptimizedQueryString;
+    // aggregate forms of the query pair that only count the rows and do not sort them, see NoRECPerformanceOracle
+    protected String optimizedCountQueryString;
+    protected String unoptimizedCountQueryString;
 
     public NoRECBase(S state) {
         this.state = state;
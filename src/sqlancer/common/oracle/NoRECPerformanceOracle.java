@@ -0,0 +1,105 @@
+package sqlancer.common.oracle;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import sqlancer.IgnoreMeException;
+import sqlancer.MainOptions;
+import sqlancer.SQLGlobalState;
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.common.query.SQLancerResultSet;
+
+/**
+ * A test oracle that detects performance issues rather than logic bugs. It relies on a NoREC oracle to generate a pair
+ * of semantically equivalent queries, namely an optimized query, whose predicate in the WHERE clause can be used by the
+ * query optimizer, and an unoptimized query, which evaluates the predicate for every row and can hardly be optimized.
+ * Since the optimizer should never make a query slower by orders of magnitude, the oracle reports the pair if the
+ * optimized query is much slower than the unoptimized one (see <code>--performance-slowdown-factor</code> and
+ * <code>--performance-min-time-ms</code>).
+ *
+ * Rather than the NoREC queries themselves, the oracle times their aggregate forms, namely
+ * <code>SELECT COUNT(*) FROM ... WHERE p</code> and
+ * <code>SELECT SUM(count) FROM (SELECT p IS TRUE AS count FROM ...)</code> without an ORDER BY clause. Both return a
+ * single row, so that the times are not dominated by transferring or sorting the rows that the optimized query fetches.
+ *
+ * To keep the overhead low, both queries are timed once after the NoREC check, which also ensures that the DBMS has
+ * cached the data they access. Only a pair that seems suspicious is then executed repeatedly in alternation (see
+ * <code>--performance-repetitions</code>), and is reported only if the median execution times confirm the slowdown,
+ * which filters out outliers caused by, for example, garbage collection or other threads.
+ *
+ * @param <S>
+ *            the global state
+ */
+public class NoRECPerformanceOracle<S extends SQLGlobalState<?, ?>> implements TestOracle<S> {
+
+    private final S state;
+    private final NoRECBase<S> noRECOracle;
+    private final double slowdownFactor;
+    private final long minTimeNanos;
+    private final int nrRepetitions;
+
+    public NoRECPerformanceOracle(S state, NoRECBase<S> noRECOracle) {
+        this.state = state;
+        this.noRECOracle = noRECOracle;
+        MainOptions options = state.getOptions();
+        this.slowdownFactor = options.getPerformanceSlowdownFactor();
+        this.minTimeNanos = TimeUnit.MILLISECONDS.toNanos(options.getPerformanceMinTimeMillis());
+        this.nrRepetitions = Math.max(1, options.getPerformanceRepetitions());
+    }
+
+    @Override
+    public void check() throws Exception {
+        noRECOracle.check(); // the query pair is only meaningful if both queries compute the same result
+        String optimizedQueryString = noRECOracle.optimizedCountQueryString;
+        String unoptimizedQueryString = noRECOracle.unoptimizedCountQueryString;
+        SQLQueryAdapter optimizedQuery = new SQLQueryAdapter(optimizedQueryString, noRECOracle.errors);
+        SQLQueryAdapter unoptimizedQuery = new SQLQueryAdapter(unoptimizedQueryString, noRECOracle.errors);
+        if (!isSlowdown(measure(optimizedQuery), measure(unoptimizedQuery))) {
+            return;
+        }
+        long[] optimizedNanos = new long[nrRepetitions];
+        long[] unoptimizedNanos = new long[nrRepetitions];
+        for (int i = 0; i < nrRepetitions; i++) {
+            optimizedNanos[i] = measure(optimizedQuery);
+            unoptimizedNanos[i] = measure(unoptimizedQuery);
+        }
+        long optimizedMedian = getMedian(optimizedNanos);
+        long unoptimizedMedian = getMedian(unoptimizedNanos);
+        if (isSlowdown(optimizedMedian, unoptimizedMedian)) {
+            throw new AssertionError(String.format(
+                    "the optimized query is %.1f times slower than the equivalent unoptimized query (median of %d executions: %.3f ms vs. %.3f ms)%n%s;%n%s;",
+                    (double) optimizedMedian / Math.max(1, unoptimizedMedian), nrRepetitions, optimizedMedian / 1e6,
+                    unoptimizedMedian / 1e6, optimizedQueryString, unoptimizedQueryString));
+        }
+    }
+
+    @Override
+    public String getLastQueryString() {
+        return noRECOracle.optimizedQueryString;
+    }
+
+    private boolean isSlowdown(long optimizedNanos, long unoptimizedNanos) {
+        return optimizedNanos >= minTimeNanos && optimizedNanos > slowdownFactor * unoptimizedNanos;
+    }
+
+    // returns the time to execute the query and to fetch its row
+    private long measure(SQLQueryAdapter query) throws SQLException {
+        long startTime = System.nanoTime();
+        try (SQLancerResultSet rs = query.executeAndGet(state)) {
+            if (rs == null) {
+                throw new IgnoreMeException();
+            }
+            // both queries return a single row, whose value does not matter
+            rs.next();
+        }
+        return System.nanoTime() - startTime;
+    }
+
+    private static long getMedian(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+}
@@ -0,0 +1,327 @@
+package sqlancer.common.query;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Captures all columns of a result set in a columnar layout. Integral and floating-point columns are read using
+ * {@link SQLancerResultSet#getLong(int)} and {@link SQLancerResultSet#getDouble(int)} into primitive arrays, binary
+ * columns into byte arrays, and all other columns as strings. This allows comparing whole rows without converting each
+ * value to a string.
+ */
+public final class ColumnarResultSet {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    public enum ColumnKind {
+        LONG, DOUBLE, BYTES, STRING;
+
+        public static ColumnKind fromSQLType(int sqlType) {
+            switch (sqlType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+            case Types.BIGINT:
+                return LONG;
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return DOUBLE;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return BYTES;
+            default:
+                return STRING;
+            }
+        }
+    }
+
+    /**
+     * Canonicalizes the captured values before rows are compared, for example, to treat -0.0 and 0.0 as equal. Each
+     * method is invoked only for columns of the corresponding {@link ColumnKind}, and never for NULL values.
+     */
+    public interface ValueCanonicalizer {
+
+        ValueCanonicalizer DEFAULT = new ValueCanonicalizer() {
+        };
+
+        default long canonicalize(long value) {
+            return value;
+        }
+
+        default double canonicalize(double value) {
+            if (value == 0.0) {
+                return 0.0; // -0.0
+            }
+            return value;
+        }
+
+        default byte[] canonicalize(byte[] value) {
+            return value;
+        }
+
+        default String canonicalize(String value) {
+            return value;
+        }
+
+    }
+
+    private ColumnKind[] kinds;
+    private long[][] longs;
+    private double[][] doubles;
+    private byte[][][] bytes;
+    private String[][] strings;
+    private boolean[][] nulls;
+    private int nrRows;
+    private int capacity;
+
+    /**
+     * Reads the remaining rows of the result set and appends them. The column kinds are determined by the first result
+     * set that is appended; result sets that are appended later must have the same number of columns.
+     *
+     * @param rs
+     *            the result set, which is not closed by this method
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public void appendRows(SQLancerResultSet rs) throws SQLException {
+        int nrColumns = rs.getColumnCount();
+        if (kinds == null) {
+            initializeColumns(rs, nrColumns);
+        } else if (kinds.length != nrColumns) {
+            throw new AssertionError(String.format("expected %d columns but got %d", kinds.length, nrColumns));
+        }
+        while (rs.next()) {
+            if (nrRows == capacity) {
+                grow();
+            }
+            for (int i = 0; i < nrColumns; i++) {
+                readValue(rs, i);
+            }
+            nrRows++;
+        }
+    }
+
+    private void initializeColumns(SQLancerResultSet rs, int nrColumns) throws SQLException {
+        kinds = new ColumnKind[nrColumns];
+        longs = new long[nrColumns][];
+        doubles = new double[nrColumns][];
+        bytes = new byte[nrColumns][][];
+        strings = new String[nrColumns][];
+        nulls = new boolean[nrColumns][];
+        for (int i = 0; i < nrColumns; i++) {
+            kinds[i] = ColumnKind.fromSQLType(rs.getColumnType(i + 1));
+        }
+        capacity = 0;
+        grow();
+    }
+
+    private void grow() {
+        int newCapacity = capacity == 0 ? INITIAL_CAPACITY : capacity * 2;
+        for (int i = 0; i < kinds.length; i++) {
+            switch (kinds[i]) {
+            case LONG:
+                longs[i] = longs[i] == null ? new long[newCapacity] : Arrays.copyOf(longs[i], newCapacity);
+                break;
+            case DOUBLE:
+                doubles[i] = doubles[i] == null ? new double[newCapacity] : Arrays.copyOf(doubles[i], newCapacity);
+                break;
+            case BYTES:
+                bytes[i] = bytes[i] == null ? new byte[newCapacity][] : Arrays.copyOf(bytes[i], newCapacity);
+                break;
+            case STRING:
+                strings[i] = strings[i] == null ? new String[newCapacity] : Arrays.copyOf(strings[i], newCapacity);
+                break;
+            default:
+                throw new AssertionError(kinds[i]);
+            }
+            nulls[i] = nulls[i] == null ? new boolean[newCapacity] : Arrays.copyOf(nulls[i], newCapacity);
+        }
+        capacity = newCapacity;
+    }
+
+    private void readValue(SQLancerResultSet rs, int column) throws SQLException {
+        int index = column + 1;
+        switch (kinds[column]) {
+        case LONG:
+            longs[column][nrRows] = rs.getLong(index);
+            break;
+        case DOUBLE:
+            doubles[column][nrRows] = rs.getDouble(index);
+            break;
+        case BYTES:
+            bytes[column][nrRows] = rs.getBytes(index);
+            break;
+        case STRING:
+            strings[column][nrRows] = rs.getString(index);
+            break;
+        default:
+            throw new AssertionError(kinds[column]);
+        }
+        nulls[column][nrRows] = rs.wasNull();
+    }
+
+    public int getRowCount() {
+        return nrRows;
+    }
+
+    public int getColumnCount() {
+        return kinds == null ? 0 : kinds.length;
+    }
+
+    public ColumnKind getColumnKind(int column) {
+        return kinds[column];
+    }
+
+    public boolean isNull(int row, int column) {
+        checkRow(row);
+        return nulls[column][row];
+    }
+
+    public long getLong(int row, int column) {
+        checkKind(row, column, ColumnKind.LONG);
+        return longs[column][row];
+    }
+
+    public double getDouble(int row, int column) {
+        checkKind(row, column, ColumnKind.DOUBLE);
+        return doubles[column][row];
+    }
+
+    public byte[] getBytes(int row, int column) {
+        checkKind(row, column, ColumnKind.BYTES);
+        return bytes[column][row];
+    }
+
+    public String getString(int row, int column) {
+        checkKind(row, column, ColumnKind.STRING);
+        return strings[column][row];
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= nrRows) {
+            throw new IndexOutOfBoundsException("row " + row);
+        }
+    }
+
+    private void checkKind(int row, int column, ColumnKind kind) {
+        checkRow(row);
+        if (kinds[column] != kind) {
+            throw new IllegalArgumentException(String.format("column %d is of kind %s", column, kinds[column]));
+        }
+    }
+
+    /**
+     * Computes a hash of each row, which depends on all of the row's canonicalized values and their order.
+     *
+     * @param canonicalizer
+     *            the canonicalization applied to the values before hashing them
+     *
+     * @return the hash values, in the order of the rows
+     */
+    public long[] getRowHashes(ValueCanonicalizer canonicalizer) {
+        long[] hashes = new long[nrRows];
+        for (int row = 0; row < nrRows; row++) {
+            long hash = 0;
+            for (int column = 0; column < kinds.length; column++) {
+                hash = ResultSetFingerprint.mix(hash + getValueHash(row, column, canonicalizer));
+            }
+            hashes[row] = hash;
+        }
+        return hashes;
+    }
+
+    private long getValueHash(int row, int column, ValueCanonicalizer canonicalizer) {
+        if (nulls[column][row]) {
+            return ResultSetFingerprint.NULL_HASH;
+        }
+        switch (kinds[column]) {
+        case LONG:
+            return ResultSetFingerprint.mix(canonicalizer.canonicalize(longs[column][row]));
+        case DOUBLE:
+            return ResultSetFingerprint
+                    .mix(Double.doubleToLongBits(canonicalizer.canonicalize(doubles[column][row])) + 1);
+        case BYTES:
+            return ResultSetFingerprint
+                    .mix(ResultSetFingerprint.hash(canonicalizer.canonicalize(bytes[column][row])) + 2);
+        case STRING:
+            return ResultSetFingerprint.hash(canonicalizer.canonicalize(strings[column][row]));
+        default:
+            throw new AssertionError(kinds[column]);
+        }
+    }
+
+    /**
+     * Computes an order-independent fingerprint of the multiset of rows.
+     *
+     * @param canonicalizer
+     *            the canonicalization applied to the values before hashing them
+     *
+     * @return the fingerprint of all rows
+     */
+    public ResultSetFingerprint getFingerprint(ValueCanonicalizer canonicalizer) {
+        ResultSetFingerprint fingerprint = new ResultSetFingerprint();
+        for (long hash : getRowHashes(canonicalizer)) {
+            fingerprint.addHash(hash);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Renders each row as a string, for example, to report the rows by which two result sets differ.
+     *
+     * @param canonicalizer
+     *            the canonicalization applied to the values before rendering them
+     *
+     * @return the string representation of each row
+     */
+    public List<String> getRowsAsStrings(ValueCanonicalizer canonicalizer) {
+        List<String> rows = new ArrayList<>(nrRows);
+        StringBuilder sb = new StringBuilder();
+        for (int row = 0; row < nrRows; row++) {
+            sb.setLength(0);
+            sb.append('(');
+            for (int column = 0; column < kinds.length; column++) {
+                if (column != 0) {
+                    sb.append(", ");
+                }
+                appendValue(sb, row, column, canonicalizer);
+            }
+            sb.append(')');
+            rows.add(sb.toString());
+        }
+        return rows;
+    }
+
+    private void appendValue(StringBuilder sb, int row, int column, ValueCanonicalizer canonicalizer) {
+        if (nulls[column][row]) {
+            sb.append("NULL");
+            return;
+        }
+        switch (kinds[column]) {
+        case LONG:
+            sb.append(canonicalizer.canonicalize(longs[column][row]));
+            break;
+        case DOUBLE:
+            sb.append(canonicalizer.canonicalize(doubles[column][row]));
+            break;
+        case BYTES:
+            for (byte b : canonicalizer.canonicalize(bytes[column][row])) {
+                sb.append(String.format("%02X", b));
+            }
+            break;
+        case STRING:
+            sb.append(canonicalizer.canonicalize(strings[column][row]));
+            break;
+        default:
+            throw new AssertionError(kinds[column]);
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package sqlancer.common.query;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Digests of the documents returned by document stores, which allow comparing result sets without decoding every
+ * document into a map of Java objects. The digest of a document is computed from the serialized bytes of its fields and
+ * combines the field digests using additions, so that, like the equality of decoded documents, it does not depend on
+ * the order of the fields. Nested documents, including those in arrays, are hashed field by field as well, while the
+ * elements of an array are combined in order. Only the documents that cause a mismatch need to be decoded to report
+ * them.
+ */
+public final class DocumentDigests {
+
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    /**
+     * The digest of an empty array, which is extended by {@link #hashArrayElement(long, int, long)}.
+     */
+    public static final long EMPTY_ARRAY_HASH = FNV_OFFSET_BASIS;
+
+    private DocumentDigests() {
+    }
+
+    public static long hashValue(byte[] bytes, int offset, int length) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = offset; i < offset + length; i++) {
+            hash ^= bytes[i] & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return ResultSetFingerprint.mix(hash);
+    }
+
+    /**
+     * Hashes an integer by its value, for serialization formats that encode the same integer in different ways.
+     *
+     * @param value
+     *            the integer
+     *
+     * @return the hash of the value
+     */
+    public static long hashInteger(long value) {
+        return ResultSetFingerprint.mix(value ^ FNV_OFFSET_BASIS);
+    }
+
+    /**
+     * Appends an element to the digest of an array. In contrast to the fields of a document, the order of the elements
+     * matters.
+     *
+     * @param arrayHash
+     *            the digest of the preceding elements, initially {@link #EMPTY_ARRAY_HASH}
+     * @param type
+     *            the type of the element in the serialization format
+     * @param valueHash
+     *            the hash of the serialized element, or the digest of a nested document or array
+     *
+     * @return the digest of the array including the element
+     */
+    public static long hashArrayElement(long arrayHash, int type, long valueHash) {
+        return ResultSetFingerprint.mix(ResultSetFingerprint.mix(arrayHash * FNV_PRIME + type) ^ valueHash);
+    }
+
+    /**
+     * Computes the digest of a field, which are summed up to compute the digest of a document (see
+     * {@link #hashDocument(long, int)}).
+     *
+     * @param name
+     *            the name of the field
+     * @param type
+     *            the type of the value in the serialization format, since values of different types might be serialized
+     *            to the same bytes
+     * @param valueHash
+     *            the hash of the serialized value, or the digest of a nested document
+     *
+     * @return the digest of the field
+     */
+    public static long hashField(String name, int type, long valueHash) {
+        return ResultSetFingerprint.mix(ResultSetFingerprint.mix(ResultSetFingerprint.hash(name) + type) ^ valueHash);
+    }
+
+    public static long hashDocument(long fieldDigestSum, int nrFields) {
+        return ResultSetFingerprint.mix(fieldDigestSum + nrFields * ResultSetFingerprint.NULL_HASH);
+    }
+
+    /**
+     * Checks whether two result sets contain the same documents, ignoring their order and number of occurrences (the
+     * callers check the sizes of the result sets separately).
+     *
+     * @param digests
+     *            the digests of the first result set
+     * @param otherDigests
+     *            the digests of the second result set
+     *
+     * @return whether each digest of one result set is contained in the other one
+     */
+    public static boolean haveSameDigests(long[] digests, long[] otherDigests) {
+        return Arrays.equals(getDistinctSorted(digests), getDistinctSorted(otherDigests));
+    }
+
+    /**
+     * Returns the positions of the documents whose digests are not contained in the other result set.
+     *
+     * @param digests
+     *            the digests of the result set whose documents are checked
+     * @param otherDigests
+     *            the digests of the other result set
+     *
+     * @return the positions in ascending order
+     */
+    public static int[] getMissingPositions(long[] digests, long[] otherDigests) {
+        long[] sortedOtherDigests = getDistinctSorted(otherDigests);
+        return IntStream.range(0, digests.length).filter(i -> Arrays.binarySearch(sortedOtherDigests, digests[i]) < 0)
+                .toArray();
+    }
+
+    private static long[] getDistinctSorted(long[] digests) {
+        long[] sorted = digests.clone();
+        Arrays.sort(sorted);
+        int nrDistinct = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                sorted[nrDistinct++] = sorted[i];
+            }
+        }
+        return Arrays.copyOf(sorted, nrDistinct);
+    }
+
+}
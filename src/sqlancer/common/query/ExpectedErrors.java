@@ -1,6 +1,7 @@
 package sqlancer.common.query;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -14,14 +15,40 @@ import java.util.regex.Pattern;
  */
 public class ExpectedErrors {
 
+    private static final int CACHE_SIZE = 16;
+    // Pattern.COMMENTS is not embedded, since a comment would extend beyond the group that encloses the regex
+    private static final int[] EMBEDDABLE_FLAGS = { Pattern.CASE_INSENSITIVE, Pattern.MULTILINE, Pattern.DOTALL,
+            Pattern.UNICODE_CASE, Pattern.UNIX_LINES, Pattern.UNICODE_CHARACTER_CLASS };
+    private static final String EMBEDDED_FLAG_CHARACTERS = "imsudU";
+    private static final Pattern BACK_REFERENCE = Pattern.compile("\\\\([1-9]|k<)");
+
     private final Set<String> errors = new HashSet<>();
     private final List<Pattern> regexes = new ArrayList<>();
+    // derived from the errors and regexes when an error is first checked, and reset when they are modified
+    private volatile SubstringMatcher substringMatcher;
+    private volatile List<Pattern> combinedRegexes;
+    // a direct-mapped cache of recently checked error messages; its entries are immutable, so it can be read and
+    // written without synchronization
+    private final CachedResult[] cache = new CachedResult[CACHE_SIZE];
+
+    private static final class CachedResult {
+
+        private final String error;
+        private final boolean expected;
+
+        CachedResult(String error, boolean expected) {
+            this.error = error;
+            this.expected = expected;
+        }
+
+    }
 
     public ExpectedErrors add(String error) {
         if (error == null) {
             throw new IllegalArgumentException();
         }
         errors.add(error);
+        invalidate();
         return this;
     }
 
@@ -30,11 +57,13 @@ public class ExpectedErrors {
             throw new IllegalArgumentException();
         }
         regexes.add(errorPattern);
+        invalidate();
         return this;
     }
 
     public ExpectedErrors addAll(Collection<String> list) {
         errors.addAll(list);
+        invalidate();
         return this;
     }
 
@@ -43,6 +72,7 @@ public class ExpectedErrors {
             throw new IllegalArgumentException();
         }
         regexes.addAll(list);
+        invalidate();
         return this;
     }
 
@@ -67,17 +97,91 @@ public class ExpectedErrors {
         if (error == null) {
             throw new IllegalArgumentException();
         }
-        for (String s : this.errors) {
-            if (error.contains(s)) {
-                return true;
+        int cacheIndex = error.hashCode() & CACHE_SIZE - 1;
+        CachedResult cachedResult = cache[cacheIndex];
+        if (cachedResult != null && cachedResult.error.equals(error)) {
+            return cachedResult.expected;
+        }
+        boolean expected = getSubstringMatcher().containsAny(error);
+        if (!expected) {
+            for (Pattern p : getCombinedRegexes()) {
+                if (p.matcher(error).find()) {
+                    expected = true;
+                    break;
+                }
             }
         }
-        for (Pattern p : this.regexes) {
-            if (p.matcher(error).find()) {
-                return true;
+        cache[cacheIndex] = new CachedResult(error, expected);
+        return expected;
+    }
+
+    private void invalidate() {
+        substringMatcher = null;
+        combinedRegexes = null;
+        Arrays.fill(cache, null);
+    }
+
+    private SubstringMatcher getSubstringMatcher() {
+        SubstringMatcher matcher = substringMatcher;
+        if (matcher == null) {
+            matcher = SubstringMatcher.getMatcher(errors);
+            substringMatcher = matcher;
+        }
+        return matcher;
+    }
+
+    private List<Pattern> getCombinedRegexes() {
+        List<Pattern> combined = combinedRegexes;
+        if (combined == null) {
+            combined = combineRegexes(regexes);
+            combinedRegexes = combined;
+        }
+        return combined;
+    }
+
+    /**
+     * Combines the regexes into a single alternation, so that an error message is scanned only once. Regexes whose
+     * flags cannot be embedded or that refer to groups (whose numbers would change) are kept separately.
+     *
+     * @param regexes
+     *            the regexes to be combined
+     *
+     * @return the regexes to be matched instead
+     */
+    private static List<Pattern> combineRegexes(List<Pattern> regexes) {
+        if (regexes.size() <= 1) {
+            return List.copyOf(regexes);
+        }
+        List<Pattern> result = new ArrayList<>();
+        StringBuilder alternation = new StringBuilder();
+        for (Pattern regex : regexes) {
+            String flags = getEmbeddedFlags(regex.flags());
+            if (flags == null || BACK_REFERENCE.matcher(regex.pattern()).find()) {
+                result.add(regex);
+                continue;
+            }
+            if (alternation.length() != 0) {
+                alternation.append('|');
+            }
+            alternation.append("(?").append(flags).append(":").append(regex.pattern()).append(')');
+        }
+        if (alternation.length() != 0) {
+            result.add(0, Pattern.compile(alternation.toString()));
+        }
+        return result;
+    }
+
+    private static String getEmbeddedFlags(int flags) {
+        int remainingFlags = flags;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < EMBEDDABLE_FLAGS.length; i++) {
+            if ((remainingFlags & EMBEDDABLE_FLAGS[i]) != 0) {
+                sb.append(EMBEDDED_FLAG_CHARACTERS.charAt(i));
+                remainingFlags &= ~EMBEDDABLE_FLAGS[i];
             }
         }
-        return false;
+        // e.g., Pattern.LITERAL or Pattern.COMMENTS
+        return remainingFlags == 0 ? sb.toString() : null;
     }
 
 }
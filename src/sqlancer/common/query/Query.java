@@ -31,6 +31,15 @@ public abstract class Query<C extends SQLancerDBConnection> implements Loggable
 
     public abstract ExpectedErrors getExpectedErrors();
 
+    /**
+     * Gets the number of rows that were inserted, updated, or deleted by the last execution of the query.
+     *
+     * @return the update count, or -1 if it is not available
+     */
+    public long getUpdateCount() {
+        return -1;
+    }
+
     @Override
     public String toString() {
         return getQueryString();
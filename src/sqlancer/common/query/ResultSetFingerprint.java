@@ -0,0 +1,90 @@
+package sqlancer.common.query;
+
+/**
+ * An order-independent fingerprint of a multiset of result values. Values are hashed one at a time and combined using
+ * commutative additions, so that two result sets can be compared without materializing them. Two fingerprints that are
+ * equal denote (with overwhelming probability) the same multiset of values; fingerprints that differ require the result
+ * sets to be materialized to determine the difference.
+ */
+public final class ResultSetFingerprint {
+
+    static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+    private static final long FNV_OFFSET_BASIS = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+
+    private long count;
+    private long sum;
+    private long mixedSum;
+
+    public void add(String value) {
+        addHash(hash(value));
+    }
+
+    void addHash(long hash) {
+        count++;
+        sum += hash;
+        mixedSum += mix(hash ^ NULL_HASH);
+    }
+
+    public void addAll(ResultSetFingerprint other) {
+        count += other.count;
+        sum += other.sum;
+        mixedSum += other.mixedSum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    static long hash(String value) {
+        if (value == null) {
+            return NULL_HASH;
+        }
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    static long hash(byte[] value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : value) {
+            hash ^= b & 0xFF;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    // the finalizer of SplitMix64, which distributes small input differences over all bits
+    static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ResultSetFingerprint)) {
+            return false;
+        }
+        ResultSetFingerprint other = (ResultSetFingerprint) obj;
+        return count == other.count && sum == other.sum && mixedSum == other.mixedSum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(sum ^ mixedSum ^ count);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d rows (%016x%016x)", count, sum, mixedSum);
+    }
+
+}
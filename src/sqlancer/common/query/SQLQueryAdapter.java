@@ -8,12 +8,17 @@ import java.sql.Statement;
 import sqlancer.GlobalState;
 import sqlancer.Main;
 import sqlancer.SQLConnection;
+import sqlancer.common.metrics.LatencyHistogram;
+import sqlancer.common.metrics.Metrics;
 
 public class SQLQueryAdapter extends Query<SQLConnection> {
 
+    private static final LatencyHistogram EXECUTION_TIME = Metrics.getPhaseHistogram("statement_execution");
+
     private final String query;
     private final ExpectedErrors expectedErrors;
     private final boolean couldAffectSchema;
+    private long updateCount = -1;
 
     public SQLQueryAdapter(String query) {
         this(query, new ExpectedErrors());
@@ -80,21 +85,32 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
         } else {
             s = globalState.getConnection().createStatement();
         }
+        updateCount = -1;
+        long startTime = System.nanoTime();
         try {
             if (fills.length > 0) {
                 ((PreparedStatement) s).execute();
             } else {
                 s.execute(query);
             }
-            Main.nrSuccessfulActions.addAndGet(1);
+            recordLatency(globalState, System.nanoTime() - startTime);
+            updateCount = s.getUpdateCount();
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             return true;
         } catch (Exception e) {
-            Main.nrUnsuccessfulActions.addAndGet(1);
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             checkException(e);
             return false;
         }
     }
 
+    private void recordLatency(GlobalState<?, ?, ?> globalState, long nanos) {
+        EXECUTION_TIME.record(nanos);
+        if (!globalState.isTimingStatement()) { // for example, a query executed directly by a test oracle
+            globalState.recordStatementLatency(this, nanos);
+        }
+    }
+
     public void checkException(Exception e) throws AssertionError {
         Throwable ex = e;
 
@@ -122,20 +138,22 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
             s = globalState.getConnection().createStatement();
         }
         ResultSet result;
+        long startTime = System.nanoTime();
         try {
             if (fills.length > 0) {
                 result = ((PreparedStatement) s).executeQuery();
             } else {
                 result = s.executeQuery(query);
             }
-            Main.nrSuccessfulActions.addAndGet(1);
+            recordLatency(globalState, System.nanoTime() - startTime);
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
             if (result == null) {
                 return null;
             }
             return new SQLancerResultSet(result);
         } catch (Exception e) {
             s.close();
-            Main.nrUnsuccessfulActions.addAndGet(1);
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             checkException(e);
         }
         return null;
@@ -146,6 +164,11 @@ public class SQLQueryAdapter extends Query<SQLConnection> {
         return couldAffectSchema;
     }
 
+    @Override
+    public long getUpdateCount() {
+        return updateCount;
+    }
+
     @Override
     public ExpectedErrors getExpectedErrors() {
         return expectedErrors;
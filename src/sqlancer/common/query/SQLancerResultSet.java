@@ -46,6 +46,40 @@ public class SQLancerResultSet implements Closeable {
         return rs.getLong(i);
     }
 
+    public double getDouble(int i) throws SQLException {
+        return rs.getDouble(i);
+    }
+
+    public byte[] getBytes(int i) throws SQLException {
+        return rs.getBytes(i);
+    }
+
+    public boolean wasNull() throws SQLException {
+        return rs.wasNull();
+    }
+
+    public int getColumnCount() throws SQLException {
+        return rs.getMetaData().getColumnCount();
+    }
+
+    public int getColumnType(int i) throws SQLException {
+        return rs.getMetaData().getColumnType(i);
+    }
+
+    /**
+     * Reads all remaining rows and all columns into a {@link ColumnarResultSet}.
+     *
+     * @return the captured rows
+     *
+     * @throws SQLException
+     *             if the result set cannot be read
+     */
+    public ColumnarResultSet captureRows() throws SQLException {
+        ColumnarResultSet rows = new ColumnarResultSet();
+        rows.appendRows(this);
+        return rows;
+    }
+
     public void registerEpilogue(Runnable runnableEpilogue) {
         this.runnableEpilogue = runnableEpilogue;
     }
@@ -0,0 +1,145 @@
+package sqlancer.common.query;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An Aho-Corasick automaton that determines whether a string contains any of a set of substrings in time linear in the
+ * string's length, independently of the number of substrings. The automaton is immutable, so the same instance is
+ * shared by all {@link ExpectedErrors} with the same substrings.
+ */
+final class SubstringMatcher {
+
+    private static final int MAX_CACHED_MATCHERS = 1024;
+    private static final Map<Set<String>, SubstringMatcher> MATCHERS = new ConcurrentHashMap<>();
+
+    private final boolean matchesEverything;
+    // for each state, the characters of its transitions in ascending order, and the corresponding target states
+    private final char[][] transitionChars;
+    private final int[][] transitionTargets;
+    private final int[] failureLinks;
+    // whether a substring ends in the state or in a state reachable through its failure links
+    private final boolean[] accepting;
+
+    private SubstringMatcher(Collection<String> substrings) {
+        List<TreeMap<Character, Integer>> trie = new ArrayList<>();
+        List<Boolean> acceptingStates = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        acceptingStates.add(false);
+        boolean containsEmptyString = false;
+        for (String substring : substrings) {
+            if (substring.isEmpty()) {
+                containsEmptyString = true;
+            }
+            int state = 0;
+            for (int i = 0; i < substring.length(); i++) {
+                Integer next = trie.get(state).get(substring.charAt(i));
+                if (next == null) {
+                    next = trie.size();
+                    trie.get(state).put(substring.charAt(i), next);
+                    trie.add(new TreeMap<>());
+                    acceptingStates.add(false);
+                }
+                state = next;
+            }
+            acceptingStates.set(state, true);
+        }
+        matchesEverything = containsEmptyString;
+        int nrStates = trie.size();
+        transitionChars = new char[nrStates][];
+        transitionTargets = new int[nrStates][];
+        accepting = new boolean[nrStates];
+        for (int state = 0; state < nrStates; state++) {
+            TreeMap<Character, Integer> transitions = trie.get(state);
+            transitionChars[state] = new char[transitions.size()];
+            transitionTargets[state] = new int[transitions.size()];
+            int i = 0;
+            for (Map.Entry<Character, Integer> transition : transitions.entrySet()) {
+                transitionChars[state][i] = transition.getKey();
+                transitionTargets[state][i] = transition.getValue();
+                i++;
+            }
+            accepting[state] = acceptingStates.get(state);
+        }
+        failureLinks = new int[nrStates];
+        // compute the failure links in breadth-first order, so that the links of shorter prefixes are known
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int child : transitionTargets[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.remove();
+            for (int i = 0; i < transitionChars[state].length; i++) {
+                int child = transitionTargets[state][i];
+                failureLinks[child] = next(failureLinks[state], transitionChars[state][i]);
+                accepting[child] |= accepting[failureLinks[child]];
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * Gets the matcher for the given substrings, which is created only if no matcher for the same substrings exists.
+     *
+     * @param substrings
+     *            the substrings to be matched
+     *
+     * @return the matcher
+     */
+    static SubstringMatcher getMatcher(Set<String> substrings) {
+        SubstringMatcher matcher = MATCHERS.get(substrings);
+        if (matcher == null) {
+            if (MATCHERS.size() >= MAX_CACHED_MATCHERS) {
+                MATCHERS.clear();
+            }
+            Set<String> key = Set.copyOf(substrings);
+            matcher = MATCHERS.computeIfAbsent(key, SubstringMatcher::new);
+        }
+        return matcher;
+    }
+
+    private int next(int state, char c) {
+        int current = state;
+        while (true) {
+            int i = Arrays.binarySearch(transitionChars[current], c);
+            if (i >= 0) {
+                return transitionTargets[current][i];
+            }
+            if (current == 0) {
+                return 0;
+            }
+            current = failureLinks[current];
+        }
+    }
+
+    /**
+     * Checks whether the string contains any of the substrings.
+     *
+     * @param s
+     *            the string to be searched
+     *
+     * @return true if any substring is contained
+     */
+    boolean containsAny(String s) {
+        if (matchesEverything) {
+            return true;
+        }
+        int state = 0;
+        for (int i = 0; i < s.length(); i++) {
+            state = next(state, s.charAt(i));
+            if (accepting[state]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
@@ -1,10 +1,11 @@
 package sqlancer.common.schema;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 import sqlancer.GlobalState;
 import sqlancer.IgnoreMeException;
@@ -13,6 +14,9 @@ import sqlancer.Randomly;
 public class AbstractSchema<G extends GlobalState<?, ?, ?>, A extends AbstractTable<?, ?, G>> {
 
     private final List<A> databaseTables;
+    // computed at most once, since a new schema is created when a statement changes the schema
+    private volatile List<A> databaseTablesWithoutViews;
+    private volatile List<A> views;
 
     public AbstractSchema(List<A> databaseTables) {
         this.databaseTables = Collections.unmodifiableList(databaseTables);
@@ -41,11 +45,11 @@ public class AbstractSchema<G extends GlobalState<?, ?, ?>, A extends AbstractTa
     }
 
     public A getRandomTable(Predicate<A> predicate) {
-        return Randomly.fromList(getDatabaseTables().stream().filter(predicate).collect(Collectors.toList()));
+        return Randomly.fromList(getTables(predicate));
     }
 
     public A getRandomTableOrBailout(Function<A, Boolean> f) {
-        List<A> relevantTables = databaseTables.stream().filter(t -> f.apply(t)).collect(Collectors.toList());
+        List<A> relevantTables = getTables(f::apply);
         if (relevantTables.isEmpty()) {
             throw new IgnoreMeException();
         }
@@ -56,8 +60,28 @@ public class AbstractSchema<G extends GlobalState<?, ?, ?>, A extends AbstractTa
         return databaseTables;
     }
 
+    /**
+     * Returns the tables that satisfy the given predicate, which is evaluated on every call. Use
+     * {@link #getDatabaseTablesWithoutViews()} and {@link #getViews()} for the lists that are computed only once per
+     * schema.
+     *
+     * @param predicate
+     *            the predicate
+     *
+     * @return an unmodifiable list of the tables, in the order in which they appear in the schema
+     */
     public List<A> getTables(Predicate<A> predicate) {
-        return databaseTables.stream().filter(predicate).collect(Collectors.toList());
+        return filterTables(predicate);
+    }
+
+    private List<A> filterTables(Predicate<A> predicate) {
+        List<A> tables = new ArrayList<>(databaseTables.size());
+        for (A table : databaseTables) {
+            if (predicate.test(table)) {
+                tables.add(table);
+            }
+        }
+        return Collections.unmodifiableList(tables);
     }
 
     public List<A> getDatabaseTablesRandomSubsetNotEmpty() {
@@ -69,18 +93,33 @@ public class AbstractSchema<G extends GlobalState<?, ?, ?>, A extends AbstractTa
     }
 
     public List<A> getViews() {
-        return databaseTables.stream().filter(t -> t.isView()).collect(Collectors.toList());
+        if (views == null) {
+            views = filterTables(t -> t.isView());
+        }
+        return views;
     }
 
     public List<A> getDatabaseTablesWithoutViews() {
-        return databaseTables.stream().filter(t -> !t.isView()).collect(Collectors.toList());
+        if (databaseTablesWithoutViews == null) {
+            databaseTablesWithoutViews = filterTables(t -> !t.isView());
+        }
+        return databaseTablesWithoutViews;
+    }
+
+    public A getRandomView() {
+        return Randomly.fromList(getViews());
+    }
+
+    public A getRandomTableNoView() {
+        return Randomly.fromList(getDatabaseTablesWithoutViews());
     }
 
     public A getRandomViewOrBailout() {
-        if (getViews().isEmpty()) {
+        List<A> databaseViews = getViews();
+        if (databaseViews.isEmpty()) {
             throw new IgnoreMeException();
         } else {
-            return Randomly.fromList(getViews());
+            return Randomly.fromList(databaseViews);
         }
     }
 
@@ -139,6 +178,23 @@ public class AbstractSchema<G extends GlobalState<?, ?, ?>, A extends AbstractTa
         } while (true);
     }
 
+    /**
+     * Describes the tables, views, their columns, and their indexes independently of the order in which they were read,
+     * for example, to compare two schemas.
+     *
+     * @return the description
+     */
+    public String getCanonicalDescription() {
+        StringBuilder sb = new StringBuilder();
+        databaseTables.stream().sorted(Comparator.comparing(AbstractTable::getName)).forEach(t -> {
+            sb.append(t.isView() ? "view " : "table ");
+            sb.append(t);
+            t.getIndexes().stream().map(TableIndex::getIndexName).sorted()
+                    .forEach(i -> sb.append("\tindex ").append(i).append('\n'));
+        });
+        return sb.toString();
+    }
+
     public boolean containsTableWithZeroRows(G globalState) {
         return databaseTables.stream().anyMatch(t -> t.getNrRows(globalState) == 0);
     }
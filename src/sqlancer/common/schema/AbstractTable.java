@@ -16,6 +16,7 @@ public abstract class AbstractTable<C extends AbstractTableColumn<?, ?>, I exten
     private final List<I> indexes;
     private final boolean isView;
     protected long rowCount = NO_ROW_COUNT_AVAILABLE;
+    private int rowsVersion;
 
     public AbstractTable(String name, List<C> columns, List<I> indexes, boolean isView) {
         this.name = name;
@@ -98,5 +99,34 @@ public abstract class AbstractTable<C extends AbstractTableColumn<?, ?>, I exten
         rowCount = NO_ROW_COUNT_AVAILABLE;
     }
 
+    /**
+     * Adjusts the cached row count, if any, by the number of inserted (positive) or deleted (negative) rows.
+     *
+     * @param nrRows
+     *            the difference in the number of rows
+     */
+    public void adjustRowCount(long nrRows) {
+        if (rowCount != NO_ROW_COUNT_AVAILABLE) {
+            rowCount += nrRows;
+        }
+    }
+
+    /**
+     * Records that the rows of the table might have changed, which invalidates information derived from them, such as
+     * rows sampled as pivot rows.
+     */
+    public void invalidateRows() {
+        rowsVersion++;
+    }
+
+    /**
+     * Gets a number that changes whenever the rows of the table might have changed (see {@link #invalidateRows()}).
+     *
+     * @return the version of the rows
+     */
+    public int getRowsVersion() {
+        return rowsVersion;
+    }
+
     public abstract long getNrRows(G globalState);
 }
@@ -0,0 +1,118 @@
+package sqlancer.common.schema;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The effect of a statement on the number of rows of the tables, as far as it can be determined from the statement's
+ * string. Together with the statement's update count, this allows maintaining the cached row counts of the tables
+ * rather than invalidating all of them after each statement.
+ */
+public final class RowCountChange {
+
+    public enum Kind {
+        /**
+         * The statement does not insert or delete rows (e.g., a SELECT).
+         */
+        NONE,
+        /**
+         * The statement inserts rows into the given table.
+         */
+        INSERT,
+        /**
+         * The statement deletes rows from the given table.
+         */
+        DELETE,
+        /**
+         * The statement updates rows of the given table.
+         */
+        UPDATE,
+        /**
+         * The statement might insert or delete rows of any table.
+         */
+        UNKNOWN
+    }
+
+    private static final String NAME = "(\"[^\"]+\"|[\\w.]+)";
+    private static final Pattern NO_ROW_CHANGE = Pattern.compile(
+            "^\\s*(SELECT|EXPLAIN|SHOW|DESCRIBE|PRAGMA|SET|ANALYZE|VACUUM|REINDEX|BEGIN|COMMIT|END|SAVEPOINT|RELEASE|CREATE\\s+(UNIQUE\\s+)?INDEX)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern INSERT = Pattern.compile(
+            "^\\s*(?:INSERT(\\s+OR\\s+\\w+|\\s+IGNORE)?\\s+INTO|REPLACE\\s+INTO)\\s+" + NAME, Pattern.CASE_INSENSITIVE);
+    private static final Pattern DELETE = Pattern.compile("^\\s*DELETE\\s+FROM\\s+" + NAME, Pattern.CASE_INSENSITIVE);
+    private static final Pattern UPDATE = Pattern.compile("^\\s*UPDATE(\\s+OR\\s+\\w+)?\\s+" + NAME,
+            Pattern.CASE_INSENSITIVE);
+    // rows that conflict with a constraint are updated or replaced, which the update count does not reflect
+    private static final Pattern CONFLICT_RESOLUTION = Pattern.compile(
+            "^\\s*REPLACE\\b|\\bOR\\s+REPLACE\\b|\\bON\\s+CONFLICT\\b|\\bON\\s+DUPLICATE\\s+KEY\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final RowCountChange NO_CHANGE = new RowCountChange(Kind.NONE, null, true);
+    private static final RowCountChange UNKNOWN_CHANGE = new RowCountChange(Kind.UNKNOWN, null, false);
+
+    private final Kind kind;
+    private final String tableName;
+    private final boolean exact;
+
+    private RowCountChange(Kind kind, String tableName, boolean exact) {
+        this.kind = kind;
+        this.tableName = tableName;
+        this.exact = exact;
+    }
+
+    public static RowCountChange fromQueryString(String query) {
+        if (NO_ROW_CHANGE.matcher(query).find()) {
+            return NO_CHANGE;
+        }
+        RowCountChange change = match(query, INSERT, Kind.INSERT);
+        if (change == null) {
+            change = match(query, DELETE, Kind.DELETE);
+        }
+        if (change == null) {
+            change = match(query, UPDATE, Kind.UPDATE);
+        }
+        return change == null ? UNKNOWN_CHANGE : change;
+    }
+
+    private static RowCountChange match(String query, Pattern pattern, Kind kind) {
+        Matcher matcher = pattern.matcher(query);
+        if (!matcher.find()) {
+            return null;
+        }
+        String name = matcher.group(matcher.groupCount());
+        if (name.startsWith("\"")) {
+            name = name.substring(1, name.length() - 1);
+        } else if (name.contains(".")) {
+            return UNKNOWN_CHANGE;
+        }
+        return new RowCountChange(kind, name, !CONFLICT_RESOLUTION.matcher(query).find());
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the name of the table into which rows are inserted, or whose rows are deleted or updated.
+     *
+     * @return the name, or null if the kind is {@link Kind#NONE} or {@link Kind#UNKNOWN}
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Whether the update count of a successful statement is the number of inserted or deleted rows, or, for an UPDATE,
+     * whether the number of rows stays the same. This does not hold if conflicting rows are replaced, for example.
+     *
+     * @return true if the update count can be used to maintain the table's row count
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    @Override
+    public String toString() {
+        return tableName == null ? kind.toString() : kind + " " + tableName;
+    }
+
+}
@@ -0,0 +1,124 @@
+package sqlancer.common.schema;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The effect of a statement on the schema, as far as it can be determined from the statement's string. This allows a
+ * {@link sqlancer.GlobalState} to apply the effect to its schema rather than reading the whole schema from the catalog.
+ */
+public final class SchemaChange {
+
+    public enum Kind {
+        /**
+         * The statement does not change the tables, views, columns, or indexes (e.g., an INSERT).
+         */
+        NONE,
+        /**
+         * The statement creates the table or view (possibly a virtual table) with the given name.
+         */
+        CREATE_TABLE,
+        /**
+         * The statement changes the columns of the table with the given name, but does not rename the table.
+         */
+        ALTER_TABLE,
+        /**
+         * The statement drops the table or view with the given name.
+         */
+        DROP_TABLE,
+        /**
+         * The statement creates the index with the given name.
+         */
+        CREATE_INDEX,
+        /**
+         * The statement drops the index with the given name.
+         */
+        DROP_INDEX,
+        /**
+         * The statement's effect could not be determined, so the schema must be read from the catalog.
+         */
+        UNKNOWN
+    }
+
+    private static final String NAME = "(\"[^\"]+\"|[\\w.]+)";
+    private static final Pattern NO_SCHEMA_CHANGE = Pattern.compile(
+            "^\\s*(INSERT|REPLACE|UPDATE|DELETE|SELECT|VACUUM|ANALYZE|REINDEX|BEGIN|COMMIT|END|SAVEPOINT|RELEASE)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern CREATE_TABLE = Pattern.compile(
+            "^\\s*CREATE\\s+(?:(?:TEMP|TEMPORARY)\\s+)?(?:VIRTUAL\\s+)?(?:TABLE|VIEW)\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?"
+                    + NAME,
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALTER_TABLE = Pattern
+            .compile("^\\s*ALTER\\s+TABLE\\s+" + NAME + "\\s++(?!RENAME\\s+TO\\b)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DROP_TABLE = Pattern
+            .compile("^\\s*DROP\\s+(?:TABLE|VIEW)\\s+(?:IF\\s+EXISTS\\s+)?" + NAME, Pattern.CASE_INSENSITIVE);
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "^\\s*CREATE\\s+(?:UNIQUE\\s+)?INDEX\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?" + NAME + "\\s+ON\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DROP_INDEX = Pattern.compile("^\\s*DROP\\s+INDEX\\s+(?:IF\\s+EXISTS\\s+)?" + NAME,
+            Pattern.CASE_INSENSITIVE);
+    private static final SchemaChange NO_CHANGE = new SchemaChange(Kind.NONE, null);
+    private static final SchemaChange UNKNOWN_CHANGE = new SchemaChange(Kind.UNKNOWN, null);
+
+    private final Kind kind;
+    private final String objectName;
+
+    private SchemaChange(Kind kind, String objectName) {
+        this.kind = kind;
+        this.objectName = objectName;
+    }
+
+    public static SchemaChange fromQueryString(String query) {
+        if (NO_SCHEMA_CHANGE.matcher(query).find()) {
+            return NO_CHANGE;
+        }
+        SchemaChange change = match(query, CREATE_TABLE, Kind.CREATE_TABLE);
+        if (change == null) {
+            change = match(query, ALTER_TABLE, Kind.ALTER_TABLE);
+        }
+        if (change == null) {
+            change = match(query, DROP_TABLE, Kind.DROP_TABLE);
+        }
+        if (change == null) {
+            change = match(query, CREATE_INDEX, Kind.CREATE_INDEX);
+        }
+        if (change == null) {
+            change = match(query, DROP_INDEX, Kind.DROP_INDEX);
+        }
+        return change == null ? UNKNOWN_CHANGE : change;
+    }
+
+    private static SchemaChange match(String query, Pattern pattern, Kind kind) {
+        Matcher matcher = pattern.matcher(query);
+        if (!matcher.find()) {
+            return null;
+        }
+        String name = matcher.group(1);
+        if (name.startsWith("\"")) {
+            name = name.substring(1, name.length() - 1);
+        } else if (name.contains(".")) {
+            // the object might be in a schema other than the one that is tested
+            return UNKNOWN_CHANGE;
+        }
+        return new SchemaChange(kind, name);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Gets the name of the created, altered, or dropped table, view, or index.
+     *
+     * @return the name, or null if the kind is {@link Kind#NONE} or {@link Kind#UNKNOWN}
+     */
+    public String getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public String toString() {
+        return objectName == null ? kind.toString() : kind + " " + objectName;
+    }
+
+}
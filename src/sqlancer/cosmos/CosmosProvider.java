@@ -1,11 +1,6 @@
 package sqlancer.cosmos;
 
 import com.google.auto.service.AutoService;
-import com.mongodb.ConnectionString;
-import com.mongodb.MongoClientSettings;
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
-import com.mongodb.client.MongoDatabase;
 
 import sqlancer.DatabaseProvider;
 import sqlancer.IgnoreMeException;
@@ -53,12 +48,9 @@ public class CosmosProvider extends
         if (connectionString.equals("")) {
             throw new AssertionError("Please set connection string for cosmos database, located in CosmosProvider");
         }
-        MongoClientSettings settings = MongoClientSettings.builder()
-                .applyConnectionString(new ConnectionString(connectionString)).build();
-        MongoClient mongoClient = MongoClients.create(settings);
-        MongoDatabase database = mongoClient.getDatabase(globalState.getDatabaseName());
-        database.drop();
-        return new MongoDBConnection(mongoClient, database);
+        MongoDBConnection connection = MongoDBConnection.connect(connectionString, globalState.getDatabaseName());
+        connection.getDatabase().drop();
+        return connection;
     }
 
     @Override
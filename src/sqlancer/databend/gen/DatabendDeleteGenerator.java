@@ -17,7 +17,7 @@ public final class DatabendDeleteGenerator {
     public static SQLQueryAdapter generate(DatabendGlobalState globalState) {
         StringBuilder sb = new StringBuilder("DELETE FROM ");
         ExpectedErrors errors = new ExpectedErrors();
-        sb.append(globalState.getSchema().getRandomTable(t -> !t.isView()).getName());
+        sb.append(globalState.getSchema().getRandomTableNoView().getName());
         if (Randomly.getBoolean()) {
             sb.append(" WHERE ");
             sb.append(DatabendToStringVisitor.asString(DatabendExprToNode.cast(
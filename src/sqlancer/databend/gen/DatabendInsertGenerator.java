@@ -29,7 +29,7 @@ public class DatabendInsertGenerator extends AbstractInsertGenerator<DatabendCol
 
     private SQLQueryAdapter generate() {
         sb.append("INSERT INTO ");
-        DatabendTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        DatabendTable table = globalState.getSchema().getRandomTableNoView();
         List<DatabendColumn> columns = table.getRandomNonEmptyColumnSubset();
         sb.append(table.getName());
         sb.append("(");
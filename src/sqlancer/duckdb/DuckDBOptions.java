@@ -11,6 +11,7 @@ import com.beust.jcommander.Parameters;
 import sqlancer.DBMSSpecificOptions;
 import sqlancer.OracleFactory;
 import sqlancer.common.oracle.CompositeTestOracle;
+import sqlancer.common.oracle.NoRECPerformanceOracle;
 import sqlancer.common.oracle.TestOracle;
 import sqlancer.duckdb.DuckDBOptions.DuckDBOracleFactory;
 import sqlancer.duckdb.DuckDBProvider.DuckDBGlobalState;
@@ -101,6 +102,14 @@ public class DuckDBOptions implements DBMSSpecificOptions<DuckDBOracleFactory> {
                 return new DuckDBNoRECOracle(globalState);
             }
 
+        },
+        PERFORMANCE {
+
+            @Override
+            public TestOracle<DuckDBGlobalState> create(DuckDBGlobalState globalState) throws SQLException {
+                return new NoRECPerformanceOracle<>(globalState, new DuckDBNoRECOracle(globalState));
+            }
+
         },
         HAVING {
             @Override
@@ -6,6 +6,8 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 
+import org.duckdb.DuckDBConnection;
+
 import com.google.auto.service.AutoService;
 
 import sqlancer.AbstractAction;
@@ -20,6 +22,7 @@ import sqlancer.StatementExecutor;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
+import sqlancer.common.schema.AbstractTable;
 import sqlancer.duckdb.DuckDBProvider.DuckDBGlobalState;
 import sqlancer.duckdb.gen.DuckDBDeleteGenerator;
 import sqlancer.duckdb.gen.DuckDBIndexGenerator;
@@ -99,6 +102,12 @@ public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDB
             return DuckDBSchema.fromConnection(getConnection(), getDatabaseName());
         }
 
+        @Override
+        protected boolean dmlMayHaveIndirectEffects(AbstractTable<?, ?, ?> table) {
+            // DuckDB supports neither triggers nor foreign key actions
+            return false;
+        }
+
     }
 
     @Override
@@ -156,6 +165,19 @@ public class DuckDBProvider extends SQLProviderAdapter<DuckDBGlobalState, DuckDB
         return new SQLConnection(conn);
     }
 
+    @Override
+    protected SQLConnection createOracleConnection(DuckDBGlobalState globalState) throws SQLException {
+        // the default database is in-memory, so it can only be accessed by a duplicate of the original connection; the
+        // generated statements create neither temporary tables nor session settings, which a duplicate would not share
+        DuckDBConnection connection = (DuckDBConnection) globalState.getConnection().getJdbcConnection();
+        return new SQLConnection(connection.duplicate());
+    }
+
+    @Override
+    public boolean supportsOracleConnections() {
+        return true;
+    }
+
     @Override
     public String getDBMSName() {
         return "duckdb";
@@ -16,7 +16,7 @@ public final class DuckDBDeleteGenerator {
     public static SQLQueryAdapter generate(DuckDBGlobalState globalState) {
         StringBuilder sb = new StringBuilder("DELETE FROM ");
         ExpectedErrors errors = new ExpectedErrors();
-        DuckDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        DuckDBTable table = globalState.getSchema().getRandomTableNoView();
         sb.append(table.getName());
         if (Randomly.getBoolean()) {
             sb.append(" WHERE ");
@@ -28,7 +28,7 @@ public class DuckDBInsertGenerator extends AbstractInsertGenerator<DuckDBColumn>
 
     private SQLQueryAdapter generate() {
         sb.append("INSERT INTO ");
-        DuckDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        DuckDBTable table = globalState.getSchema().getRandomTableNoView();
         List<DuckDBColumn> columns = table.getRandomNonEmptyColumnSubset();
         sb.append(table.getName());
         sb.append("(");
@@ -27,7 +27,7 @@ public final class DuckDBUpdateGenerator extends AbstractUpdateGenerator<DuckDBC
     }
 
     private SQLQueryAdapter generate() {
-        DuckDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        DuckDBTable table = globalState.getSchema().getRandomTableNoView();
         List<DuckDBColumn> columns = table.getRandomNonEmptyColumnSubset();
         gen = new DuckDBExpressionGenerator(globalState).setColumns(table.getColumns());
         sb.append("UPDATE ");
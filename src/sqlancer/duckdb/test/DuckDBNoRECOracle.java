@@ -4,6 +4,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -11,6 +12,7 @@ import sqlancer.IgnoreMeException;
 import sqlancer.Randomly;
 import sqlancer.SQLConnection;
 import sqlancer.common.ast.newast.ColumnReferenceNode;
+import sqlancer.common.ast.newast.NewFunctionNode;
 import sqlancer.common.ast.newast.NewPostfixTextNode;
 import sqlancer.common.ast.newast.Node;
 import sqlancer.common.ast.newast.TableReferenceNode;
@@ -31,6 +33,7 @@ import sqlancer.duckdb.ast.DuckDBExpression;
 import sqlancer.duckdb.ast.DuckDBJoin;
 import sqlancer.duckdb.ast.DuckDBSelect;
 import sqlancer.duckdb.gen.DuckDBExpressionGenerator;
+import sqlancer.duckdb.gen.DuckDBExpressionGenerator.DuckDBAggregateFunction;
 import sqlancer.duckdb.gen.DuckDBExpressionGenerator.DuckDBCastOperation;
 
 public class DuckDBNoRECOracle extends NoRECBase<DuckDBGlobalState> implements TestOracle<DuckDBGlobalState> {
@@ -81,6 +84,7 @@ public class DuckDBNoRECOracle extends NoRECBase<DuckDBGlobalState> implements T
         select.setJoinList(joins);
         int secondCount = 0;
         unoptimizedQueryString = "SELECT SUM(count) FROM (" + DuckDBToStringVisitor.asString(select) + ") as res";
+        unoptimizedCountQueryString = unoptimizedQueryString;
         errors.add("canceling statement due to statement timeout");
         SQLQueryAdapter q = new SQLQueryAdapter(unoptimizedQueryString, errors);
         SQLancerResultSet rs;
@@ -99,6 +103,18 @@ public class DuckDBNoRECOracle extends NoRECBase<DuckDBGlobalState> implements T
         return secondCount;
     }
 
+    private void setOptimizedCountQueryString(DuckDBSelect select) {
+        List<Node<DuckDBExpression>> fetchColumns = select.getFetchColumns();
+        List<Node<DuckDBExpression>> orderBys = select.getOrderByExpressions();
+        select.setFetchColumns(Arrays.asList(new NewFunctionNode<>(
+                Arrays.asList(new ColumnReferenceNode<>(new DuckDBColumn("*", null, false, false))),
+                DuckDBAggregateFunction.COUNT)));
+        select.setOrderByExpressions(Collections.emptyList());
+        optimizedCountQueryString = DuckDBToStringVisitor.asString(select);
+        select.setFetchColumns(fetchColumns);
+        select.setOrderByExpressions(orderBys);
+    }
+
     private int getFirstQueryCount(SQLConnection con, List<Node<DuckDBExpression>> tableList,
             List<DuckDBColumn> columns, Node<DuckDBExpression> randomWhereCondition, List<Node<DuckDBExpression>> joins)
             throws SQLException {
@@ -120,6 +136,7 @@ public class DuckDBNoRECOracle extends NoRECBase<DuckDBGlobalState> implements T
         int firstCount = 0;
         try (Statement stat = con.createStatement()) {
             optimizedQueryString = DuckDBToStringVisitor.asString(select);
+            setOptimizedCountQueryString(select);
             if (options.logEachSelect()) {
                 logger.writeCurrent(optimizedQueryString);
             }
@@ -6,12 +6,23 @@ import java.util.List;
 
 import sqlancer.ComparatorHelper;
 import sqlancer.Randomly;
+import sqlancer.common.query.ColumnarResultSet;
+import sqlancer.common.query.ColumnarResultSet.ValueCanonicalizer;
 import sqlancer.duckdb.DuckDBErrors;
 import sqlancer.duckdb.DuckDBProvider.DuckDBGlobalState;
 import sqlancer.duckdb.DuckDBToStringVisitor;
 
 public class DuckDBQueryPartitioningWhereTester extends DuckDBQueryPartitioningBase {
 
+    private static final ValueCanonicalizer RESULT_VALUE_CANONICALIZER = new ValueCanonicalizer() {
+
+        @Override
+        public String canonicalize(String value) {
+            return canonicalizeResultValue(ComparatorHelper.removeTrailingZeros(value));
+        }
+
+    };
+
     public DuckDBQueryPartitioningWhereTester(DuckDBGlobalState state) {
         super(state);
         DuckDBErrors.addGroupByErrors(errors);
@@ -23,7 +34,7 @@ public class DuckDBQueryPartitioningWhereTester extends DuckDBQueryPartitioningB
         select.setWhereClause(null);
         String originalQueryString = DuckDBToStringVisitor.asString(select);
 
-        List<String> resultSet = ComparatorHelper.getResultSetFirstColumnAsString(originalQueryString, errors, state);
+        ColumnarResultSet resultSet = ComparatorHelper.getResultSetRows(originalQueryString, errors, state);
 
         boolean orderBy = Randomly.getBooleanWithRatherLowProbability();
         if (orderBy) {
@@ -36,10 +47,10 @@ public class DuckDBQueryPartitioningWhereTester extends DuckDBQueryPartitioningB
         select.setWhereClause(isNullPredicate);
         String thirdQueryString = DuckDBToStringVisitor.asString(select);
         List<String> combinedString = new ArrayList<>();
-        List<String> secondResultSet = ComparatorHelper.getCombinedResultSet(firstQueryString, secondQueryString,
-                thirdQueryString, combinedString, !orderBy, state, errors);
+        ColumnarResultSet secondResultSet = ComparatorHelper.getCombinedResultSetRows(firstQueryString,
+                secondQueryString, thirdQueryString, combinedString, !orderBy, state, errors);
         ComparatorHelper.assumeResultSetsAreEqual(resultSet, secondResultSet, originalQueryString, combinedString,
-                state, DuckDBQueryPartitioningBase::canonicalizeResultValue);
+                state, RESULT_VALUE_CANONICALIZER);
     }
 
 }
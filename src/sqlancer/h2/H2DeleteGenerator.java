@@ -14,7 +14,7 @@ public final class H2DeleteGenerator {
     public static SQLQueryAdapter getQuery(H2GlobalState globalState) {
         StringBuilder sb = new StringBuilder("DELETE FROM ");
         ExpectedErrors errors = new ExpectedErrors();
-        H2Table table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        H2Table table = globalState.getSchema().getRandomTableNoView();
         sb.append(table.getName());
         if (Randomly.getBoolean()) {
             sb.append(" WHERE ");
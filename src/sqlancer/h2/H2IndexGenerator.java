@@ -32,7 +32,7 @@ public class H2IndexGenerator {
         sb.append("INDEX IF NOT EXISTS ");
         sb.append(globalState.getSchema().getFreeIndexName());
         sb.append(" ON ");
-        H2Table table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        H2Table table = globalState.getSchema().getRandomTableNoView();
         sb.append(table.getName());
         sb.append('(');
         for (int i = 0; i < Randomly.smallNumber() + 1; i++) {
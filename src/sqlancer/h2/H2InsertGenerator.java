@@ -36,7 +36,7 @@ public class H2InsertGenerator extends AbstractInsertGenerator<H2Column> {
         } else {
             sb.append("INSERT INTO ");
         }
-        H2Table table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        H2Table table = globalState.getSchema().getRandomTableNoView();
         List<H2Column> columns = table.getRandomNonEmptyColumnSubset();
         sb.append(table.getName());
         sb.append("(");
@@ -0,0 +1,114 @@
+package sqlancer.h2;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import sqlancer.IgnoreMeException;
+import sqlancer.Randomly;
+import sqlancer.common.ast.newast.ColumnReferenceNode;
+import sqlancer.common.ast.newast.NewPostfixTextNode;
+import sqlancer.common.ast.newast.NewUnaryPostfixOperatorNode;
+import sqlancer.common.ast.newast.Node;
+import sqlancer.common.ast.newast.TableReferenceNode;
+import sqlancer.common.oracle.NoRECBase;
+import sqlancer.common.oracle.TestOracle;
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.common.query.SQLancerResultSet;
+import sqlancer.h2.H2ExpressionGenerator.H2UnaryPostfixOperator;
+import sqlancer.h2.H2Provider.H2GlobalState;
+import sqlancer.h2.H2Schema.H2Column;
+import sqlancer.h2.H2Schema.H2CompositeDataType;
+import sqlancer.h2.H2Schema.H2DataType;
+import sqlancer.h2.H2Schema.H2Table;
+import sqlancer.h2.H2Schema.H2Tables;
+
+public class H2NoRECOracle extends NoRECBase<H2GlobalState> implements TestOracle<H2GlobalState> {
+
+    private final H2Schema s;
+
+    public H2NoRECOracle(H2GlobalState globalState) {
+        super(globalState);
+        this.s = globalState.getSchema();
+        H2Errors.addExpressionErrors(errors);
+    }
+
+    @Override
+    public void check() throws SQLException {
+        H2Tables randomTables = s.getRandomTableNonEmptyTables();
+        H2ExpressionGenerator gen = new H2ExpressionGenerator(state).setColumns(randomTables.getColumns());
+        Node<H2Expression> randomWhereCondition = gen.generateExpression();
+        List<H2Table> tables = randomTables.getTables();
+        List<TableReferenceNode<H2Expression, H2Table>> tableList = tables.stream()
+                .map(t -> new TableReferenceNode<H2Expression, H2Table>(t)).collect(Collectors.toList());
+        List<Node<H2Expression>> joins = H2Join.getJoins(tableList, state);
+        H2Select select = new H2Select();
+        select.setFromList(tableList.stream().collect(Collectors.toList()));
+        select.setJoinList(joins);
+
+        select.setFetchColumns(Arrays.asList(new ColumnReferenceNode<>(new H2Column("*", null))));
+        select.setWhereClause(randomWhereCondition);
+        if (Randomly.getBooleanWithRatherLowProbability()) {
+            select.setOrderByExpressions(gen.generateOrderBys());
+        }
+        optimizedQueryString = H2ToStringVisitor.asString(select);
+        int optimizedCount = countRows(optimizedQueryString);
+        select.setFetchColumns(Arrays.asList(new ColumnReferenceNode<>(new H2Column("COUNT(*)", null))));
+        select.setOrderByExpressions(Collections.emptyList());
+        optimizedCountQueryString = H2ToStringVisitor.asString(select);
+
+        Node<H2Expression> isTrue = new H2CastNode(
+                new NewUnaryPostfixOperatorNode<>(randomWhereCondition, H2UnaryPostfixOperator.IS_TRUE),
+                new H2CompositeDataType(H2DataType.INT, 4, H2CompositeDataType.NO_PRECISION));
+        select.setFetchColumns(Arrays.asList(new NewPostfixTextNode<>(isTrue, " AS count")));
+        select.setWhereClause(null);
+        select.setOrderByExpressions(Collections.emptyList());
+        unoptimizedQueryString = "SELECT SUM(count) FROM (" + H2ToStringVisitor.asString(select) + ") AS res";
+        unoptimizedCountQueryString = unoptimizedQueryString;
+        int unoptimizedCount = sumCounts(unoptimizedQueryString);
+
+        if (optimizedCount != unoptimizedCount) {
+            throw new AssertionError(optimizedQueryString + "; -- " + optimizedCount + "\n" + unoptimizedQueryString
+                    + "; -- " + unoptimizedCount);
+        }
+    }
+
+    @Override
+    public String getLastQueryString() {
+        return optimizedQueryString;
+    }
+
+    private int countRows(String queryString) throws SQLException {
+        int count = 0;
+        try (SQLancerResultSet rs = executeAndGet(queryString)) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private int sumCounts(String queryString) throws SQLException {
+        int count = 0;
+        try (SQLancerResultSet rs = executeAndGet(queryString)) {
+            if (rs.next()) {
+                count = rs.getInt(1);
+            }
+        }
+        return count;
+    }
+
+    private SQLancerResultSet executeAndGet(String queryString) throws SQLException {
+        if (options.logEachSelect()) {
+            logger.writeCurrent(queryString);
+        }
+        SQLancerResultSet rs = new SQLQueryAdapter(queryString, errors).executeAndGet(state);
+        if (rs == null) {
+            throw new IgnoreMeException();
+        }
+        return rs;
+    }
+
+}
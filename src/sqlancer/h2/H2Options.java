@@ -4,10 +4,12 @@ import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.List;
 
+import com.beust.jcommander.Parameter;
 import com.beust.jcommander.Parameters;
 
 import sqlancer.DBMSSpecificOptions;
 import sqlancer.OracleFactory;
+import sqlancer.common.oracle.NoRECPerformanceOracle;
 import sqlancer.common.oracle.TestOracle;
 import sqlancer.h2.H2Options.H2OracleFactory;
 import sqlancer.h2.H2Provider.H2GlobalState;
@@ -15,6 +17,9 @@ import sqlancer.h2.H2Provider.H2GlobalState;
 @Parameters(commandDescription = "H2")
 public class H2Options implements DBMSSpecificOptions<H2OracleFactory> {
 
+    @Parameter(names = "--oracle")
+    public List<H2OracleFactory> oracles = Arrays.asList(H2OracleFactory.TLP_WHERE);
+
     public enum H2OracleFactory implements OracleFactory<H2GlobalState> {
 
         TLP_WHERE {
@@ -24,13 +29,29 @@ public class H2Options implements DBMSSpecificOptions<H2OracleFactory> {
                 return new H2QueryPartitioningWhereTester(globalState);
             }
 
+        },
+        NOREC {
+
+            @Override
+            public TestOracle<H2GlobalState> create(H2GlobalState globalState) throws SQLException {
+                return new H2NoRECOracle(globalState);
+            }
+
+        },
+        PERFORMANCE {
+
+            @Override
+            public TestOracle<H2GlobalState> create(H2GlobalState globalState) throws SQLException {
+                return new NoRECPerformanceOracle<>(globalState, new H2NoRECOracle(globalState));
+            }
+
         };
 
     }
 
     @Override
     public List<H2OracleFactory> getTestOracleFactory() {
-        return Arrays.asList(H2OracleFactory.TLP_WHERE);
+        return oracles;
     }
 
 }
@@ -1,8 +1,11 @@
 package sqlancer.h2;
 
+import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
 
 import com.google.auto.service.AutoService;
 
@@ -14,6 +17,7 @@ import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
+import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 import sqlancer.h2.H2Provider.H2GlobalState;
@@ -107,6 +111,44 @@ public class H2Provider extends SQLProviderAdapter<H2GlobalState, H2Options> {
         return new SQLConnection(connection);
     }
 
+    @Override
+    public void dropDatabase(H2GlobalState globalState) throws SQLException {
+        String connectionString = "jdbc:h2:~/" + globalState.getDatabaseName() + ";DB_CLOSE_ON_EXIT=FALSE";
+        try (Connection connection = DriverManager.getConnection(connectionString, "sa", "");
+                Statement s = connection.createStatement()) {
+            s.execute("DROP ALL OBJECTS DELETE FILES");
+        }
+    }
+
+    @Override
+    protected SQLConnection createOracleConnection(H2GlobalState globalState) throws SQLException {
+        String connectionString = "jdbc:h2:~/" + globalState.getDatabaseName() + ";DB_CLOSE_ON_EXIT=FALSE";
+        Connection connection = DriverManager.getConnection(connectionString, "sa", "");
+        connection.setReadOnly(true);
+        // some settings only apply to the session that changed them; the others are set to the values they already have
+        for (Query<?> statement : globalState.getState().getStatements()) {
+            if (H2Snapshot.SET.matcher(statement.getQueryString()).find()) {
+                try (Statement s = connection.createStatement()) {
+                    s.execute(statement.getQueryString());
+                } catch (SQLException e) {
+                    // the statement also failed on the original connection
+                }
+            }
+        }
+        return new SQLConnection(connection);
+    }
+
+    @Override
+    public boolean supportsOracleConnections() {
+        return true;
+    }
+
+    @Override
+    public H2Snapshot createSnapshot(H2GlobalState globalState, List<? extends Query<?>> executedStatements)
+            throws IOException, SQLException {
+        return H2Snapshot.create(this, globalState, executedStatements);
+    }
+
     @Override
     public String getDBMSName() {
         return "h2";
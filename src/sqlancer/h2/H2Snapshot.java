@@ -0,0 +1,71 @@
+package sqlancer.h2;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import sqlancer.DatabaseSnapshot;
+import sqlancer.SQLConnection;
+import sqlancer.common.query.Query;
+import sqlancer.h2.H2Provider.H2GlobalState;
+
+/**
+ * A script that recreates an H2 database, created using <code>SCRIPT TO</code>. The settings changed by a
+ * <code>SET</code> statement are not part of the script, so no snapshot is created after such statements.
+ */
+public final class H2Snapshot implements DatabaseSnapshot<H2GlobalState, SQLConnection> {
+
+    // the statements that change the settings of the database or session
+    static final Pattern SET = Pattern.compile("^\\s*SET\\b", Pattern.CASE_INSENSITIVE);
+
+    private final H2Provider provider;
+    private final File file;
+
+    private H2Snapshot(H2Provider provider, File file) {
+        this.provider = provider;
+        this.file = file;
+    }
+
+    static H2Snapshot create(H2Provider provider, H2GlobalState globalState,
+            List<? extends Query<?>> executedStatements) throws IOException, SQLException {
+        for (Query<?> statement : executedStatements) {
+            if (SET.matcher(statement.getQueryString()).find()) {
+                return null;
+            }
+        }
+        File file = File.createTempFile(globalState.getDatabaseName() + "-snapshot", ".sql");
+        try (Statement s = globalState.getConnection().createStatement()) {
+            s.execute("SCRIPT TO '" + getPath(file) + "'");
+        } catch (SQLException e) {
+            Files.deleteIfExists(file.toPath());
+            throw e;
+        }
+        return new H2Snapshot(provider, file);
+    }
+
+    private static String getPath(File file) {
+        return file.getAbsolutePath().replace("'", "''");
+    }
+
+    @Override
+    public SQLConnection restore(H2GlobalState globalState) throws Exception {
+        SQLConnection con = provider.createDatabase(globalState);
+        try (Statement s = con.createStatement()) {
+            s.execute("RUNSCRIPT FROM '" + getPath(file) + "'");
+        } catch (SQLException e) {
+            con.close();
+            throw e;
+        }
+        return con;
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+}
@@ -23,7 +23,7 @@ public final class H2UpdateGenerator extends AbstractUpdateGenerator<H2Column> {
     }
 
     private SQLQueryAdapter generate() {
-        H2Table table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        H2Table table = globalState.getSchema().getRandomTableNoView();
         List<H2Column> columns = table.getRandomNonEmptyColumnSubset();
         gen = new H2ExpressionGenerator(globalState).setColumns(table.getColumns());
         sb.append("UPDATE ");
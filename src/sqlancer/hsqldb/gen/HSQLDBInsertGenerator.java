@@ -27,7 +27,7 @@ public class HSQLDBInsertGenerator extends AbstractInsertGenerator<HSQLDBSchema.
 
     private SQLQueryAdapter generate() {
         sb.append("INSERT INTO ");
-        HSQLDBSchema.HSQLDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        HSQLDBSchema.HSQLDBTable table = globalState.getSchema().getRandomTableNoView();
         List<HSQLDBSchema.HSQLDBColumn> columns = table.getRandomNonEmptyColumnSubset();
         sb.append(table.getName());
         sb.append("(");
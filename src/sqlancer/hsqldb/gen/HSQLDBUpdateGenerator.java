@@ -29,7 +29,7 @@ public final class HSQLDBUpdateGenerator extends AbstractUpdateGenerator<HSQLDBC
     }
 
     private SQLQueryAdapter generate() {
-        HSQLDBSchema.HSQLDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        HSQLDBSchema.HSQLDBTable table = globalState.getSchema().getRandomTableNoView();
         List<HSQLDBSchema.HSQLDBColumn> columns = table.getRandomNonEmptyColumnSubset();
         gen = new HSQLDBExpressionGenerator(globalState).setColumns(table.getColumns());
         sb.append("UPDATE ");
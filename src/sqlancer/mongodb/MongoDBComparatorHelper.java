@@ -1,13 +1,16 @@
 package sqlancer.mongodb;
 
-import java.util.HashSet;
+import java.nio.ByteBuffer;
 import java.util.List;
-import java.util.Set;
 
+import org.bson.BsonBinaryReader;
+import org.bson.BsonType;
 import org.bson.Document;
+import org.bson.RawBsonDocument;
 
 import sqlancer.IgnoreMeException;
 import sqlancer.Main;
+import sqlancer.common.query.DocumentDigests;
 import sqlancer.common.query.ExpectedErrors;
 import sqlancer.mongodb.MongoDBProvider.MongoDBGlobalState;
 import sqlancer.mongodb.query.MongoDBSelectQuery;
@@ -19,18 +22,26 @@ public final class MongoDBComparatorHelper {
 
     public static List<Document> getResultSetAsDocumentList(MongoDBSelectQuery adapter, MongoDBGlobalState state)
             throws Exception {
+        execute(adapter, state);
+        return adapter.getResultSet();
+    }
+
+    public static List<RawBsonDocument> getResultSetAsRawDocumentList(MongoDBSelectQuery adapter,
+            MongoDBGlobalState state) throws Exception {
+        execute(adapter, state);
+        return adapter.getRawResultSet();
+    }
+
+    private static void execute(MongoDBSelectQuery adapter, MongoDBGlobalState state) throws Exception {
         ExpectedErrors errors = adapter.getExpectedErrors();
-        List<Document> result;
         try {
             adapter.executeAndGet(state);
-            Main.nrSuccessfulActions.addAndGet(1);
-            result = adapter.getResultSet();
-            return result;
+            Main.NR_SUCCESSFUL_ACTIONS.increment();
         } catch (Exception e) {
             if (e instanceof IgnoreMeException) {
                 throw e;
             }
-            Main.nrUnsuccessfulActions.addAndGet(1);
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             if (e.getMessage() == null) {
                 throw new AssertionError(adapter.getLogString(), e);
             }
@@ -41,7 +52,7 @@ public final class MongoDBComparatorHelper {
         }
     }
 
-    public static void assumeCountIsEqual(List<Document> resultSet, List<Document> secondResultSet,
+    public static void assumeCountIsEqual(List<RawBsonDocument> resultSet, List<Document> secondResultSet,
             MongoDBSelectQuery originalQuery) {
         int originalSize = resultSet.size();
         if (secondResultSet.isEmpty()) {
@@ -65,7 +76,7 @@ public final class MongoDBComparatorHelper {
         }
     }
 
-    public static void assumeResultSetsAreEqual(List<Document> resultSet, List<Document> secondResultSet,
+    public static void assumeResultSetsAreEqual(List<RawBsonDocument> resultSet, List<RawBsonDocument> secondResultSet,
             MongoDBSelectQuery originalQuery) {
         if (resultSet.size() != secondResultSet.size()) {
             String assertionMessage = String.format("The Size of the result sets mismatch (%d and %d)!\n%s",
@@ -73,25 +84,75 @@ public final class MongoDBComparatorHelper {
             throw new AssertionError(assertionMessage);
         }
 
-        Set<Document> firstHashSet = new HashSet<>(resultSet);
-        Set<Document> secondHashSet = new HashSet<>(secondResultSet);
+        long[] firstDigests = getDigests(resultSet);
+        long[] secondDigests = getDigests(secondResultSet);
 
-        if (!firstHashSet.equals(secondHashSet)) {
-            Set<Document> firstResultSetMisses = new HashSet<>(firstHashSet);
-            firstResultSetMisses.removeAll(secondHashSet);
-            Set<Document> secondResultSetMisses = new HashSet<>(secondHashSet);
-            secondResultSetMisses.removeAll(firstHashSet);
+        if (!DocumentDigests.haveSameDigests(firstDigests, secondDigests)) {
             StringBuilder firstMisses = new StringBuilder();
-            for (Document document : firstResultSetMisses) {
-                firstMisses.append(document.toJson()).append(" ");
+            for (int i : DocumentDigests.getMissingPositions(firstDigests, secondDigests)) {
+                firstMisses.append(resultSet.get(i).toJson()).append(" ");
             }
             StringBuilder secondMisses = new StringBuilder();
-            for (Document document : secondResultSetMisses) {
-                secondMisses.append(document.toJson()).append(" ");
+            for (int i : DocumentDigests.getMissingPositions(secondDigests, firstDigests)) {
+                secondMisses.append(secondResultSet.get(i).toJson()).append(" ");
             }
             String assertMessage = String.format("The Content of the result sets mismatch!\n %s \n %s\n %s",
                     firstMisses.toString(), secondMisses.toString(), originalQuery.getLogString());
             throw new AssertionError(assertMessage);
         }
     }
+
+    static long[] getDigests(List<RawBsonDocument> documents) {
+        long[] digests = new long[documents.size()];
+        for (int i = 0; i < digests.length; i++) {
+            ByteBuffer buffer = documents.get(i).getByteBuffer().asNIO();
+            if (!buffer.hasArray()) {
+                ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+                copy.put(buffer.duplicate()).flip();
+                buffer = copy;
+            }
+            try (BsonBinaryReader reader = new BsonBinaryReader(buffer)) {
+                // the reader's positions are relative to the buffer, which might not start at the array's beginning
+                digests[i] = getDocumentDigest(reader, buffer.array(), buffer.arrayOffset());
+            }
+        }
+        return digests;
+    }
+
+    // computes the digest of the document at the reader's position from its serialized fields
+    private static long getDocumentDigest(BsonBinaryReader reader, byte[] bytes, int arrayOffset) {
+        reader.readStartDocument();
+        long fieldDigestSum = 0;
+        int nrFields = 0;
+        BsonType type;
+        while ((type = reader.readBsonType()) != BsonType.END_OF_DOCUMENT) {
+            String name = reader.readName();
+            fieldDigestSum += DocumentDigests.hashField(name, type.getValue(),
+                    getValueHash(reader, type, bytes, arrayOffset));
+            nrFields++;
+        }
+        reader.readEndDocument();
+        return DocumentDigests.hashDocument(fieldDigestSum, nrFields);
+    }
+
+    private static long getValueHash(BsonBinaryReader reader, BsonType type, byte[] bytes, int arrayOffset) {
+        switch (type) {
+        case DOCUMENT:
+            return getDocumentDigest(reader, bytes, arrayOffset);
+        case ARRAY:
+            reader.readStartArray();
+            long arrayHash = DocumentDigests.EMPTY_ARRAY_HASH;
+            BsonType elementType;
+            while ((elementType = reader.readBsonType()) != BsonType.END_OF_DOCUMENT) {
+                arrayHash = DocumentDigests.hashArrayElement(arrayHash, elementType.getValue(),
+                        getValueHash(reader, elementType, bytes, arrayOffset));
+            }
+            reader.readEndArray();
+            return arrayHash;
+        default:
+            int start = reader.getBsonInput().getPosition();
+            reader.skipValue();
+            return DocumentDigests.hashValue(bytes, arrayOffset + start, reader.getBsonInput().getPosition() - start);
+        }
+    }
 }
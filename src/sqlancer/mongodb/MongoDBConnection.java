@@ -1,21 +1,52 @@
 package sqlancer.mongodb;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.bson.BsonDocument;
 import org.bson.BsonString;
 
 import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
 
 import sqlancer.SQLancerDBConnection;
 
 public class MongoDBConnection implements SQLancerDBConnection {
 
+    public static final String DEFAULT_CONNECTION_STRING = "mongodb://localhost";
+
+    // a MongoClient maintains a connection pool and is thread-safe, so all threads share one client per server
+    private static final Map<String, MongoClient> SHARED_CLIENTS = new ConcurrentHashMap<>();
+
     private final MongoClient client;
     private final MongoDatabase database;
+    private final boolean isSharedClient;
 
     public MongoDBConnection(MongoClient client, MongoDatabase database) {
+        this(client, database, false);
+    }
+
+    private MongoDBConnection(MongoClient client, MongoDatabase database, boolean isSharedClient) {
         this.client = client;
         this.database = database;
+        this.isSharedClient = isSharedClient;
+    }
+
+    /**
+     * Creates a handle for the given database that uses the client shared by all connections to the same server, rather
+     * than starting a new client, with its own connection pool and monitoring threads, for every database.
+     *
+     * @param connectionString
+     *            the connection string of the server
+     * @param databaseName
+     *            the name of the database
+     *
+     * @return the connection
+     */
+    public static MongoDBConnection connect(String connectionString, String databaseName) {
+        MongoClient client = SHARED_CLIENTS.computeIfAbsent(connectionString, MongoClients::create);
+        return new MongoDBConnection(client, client.getDatabase(databaseName), true);
     }
 
     @Override
@@ -26,7 +57,9 @@ public class MongoDBConnection implements SQLancerDBConnection {
 
     @Override
     public void close() throws Exception {
-        client.close();
+        if (!isSharedClient) {
+            client.close();
+        }
     }
 
     public MongoDatabase getDatabase() {
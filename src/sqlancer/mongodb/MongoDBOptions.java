@@ -30,6 +30,9 @@ public class MongoDBOptions implements DBMSSpecificOptions<MongoDBOptions.MongoD
     @Parameter(names = "--test-random-types", description = "Insert random types instead of schema types, validation has to be off", arity = 1)
     public boolean testRandomTypes;
 
+    @Parameter(names = "--insert-batch-size", description = "The number of documents inserted by a single insert action, with one insertMany per collection", arity = 1)
+    public int insertBatchSize = 10;
+
     @Parameter(names = "--max-number-indexes", description = "The maximum number of indexes used.", arity = 1)
     public int maxNumberIndexes = 15;
 
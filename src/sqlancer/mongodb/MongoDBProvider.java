@@ -4,9 +4,6 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.google.auto.service.AutoService;
-import com.mongodb.client.MongoClient;
-import com.mongodb.client.MongoClients;
-import com.mongodb.client.MongoDatabase;
 
 import sqlancer.AbstractAction;
 import sqlancer.DatabaseProvider;
@@ -50,7 +47,9 @@ public class MongoDBProvider
         Randomly r = globalState.getRandomly();
         switch (a) {
         case INSERT:
-            return r.getInteger(0, globalState.getOptions().getMaxNumberInserts());
+            // each insert action inserts a batch of documents
+            int batchSize = Math.max(1, globalState.getDbmsSpecificOptions().insertBatchSize);
+            return (r.getInteger(0, globalState.getOptions().getMaxNumberInserts()) + batchSize - 1) / batchSize;
         case CREATE_INDEX:
             return r.getInteger(0, globalState.getDbmsSpecificOptions().maxNumberIndexes);
         default:
@@ -73,7 +72,7 @@ public class MongoDBProvider
                 System.out.println(q.getLogString());
             }
             if (logExecutionTime) {
-                getLogger().writeCurrent("// " + timer.end().asString());
+                getLogger().writeCurrent("// " + timer.asString());
             }
             if (q.couldAffectSchema()) {
                 updateSchema();
@@ -106,10 +105,10 @@ public class MongoDBProvider
 
     @Override
     public MongoDBConnection createDatabase(MongoDBGlobalState globalState) throws Exception {
-        MongoClient mongoClient = MongoClients.create();
-        MongoDatabase database = mongoClient.getDatabase(globalState.getDatabaseName());
-        database.drop();
-        return new MongoDBConnection(mongoClient, database);
+        MongoDBConnection connection = MongoDBConnection.connect(MongoDBConnection.DEFAULT_CONNECTION_STRING,
+                globalState.getDatabaseName());
+        connection.getDatabase().drop();
+        return connection;
     }
 
     @Override
@@ -20,8 +20,16 @@ public final class MongoDBInsertGenerator {
     }
 
     public MongoDBQueryAdapter generate() {
+        MongoDBInsertQuery query = new MongoDBInsertQuery();
+        for (int i = 0; i < Math.max(1, globalState.getDbmsSpecificOptions().insertBatchSize); i++) {
+            MongoDBTable table = globalState.getSchema().getRandomTable();
+            query.addDocument(table, generateDocument(table));
+        }
+        return query;
+    }
+
+    private Document generateDocument(MongoDBTable table) {
         Document result = new Document();
-        MongoDBTable table = globalState.getSchema().getRandomTable();
         MongoDBConstantGenerator constantGenerator = new MongoDBConstantGenerator(globalState);
 
         for (int i = 0; i < table.getColumns().size(); i++) {
@@ -33,6 +41,6 @@ public final class MongoDBInsertGenerator {
             }
         }
 
-        return new MongoDBInsertQuery(table, result);
+        return result;
     }
 }
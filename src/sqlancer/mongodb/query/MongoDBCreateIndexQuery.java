@@ -58,7 +58,7 @@ public class MongoDBCreateIndexQuery extends MongoDBQueryAdapter {
     @Override
     public <G extends GlobalState<?, ?, MongoDBConnection>> boolean execute(G globalState, String... fills)
             throws Exception {
-        Main.nrSuccessfulActions.addAndGet(1);
+        Main.NR_SUCCESSFUL_ACTIONS.increment();
         Bson index;
         if (indeces.size() > 1) {
             index = Indexes.compoundIndex(indeces);
@@ -1,11 +1,18 @@
 package sqlancer.mongodb.query;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import org.bson.BsonDateTime;
 import org.bson.BsonTimestamp;
 import org.bson.Document;
 import org.bson.types.ObjectId;
 
-import com.mongodb.client.result.InsertOneResult;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.result.InsertManyResult;
 
 import sqlancer.GlobalState;
 import sqlancer.Main;
@@ -14,20 +21,40 @@ import sqlancer.mongodb.MongoDBConnection;
 import sqlancer.mongodb.MongoDBQueryAdapter;
 import sqlancer.mongodb.MongoDBSchema.MongoDBTable;
 
+/**
+ * Inserts a batch of documents, using a single <code>insertMany</code> per collection. The inserts are ordered, so if a
+ * document cannot be inserted, the documents after it are not inserted, and only the documents before it are logged.
+ */
 public class MongoDBInsertQuery extends MongoDBQueryAdapter {
     boolean excluded;
-    private final MongoDBTable table;
-    private final Document documentToBeInserted;
+    private final Map<MongoDBTable, List<Document>> documentsToBeInserted = new LinkedHashMap<>();
+    // the number of documents that were inserted, in the order of documentsToBeInserted, or -1 if not yet executed
+    private int nrInsertedDocuments = -1;
 
-    public MongoDBInsertQuery(MongoDBTable table, Document documentToBeInserted) {
-        this.table = table;
-        this.documentToBeInserted = documentToBeInserted;
+    public MongoDBInsertQuery() {
         this.excluded = false;
     }
 
+    public void addDocument(MongoDBTable table, Document documentToBeInserted) {
+        documentsToBeInserted.computeIfAbsent(table, t -> new ArrayList<>()).add(documentToBeInserted);
+    }
+
     @Override
     public String getLogString() {
         StringBuilder sb = new StringBuilder();
+        int nrDocumentsToLog = nrInsertedDocuments == -1 ? Integer.MAX_VALUE : nrInsertedDocuments;
+        for (Map.Entry<MongoDBTable, List<Document>> entry : documentsToBeInserted.entrySet()) {
+            for (Document document : entry.getValue()) {
+                if (nrDocumentsToLog-- == 0) {
+                    return sb.toString();
+                }
+                appendInsert(sb, entry.getKey(), document);
+            }
+        }
+        return sb.toString();
+    }
+
+    private void appendInsert(StringBuilder sb, MongoDBTable table, Document documentToBeInserted) {
         sb.append("db." + table.getName() + ".insert({");
         String helper = "";
         for (String key : documentToBeInserted.keySet()) {
@@ -42,8 +69,6 @@ public class MongoDBInsertQuery extends MongoDBQueryAdapter {
             sb.append(getStringRepresentation(value));
         }
         sb.append("})\n");
-
-        return sb.toString();
     }
 
     private String getStringRepresentation(Object value) {
@@ -68,16 +93,34 @@ public class MongoDBInsertQuery extends MongoDBQueryAdapter {
 
     @Override
     public boolean couldAffectSchema() {
-        return true;
+        // the documents only contain the fields of the collection, which are known from its creation
+        return false;
     }
 
     @Override
     public <G extends GlobalState<?, ?, MongoDBConnection>> boolean execute(G globalState, String... fills)
             throws Exception {
-        Main.nrSuccessfulActions.addAndGet(1);
-        InsertOneResult result = globalState.getConnection().getDatabase().getCollection(table.getName())
-                .insertOne(documentToBeInserted);
-        return result.wasAcknowledged();
+        nrInsertedDocuments = 0;
+        boolean acknowledged = true;
+        for (Map.Entry<MongoDBTable, List<Document>> entry : documentsToBeInserted.entrySet()) {
+            try {
+                InsertManyResult result = globalState.getConnection().getDatabase()
+                        .getCollection(entry.getKey().getName()).insertMany(entry.getValue());
+                acknowledged &= result.wasAcknowledged();
+                addInsertedDocuments(entry.getValue().size());
+            } catch (MongoBulkWriteException e) {
+                // the documents before the first failing one were inserted
+                addInsertedDocuments(e.getWriteErrors().stream().mapToInt(BulkWriteError::getIndex).min().orElse(0));
+                Main.NR_UNSUCCESSFUL_ACTIONS.increment();
+                return nrInsertedDocuments != 0;
+            }
+        }
+        return acknowledged;
+    }
+
+    private void addInsertedDocuments(int nrDocuments) {
+        nrInsertedDocuments += nrDocuments;
+        Main.NR_SUCCESSFUL_ACTIONS.add(nrDocuments);
     }
 
     @Override
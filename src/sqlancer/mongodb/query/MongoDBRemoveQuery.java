@@ -34,13 +34,13 @@ public class MongoDBRemoveQuery extends MongoDBQueryAdapter {
             DeleteResult result = globalState.getConnection().getDatabase().getCollection(table.getName())
                     .deleteOne(new Document("_id", new ObjectId(objectId)));
             if (result.wasAcknowledged()) {
-                Main.nrSuccessfulActions.addAndGet(1);
+                Main.NR_SUCCESSFUL_ACTIONS.increment();
             } else {
-                Main.nrUnsuccessfulActions.addAndGet(1);
+                Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             }
             return result.wasAcknowledged();
         } catch (Exception e) {
-            Main.nrUnsuccessfulActions.addAndGet(1);
+            Main.NR_UNSUCCESSFUL_ACTIONS.increment();
             return false;
         }
     }
@@ -1,12 +1,15 @@
 package sqlancer.mongodb.query;
 
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.Codec;
 import org.bson.conversions.Bson;
 
+import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoCursor;
 
@@ -23,7 +26,8 @@ public class MongoDBSelectQuery extends MongoDBQueryAdapter {
 
     private final MongoDBSelect<MongoDBExpression> select;
 
-    private List<Document> resultSet;
+    // the documents are kept in their serialized form, and are only decoded on demand
+    private List<RawBsonDocument> resultSet;
 
     public MongoDBSelectQuery(MongoDBSelect<MongoDBExpression> select) {
         this.select = select;
@@ -116,20 +120,15 @@ public class MongoDBSelectQuery extends MongoDBQueryAdapter {
             String... fills) throws Exception {
         if (globalState.getOptions().logEachSelect()) {
             globalState.getLogger().writeCurrent(this.getLogString());
-            try {
-                globalState.getLogger().getCurrentFileWriter().flush();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
         List<Bson> pipeline = MongoDBVisitor.asQuery(select);
 
-        MongoCollection<Document> collection = globalState.getConnection().getDatabase()
-                .getCollection(select.getMainTableName());
-        MongoCursor<Document> cursor = collection.aggregate(pipeline).cursor();
+        MongoCollection<RawBsonDocument> collection = globalState.getConnection().getDatabase()
+                .getCollection(select.getMainTableName(), RawBsonDocument.class);
+        MongoCursor<RawBsonDocument> cursor = collection.aggregate(pipeline).cursor();
         resultSet = new ArrayList<>();
         while (cursor.hasNext()) {
-            Document document = cursor.next();
+            RawBsonDocument document = cursor.next();
             resultSet.add(document);
         }
         return null;
@@ -141,6 +140,11 @@ public class MongoDBSelectQuery extends MongoDBQueryAdapter {
     }
 
     public List<Document> getResultSet() {
+        Codec<Document> codec = MongoClientSettings.getDefaultCodecRegistry().get(Document.class);
+        return resultSet.stream().map(document -> document.decode(codec)).collect(Collectors.toList());
+    }
+
+    public List<RawBsonDocument> getRawResultSet() {
         return resultSet;
     }
 
@@ -1,10 +1,12 @@
 package sqlancer.mongodb.test;
 
 import static sqlancer.mongodb.MongoDBComparatorHelper.getResultSetAsDocumentList;
+import static sqlancer.mongodb.MongoDBComparatorHelper.getResultSetAsRawDocumentList;
 
 import java.util.List;
 
 import org.bson.Document;
+import org.bson.RawBsonDocument;
 
 import sqlancer.mongodb.MongoDBComparatorHelper;
 import sqlancer.mongodb.MongoDBProvider.MongoDBGlobalState;
@@ -23,15 +25,15 @@ public class MongoDBQueryPartitioningWhereTester extends MongoDBQueryPartitionin
 
         select.setFilterClause(null);
         MongoDBSelectQuery q = new MongoDBSelectQuery(select);
-        List<Document> firstResultSet = getResultSetAsDocumentList(q, state);
+        List<RawBsonDocument> firstResultSet = getResultSetAsRawDocumentList(q, state);
 
         select.setFilterClause(predicate);
         q = new MongoDBSelectQuery(select);
-        List<Document> secondResultSet = getResultSetAsDocumentList(q, state);
+        List<RawBsonDocument> secondResultSet = getResultSetAsRawDocumentList(q, state);
 
         select.setFilterClause(negatedPredicate);
         q = new MongoDBSelectQuery(select);
-        List<Document> thirdResultSet = getResultSetAsDocumentList(q, state);
+        List<RawBsonDocument> thirdResultSet = getResultSetAsRawDocumentList(q, state);
 
         if (state.getDbmsSpecificOptions().testWithCount) {
             select.setWithCountClause(true);
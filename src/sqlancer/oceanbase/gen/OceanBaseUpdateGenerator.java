@@ -27,7 +27,7 @@ public class OceanBaseUpdateGenerator extends AbstractUpdateGenerator<OceanBaseC
     }
 
     private SQLQueryAdapter generate() {
-        OceanBaseSchema.OceanBaseTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        OceanBaseSchema.OceanBaseTable table = globalState.getSchema().getRandomTableNoView();
         List<OceanBaseSchema.OceanBaseColumn> columns = table.getRandomNonEmptyColumnSubset();
         gen = new OceanBaseExpressionGenerator(globalState).setColumns(table.getColumns());
         sb.append("UPDATE ");
@@ -13,6 +13,7 @@ import java.util.Map;
 import sqlancer.Randomly;
 import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
+import sqlancer.common.query.Query;
 
 public class PostgresGlobalState extends SQLGlobalState<PostgresOptions, PostgresSchema> {
 
@@ -150,4 +151,10 @@ public class PostgresGlobalState extends SQLGlobalState<PostgresOptions, Postgre
         return this.allowedFunctionTypes;
     }
 
+    @Override
+    public boolean canBeBatched(Query<?> q) {
+        // the driver executes a batch in one implicit transaction, so a failing statement rolls back the earlier ones
+        return false;
+    }
+
 }
@@ -7,6 +7,7 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Arrays;
+import java.util.List;
 
 import com.google.auto.service.AutoService;
 
@@ -54,10 +55,14 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
      */
     public static boolean generateOnlyKnown;
 
+    // the database to which a connection is established to create the databases under test
+    private static final String DEFAULT_ENTRY_PATH = "/test";
+
     protected String entryURL;
     protected String username;
     protected String password;
     protected String entryPath;
+    protected String entryDatabaseName;
     protected String host;
     protected int port;
     protected String testURL;
@@ -75,8 +80,8 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
 
     public enum Action implements AbstractAction<PostgresGlobalState> {
         ANALYZE(PostgresAnalyzeGenerator::create), //
-        ALTER_TABLE(g -> PostgresAlterTableGenerator.create(g.getSchema().getRandomTable(t -> !t.isView()), g,
-                generateOnlyKnown)), //
+        ALTER_TABLE(
+                g -> PostgresAlterTableGenerator.create(g.getSchema().getRandomTableNoView(), g, generateOnlyKnown)), //
         CLUSTER(PostgresClusterGenerator::create), //
         COMMIT(g -> {
             SQLQueryAdapter query;
@@ -224,13 +229,13 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
         password = globalState.getOptions().getPassword();
         host = globalState.getOptions().getHost();
         port = globalState.getOptions().getPort();
-        entryPath = "/test";
+        entryPath = DEFAULT_ENTRY_PATH;
         entryURL = globalState.getDbmsSpecificOptions().connectionURL;
         // trim URL to exclude "jdbc:"
         if (entryURL.startsWith("jdbc:")) {
             entryURL = entryURL.substring(5);
         }
-        String entryDatabaseName = entryPath.substring(1);
+        entryDatabaseName = DEFAULT_ENTRY_PATH.substring(1);
         databaseName = globalState.getDatabaseName();
 
         try {
@@ -287,6 +292,52 @@ public class PostgresProvider extends SQLProviderAdapter<PostgresGlobalState, Po
         return new SQLConnection(con);
     }
 
+    /*
+     * Rather than dropping and re-creating the database, which requires a connection to the entry database, we drop all
+     * objects created by the previous test run and reset the session state of the connection. This is only possible if
+     * the database was created without random options, since each database should otherwise be created with another
+     * encoding and collation (see getCreateDatabaseCommand). The provider is not the one that created the database, so
+     * the statements that are logged to create it are determined here again.
+     */
+    @Override
+    public boolean resetDatabase(PostgresGlobalState globalState, SQLConnection con) throws SQLException {
+        if (globalState.getDbmsSpecificOptions().testCollations) {
+            return false;
+        }
+        if (globalState.getDbmsSpecificOptions().getTestOracleFactory().stream()
+                .anyMatch((o) -> o == PostgresOracleFactory.PQS)) {
+            generateOnlyKnown = true;
+        }
+        entryDatabaseName = DEFAULT_ENTRY_PATH.substring(1);
+        databaseName = globalState.getDatabaseName();
+        createDatabaseCommand = getCreateDatabaseCommand(globalState);
+        List<String> resetStatements = Arrays.asList("ROLLBACK", "DISCARD ALL",
+                "DROP SCHEMA IF EXISTS extensions CASCADE", "DROP SCHEMA public CASCADE", "CREATE SCHEMA public");
+        for (String resetStatement : resetStatements) {
+            try (Statement s = con.createStatement()) {
+                s.execute(resetStatement);
+            }
+        }
+        // the log does not depend on the previous test run, since it creates the database in the same way
+        globalState.getState().logStatement(String.format("\\c %s;", entryDatabaseName));
+        globalState.getState().logStatement("DROP DATABASE IF EXISTS " + databaseName);
+        globalState.getState().logStatement(createDatabaseCommand);
+        globalState.getState().logStatement(String.format("\\c %s;", databaseName));
+        for (String resetStatement : resetStatements) {
+            globalState.getState().logStatement(resetStatement);
+        }
+        return true;
+    }
+
+    @Override
+    public void dropDatabase(PostgresGlobalState globalState) throws SQLException {
+        // the entry URL and the credentials are determined by createDatabase, which created the database
+        try (Connection con = DriverManager.getConnection("jdbc:" + entryURL, username, password);
+                Statement s = con.createStatement()) {
+            s.execute("DROP DATABASE IF EXISTS " + globalState.getDatabaseName());
+        }
+    }
+
     protected void readFunctions(PostgresGlobalState globalState) throws SQLException {
         SQLQueryAdapter query = new SQLQueryAdapter("SELECT proname, provolatile FROM pg_proc;");
         SQLancerResultSet rs = query.executeAndGet(globalState);
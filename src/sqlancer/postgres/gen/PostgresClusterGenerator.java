@@ -18,7 +18,7 @@ public final class PostgresClusterGenerator {
         errors.add("access method does not support clustering");
         StringBuilder sb = new StringBuilder("CLUSTER ");
         if (Randomly.getBoolean()) {
-            PostgresTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+            PostgresTable table = globalState.getSchema().getRandomTableNoView();
             sb.append(table.getName());
             if (Randomly.getBoolean() && !table.getIndexes().isEmpty()) {
                 sb.append(" USING ");
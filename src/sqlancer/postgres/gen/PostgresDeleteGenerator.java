@@ -14,7 +14,7 @@ public final class PostgresDeleteGenerator {
     }
 
     public static SQLQueryAdapter create(PostgresGlobalState globalState) {
-        PostgresTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        PostgresTable table = globalState.getSchema().getRandomTableNoView();
         ExpectedErrors errors = new ExpectedErrors();
         errors.add("violates foreign key constraint");
         errors.add("violates not-null constraint");
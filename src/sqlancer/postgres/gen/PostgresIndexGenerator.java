@@ -39,8 +39,8 @@ public final class PostgresIndexGenerator {
         // if (Randomly.getBoolean()) {
         // sb.append("CONCURRENTLY ");
         // }
-        PostgresTable randomTable = globalState.getSchema().getRandomTable(t -> !t.isView()); // TODO: materialized
-                                                                                              // views
+        PostgresTable randomTable = globalState.getSchema().getRandomTableNoView(); // TODO: materialized
+                                                                                    // views
         String indexName = getNewIndexName(randomTable);
         sb.append(indexName);
         sb.append(" ON ");
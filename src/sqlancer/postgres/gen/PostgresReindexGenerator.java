@@ -46,7 +46,7 @@ public final class PostgresReindexGenerator {
             if (Randomly.getBoolean()) {
                 sb.append("CONCURRENTLY ");
             }
-            sb.append(globalState.getSchema().getRandomTable(t -> !t.isView()).getName());
+            sb.append(globalState.getSchema().getRandomTableNoView().getName());
             break;
         case DATABASE:
             sb.append("DATABASE ");
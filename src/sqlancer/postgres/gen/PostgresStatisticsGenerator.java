@@ -23,7 +23,7 @@ public final class PostgresStatisticsGenerator {
         if (Randomly.getBoolean()) {
             sb.append(" IF NOT EXISTS");
         }
-        PostgresTable randomTable = globalState.getSchema().getRandomTable(t -> !t.isView()); // TODO materialized view
+        PostgresTable randomTable = globalState.getSchema().getRandomTableNoView(); // TODO materialized view
         if (randomTable.getColumns().size() < 2) {
             throw new IgnoreMeException();
         }
@@ -16,6 +16,7 @@ import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
 import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
+import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 import sqlancer.questdb.QuestDBProvider.QuestDBGlobalState;
@@ -71,6 +72,13 @@ public class QuestDBProvider extends SQLProviderAdapter<QuestDBGlobalState, Ques
             return QuestDBSchema.fromConnection(getConnection(), getDatabaseName());
         }
 
+        @Override
+        public boolean canBeBatched(Query<?> q) {
+            // the PostgreSQL driver executes a batch in one implicit transaction, so whether the statements before a
+            // failing one are applied depends on the server
+            return false;
+        }
+
     }
 
     @Override
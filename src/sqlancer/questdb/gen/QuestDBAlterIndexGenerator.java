@@ -24,7 +24,7 @@ public final class QuestDBAlterIndexGenerator {
 
         StringBuilder sb = new StringBuilder("ALTER TABLE ");
 
-        QuestDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        QuestDBTable table = globalState.getSchema().getRandomTableNoView();
         sb.append(table.getName());
         sb.append(" ");
 
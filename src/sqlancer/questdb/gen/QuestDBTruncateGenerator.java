@@ -14,7 +14,7 @@ public final class QuestDBTruncateGenerator {
     public static SQLQueryAdapter generate(QuestDBGlobalState globalState) {
         StringBuilder sb = new StringBuilder("TRUNCATE TABLE ");
         ExpectedErrors errors = new ExpectedErrors();
-        QuestDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        QuestDBTable table = globalState.getSchema().getRandomTableNoView();
         sb.append(table.getName());
         QuestDBErrors.addExpressionErrors(errors);
         return new SQLQueryAdapter(sb.toString(), errors);
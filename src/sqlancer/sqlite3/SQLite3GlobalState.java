@@ -1,15 +1,71 @@
 package sqlancer.sqlite3;
 
 import java.sql.SQLException;
+import java.util.regex.Pattern;
 
+import sqlancer.ExecutionTimer;
 import sqlancer.SQLGlobalState;
+import sqlancer.common.query.Query;
+import sqlancer.common.schema.AbstractTable;
+import sqlancer.common.schema.SchemaChange;
 import sqlancer.sqlite3.schema.SQLite3Schema;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Table;
 
 public class SQLite3GlobalState extends SQLGlobalState<SQLite3Options, SQLite3Schema> {
 
+    private static final Pattern INDIRECT_EFFECTS = Pattern.compile(
+            "^\\s*(CREATE|ALTER)\\b.*\\b(TRIGGER|REFERENCES|REPLACE)\\b", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    // VACUUM might change the rowids of tables without an INTEGER PRIMARY KEY
+    private static final Pattern VACUUM = Pattern.compile("^\\s*VACUUM\\b", Pattern.CASE_INSENSITIVE);
+
+    private boolean indirectEffectsPossible;
+
     @Override
     protected SQLite3Schema readSchema() throws SQLException {
         return SQLite3Schema.fromConnection(this);
     }
 
+    @Override
+    protected SQLite3Schema applySchemaChange(SQLite3Schema currentSchema, SchemaChange change, boolean success)
+            throws SQLException {
+        if (change.getKind() == SchemaChange.Kind.UNKNOWN) {
+            return null;
+        }
+        if (!success) {
+            if (change.getKind() == SchemaChange.Kind.NONE) {
+                // the statement might have rolled back the transaction (e.g., INSERT OR ROLLBACK or RAISE(ROLLBACK))
+                return null;
+            }
+            // a failing DDL statement does not have any effect
+            return currentSchema;
+        }
+        return currentSchema.withSchemaChange(this, change);
+    }
+
+    @Override
+    protected void executeEpilogue(Query<?> q, boolean success, ExecutionTimer timer) throws Exception {
+        if (!indirectEffectsPossible && INDIRECT_EFFECTS.matcher(q.getQueryString()).find()) {
+            indirectEffectsPossible = true;
+        }
+        super.executeEpilogue(q, success, timer);
+        if (VACUUM.matcher(q.getQueryString()).find()) {
+            for (SQLite3Table table : getSchema().getDatabaseTables()) {
+                table.invalidateRows();
+            }
+        }
+    }
+
+    @Override
+    protected boolean dmlMayHaveIndirectEffects(AbstractTable<?, ?, ?> table) {
+        // triggers, foreign key actions, and REPLACE conflict clauses of constraints, or special commands of virtual
+        // tables (e.g., an FTS 'rebuild') that are expressed as an INSERT
+        return indirectEffectsPossible || ((SQLite3Table) table).isVirtual();
+    }
+
+    @Override
+    public boolean canBeBatched(Query<?> q) {
+        // the driver does not report which statement of a failed batch was the last one to be applied
+        return false;
+    }
+
 }
@@ -11,6 +11,7 @@ import com.beust.jcommander.Parameters;
 import sqlancer.DBMSSpecificOptions;
 import sqlancer.OracleFactory;
 import sqlancer.common.oracle.CompositeTestOracle;
+import sqlancer.common.oracle.NoRECPerformanceOracle;
 import sqlancer.common.oracle.TestOracle;
 import sqlancer.sqlite3.SQLite3Options.SQLite3OracleFactory;
 import sqlancer.sqlite3.oracle.SQLite3Fuzzer;
@@ -97,6 +98,10 @@ public class SQLite3Options implements DBMSSpecificOptions<SQLite3OracleFactory>
     @Parameter(names = { "--max-num-indexes" }, description = "The maximum number of indexes that can be created")
     public int maxNumIndexes = 20;
 
+    @Parameter(names = {
+            "--pqs-pivot-row-sample-size" }, description = "The number of rows that PQS samples from a table at once and caches to select pivot rows, until the table's rows are modified")
+    public int pivotRowSampleSize = 100;
+
     public enum SQLite3OracleFactory implements OracleFactory<SQLite3GlobalState> {
         PQS {
             @Override
@@ -116,6 +121,12 @@ public class SQLite3Options implements DBMSSpecificOptions<SQLite3OracleFactory>
                 return new SQLite3NoRECOracle(globalState);
             }
         },
+        PERFORMANCE {
+            @Override
+            public TestOracle<SQLite3GlobalState> create(SQLite3GlobalState globalState) throws SQLException {
+                return new NoRECPerformanceOracle<>(globalState, new SQLite3NoRECOracle(globalState));
+            }
+        },
         AGGREGATE {
 
             @Override
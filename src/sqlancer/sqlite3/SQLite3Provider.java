@@ -2,13 +2,19 @@ package sqlancer.sqlite3;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import org.sqlite.SQLiteConfig;
+
 import com.google.auto.service.AutoService;
 
 import sqlancer.AbstractAction;
@@ -20,6 +26,7 @@ import sqlancer.SQLProviderAdapter;
 import sqlancer.StatementExecutor;
 import sqlancer.common.DBMSCommon;
 import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.Query;
 import sqlancer.common.query.SQLQueryAdapter;
 import sqlancer.common.query.SQLQueryProvider;
 import sqlancer.common.query.SQLancerResultSet;
@@ -284,13 +291,21 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
         }
     }
 
-    @Override
-    public SQLConnection createDatabase(SQLite3GlobalState globalState) throws SQLException {
+    static File getDatabaseDirectory() {
         File dir = new File("." + File.separator + "databases");
         if (!dir.exists()) {
             dir.mkdir();
         }
-        File dataBase = new File(dir, globalState.getDatabaseName() + ".db");
+        return dir;
+    }
+
+    static File getDatabaseFile(SQLite3GlobalState globalState) {
+        return new File(getDatabaseDirectory(), globalState.getDatabaseName() + ".db");
+    }
+
+    @Override
+    public SQLConnection createDatabase(SQLite3GlobalState globalState) throws SQLException {
+        File dataBase = getDatabaseFile(globalState);
         if (dataBase.exists() && ((SQLite3GlobalState) globalState).getDbmsSpecificOptions().deleteIfExists) {
             dataBase.delete();
         }
@@ -298,6 +313,56 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
         return new SQLConnection(DriverManager.getConnection(url));
     }
 
+    @Override
+    public void dropDatabase(SQLite3GlobalState globalState) throws IOException {
+        Files.deleteIfExists(getDatabaseFile(globalState).toPath());
+    }
+
+    @Override
+    protected SQLConnection createOracleConnection(SQLite3GlobalState globalState) throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        String url = "jdbc:sqlite:" + getDatabaseFile(globalState).getAbsolutePath();
+        Connection connection = DriverManager.getConnection(url, config.toProperties());
+        // the database cannot be read by other connections if the generated statements set locking_mode=EXCLUSIVE
+        try (Statement s = connection.createStatement()) {
+            s.executeQuery("SELECT * FROM sqlite_master").close();
+        } catch (SQLException e) {
+            connection.close();
+            throw new IgnoreMeException();
+        }
+        // the temporary tables, views, and triggers (and their rows) only exist on the connection that created them
+        try (Statement s = globalState.getConnection().createStatement();
+                ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM temp.sqlite_master")) {
+            if (!rs.next() || rs.getInt(1) != 0) {
+                connection.close();
+                throw new IgnoreMeException();
+            }
+        }
+        // most pragmas only apply to the connection that executed them; others fail, since the connection is read-only
+        for (Query<?> statement : globalState.getState().getStatements()) {
+            if (SQLite3Snapshot.CONNECTION_STATE.matcher(statement.getQueryString()).find()) {
+                try (Statement s = connection.createStatement()) {
+                    s.execute(statement.getQueryString());
+                } catch (SQLException e) {
+                    // the statement also failed on the original connection, or only affected the database file
+                }
+            }
+        }
+        return new SQLConnection(connection);
+    }
+
+    @Override
+    public boolean supportsOracleConnections() {
+        return true;
+    }
+
+    @Override
+    public SQLite3Snapshot createSnapshot(SQLite3GlobalState globalState, List<? extends Query<?>> executedStatements)
+            throws IOException {
+        return SQLite3Snapshot.create(globalState, executedStatements);
+    }
+
     @Override
     public String getDBMSName() {
         return "sqlite3";
@@ -308,11 +373,6 @@ public class SQLite3Provider extends SQLProviderAdapter<SQLite3GlobalState, SQLi
         String queryPlan = "";
         if (globalState.getOptions().logEachSelect()) {
             globalState.getLogger().writeCurrent(selectStr);
-            try {
-                globalState.getLogger().getCurrentFileWriter().flush();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
         // Set up the expected errors for NoREC oracle.
         ExpectedErrors errors = new ExpectedErrors();
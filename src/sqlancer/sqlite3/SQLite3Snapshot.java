@@ -0,0 +1,71 @@
+package sqlancer.sqlite3;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import sqlancer.DatabaseSnapshot;
+import sqlancer.SQLConnection;
+import sqlancer.common.query.Query;
+
+/**
+ * A copy of a SQLite database file, created using <code>VACUUM INTO</code>. Temporary tables and the settings of a
+ * connection (e.g., set by a PRAGMA) are not part of the database file, so no snapshot is created if they might exist.
+ */
+public final class SQLite3Snapshot implements DatabaseSnapshot<SQLite3GlobalState, SQLConnection> {
+
+    // the statements that change the state of a connection rather than the database file
+    static final Pattern CONNECTION_STATE = Pattern.compile("^\\s*(PRAGMA|ATTACH|DETACH)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final File file;
+
+    private SQLite3Snapshot(File file) {
+        this.file = file;
+    }
+
+    static SQLite3Snapshot create(SQLite3GlobalState globalState, List<? extends Query<?>> executedStatements)
+            throws IOException {
+        for (Query<?> statement : executedStatements) {
+            if (CONNECTION_STATE.matcher(statement.getQueryString()).find()) {
+                return null;
+            }
+        }
+        File file = File.createTempFile(globalState.getDatabaseName() + "-snapshot", ".db",
+                SQLite3Provider.getDatabaseDirectory());
+        // VACUUM INTO requires that the file does not exist
+        Files.delete(file.toPath());
+        try (Statement s = globalState.getConnection().createStatement()) {
+            try (ResultSet rs = s.executeQuery("SELECT COUNT(*) FROM temp.sqlite_master")) {
+                if (!rs.next() || rs.getInt(1) != 0) {
+                    return null;
+                }
+            }
+            s.execute("VACUUM INTO '" + file.getAbsolutePath().replace("'", "''") + "'");
+        } catch (SQLException e) {
+            // e.g., a transaction is active
+            Files.deleteIfExists(file.toPath());
+            return null;
+        }
+        return new SQLite3Snapshot(file);
+    }
+
+    @Override
+    public SQLConnection restore(SQLite3GlobalState globalState) throws Exception {
+        File dataBase = SQLite3Provider.getDatabaseFile(globalState);
+        Files.copy(file.toPath(), dataBase.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return new SQLConnection(DriverManager.getConnection("jdbc:sqlite:" + dataBase.getAbsolutePath()));
+    }
+
+    @Override
+    public void close() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+}
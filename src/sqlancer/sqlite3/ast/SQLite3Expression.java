@@ -64,7 +64,7 @@ public abstract class SQLite3Expression {
         }
 
         @Override
-        public SQLite3Constant getExpectedValue() {
+        protected SQLite3Constant computeExpectedValue() {
             return expr.getExpectedValue();
         }
 
@@ -80,7 +80,27 @@ public abstract class SQLite3Expression {
 
     }
 
+    private SQLite3Constant expectedValue;
+    private boolean isExpectedValueComputed;
+
+    /**
+     * Returns the value that the expression evaluates to for the pivot row, or <code>null</code> if it cannot be
+     * computed. The value is computed only once, since the pivot row's values are fixed when the expression tree is
+     * created, and operators query the expected values of their operands several times. Otherwise, evaluating an
+     * expression tree, which happens repeatedly during its generation, for the rectification, for the containment
+     * check, and when reporting a missing pivot row, would take exponential time in the depth of the tree.
+     *
+     * @return the expected value
+     */
     public SQLite3Constant getExpectedValue() {
+        if (!isExpectedValueComputed) {
+            expectedValue = computeExpectedValue();
+            isExpectedValueComputed = true;
+        }
+        return expectedValue;
+    }
+
+    protected SQLite3Constant computeExpectedValue() {
         return null;
     }
 
@@ -277,7 +297,7 @@ public abstract class SQLite3Expression {
         }
 
         @Override
-        public SQLite3Constant getExpectedValue() {
+        protected SQLite3Constant computeExpectedValue() {
             if (expression.getExpectedValue() == null) {
                 return null;
             } else {
@@ -366,7 +386,7 @@ public abstract class SQLite3Expression {
         }
 
         @Override
-        public SQLite3Constant getExpectedValue() {
+        protected SQLite3Constant computeExpectedValue() {
             return getTopNode().getExpectedValue();
         }
 
@@ -475,7 +495,7 @@ public abstract class SQLite3Expression {
         }
 
         @Override
-        public SQLite3Constant getExpectedValue() {
+        protected SQLite3Constant computeExpectedValue() {
             return expression.getExpectedValue();
         }
 
@@ -587,7 +607,7 @@ public abstract class SQLite3Expression {
         }
 
         @Override
-        public SQLite3Constant getExpectedValue() {
+        protected SQLite3Constant computeExpectedValue() {
             if (expression.getExpectedValue() == null) {
                 return null;
             }
@@ -651,7 +671,7 @@ public abstract class SQLite3Expression {
         }
 
         @Override
-        public SQLite3Constant getExpectedValue() {
+        protected SQLite3Constant computeExpectedValue() {
             // TODO query as right hand side is not implemented
             if (left.getExpectedValue() == null) {
                 return null;
@@ -746,7 +766,7 @@ public abstract class SQLite3Expression {
         }
 
         @Override
-        public SQLite3Constant getExpectedValue() {
+        protected SQLite3Constant computeExpectedValue() {
             SQLite3Constant leftExpected = left.getExpectedValue();
             SQLite3Constant rightExpected = right.getExpectedValue();
             if (leftExpected == null || rightExpected == null) {
@@ -1344,7 +1364,7 @@ public abstract class SQLite3Expression {
         }
 
         @Override
-        public SQLite3Constant getExpectedValue() {
+        protected SQLite3Constant computeExpectedValue() {
             if (left.getExpectedValue() == null || right.getExpectedValue() == null) {
                 return null;
             }
@@ -12,14 +12,14 @@ public final class SQLite3DropTableGenerator {
     }
 
     public static SQLQueryAdapter dropTable(SQLite3GlobalState globalState) {
-        if (globalState.getSchema().getTables(t -> !t.isView()).size() == 1) {
+        if (globalState.getSchema().getDatabaseTablesWithoutViews().size() == 1) {
             throw new IgnoreMeException();
         }
         StringBuilder sb = new StringBuilder("DROP TABLE ");
         if (Randomly.getBoolean()) {
             sb.append("IF EXISTS ");
         }
-        sb.append(globalState.getSchema().getRandomTableOrBailout(t -> !t.isView()).getName());
+        sb.append(globalState.getSchema().getRandomTableNoViewOrBailout().getName());
         return new SQLQueryAdapter(sb.toString(),
                 ExpectedErrors.from("[SQLITE_ERROR] SQL error or missing database (foreign key mismatch",
                         "Abort due to constraint violation (FOREIGN KEY constraint failed)",
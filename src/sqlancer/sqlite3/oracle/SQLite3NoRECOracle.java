@@ -84,6 +84,7 @@ public class SQLite3NoRECOracle extends NoRECBase<SQLite3GlobalState> implements
 
         Function<SQLite3GlobalState, Integer> optimizedQuery = getOptimizedQuery(select, randomWhereCondition);
         Function<SQLite3GlobalState, Integer> unoptimizedQuery = getUnoptimizedQuery(select, randomWhereCondition);
+        setCountQueryStrings(select, randomWhereCondition);
         int optimizedCount = optimizedQuery.apply(state);
         int unoptimizedCount = unoptimizedQuery.apply(state);
         if (optimizedCount == NO_VALID_RESULT || unoptimizedCount == NO_VALID_RESULT) {
@@ -107,6 +108,16 @@ public class SQLite3NoRECOracle extends NoRECBase<SQLite3GlobalState> implements
         return optimizedQueryString;
     }
 
+    // expects the select of the unoptimized query
+    private void setCountQueryStrings(SQLite3Select select, SQLite3Expression randomWhereCondition) {
+        select.setOrderByExpressions(Collections.emptyList());
+        unoptimizedCountQueryString = "SELECT SUM(count) FROM (" + SQLite3Visitor.asString(select) + ")";
+        select.setFetchColumns(Arrays.asList(
+                new SQLite3Aggregate(Collections.emptyList(), SQLite3Aggregate.SQLite3AggregateFunction.COUNT_ALL)));
+        select.setWhereClause(randomWhereCondition);
+        optimizedCountQueryString = SQLite3Visitor.asString(select);
+    }
+
     private Function<SQLite3GlobalState, Integer> getUnoptimizedQuery(SQLite3Select select,
             SQLite3Expression randomWhereCondition) throws SQLException {
         SQLite3PostfixUnaryOperation isTrue = new SQLite3PostfixUnaryOperation(PostfixUnaryOperator.IS_TRUE,
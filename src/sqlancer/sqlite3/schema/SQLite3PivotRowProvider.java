@@ -0,0 +1,146 @@
+package sqlancer.sqlite3.schema;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import sqlancer.IgnoreMeException;
+import sqlancer.Randomly;
+import sqlancer.sqlite3.SQLite3GlobalState;
+import sqlancer.sqlite3.ast.SQLite3Constant;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Column;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3RowValue;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Table;
+import sqlancer.sqlite3.schema.SQLite3Schema.SQLite3Tables;
+
+/**
+ * Selects the pivot rows for PQS. Rather than fetching a random row of the cross product of the tables with
+ * <code>ORDER BY RANDOM() LIMIT 1</code>, which sorts the whole cross product for every pivot row, the provider
+ * combines a random row of each table, which is equivalent, since each row of the cross product consists of one row of
+ * each table. The rows of a table are sampled by reservoir sampling while scanning the table once, and the sample is
+ * kept until the table's rows might have changed (see {@link SQLite3Table#getRowsVersion()}), so that most pivot rows
+ * are obtained without querying the database.
+ */
+public class SQLite3PivotRowProvider {
+
+    private final SQLite3GlobalState globalState;
+    private final int sampleSize;
+    private final Map<String, SampledRows> sampledRowsByTable = new HashMap<>();
+
+    private static final class SampledRows {
+
+        private final SQLite3Table table;
+        private final int rowsVersion;
+        // the values of each sampled row, in the order of the table's columns
+        private final List<SQLite3Constant[]> rows;
+
+        SampledRows(SQLite3Table table, int rowsVersion, List<SQLite3Constant[]> rows) {
+            this.table = table;
+            this.rowsVersion = rowsVersion;
+            this.rows = rows;
+        }
+
+    }
+
+    public SQLite3PivotRowProvider(SQLite3GlobalState globalState) {
+        this.globalState = globalState;
+        this.sampleSize = Math.max(1, globalState.getDbmsSpecificOptions().pivotRowSampleSize);
+    }
+
+    /**
+     * Selects a random row of the cross product of the given tables.
+     *
+     * @param tables
+     *            the tables
+     *
+     * @return the pivot row
+     *
+     * @throws SQLException
+     *             if the rows cannot be read
+     * @throws IgnoreMeException
+     *             if a table does not contain any rows
+     */
+    public SQLite3RowValue getRandomRowValue(SQLite3Tables tables) throws SQLException {
+        Map<SQLite3Column, SQLite3Constant> values = new HashMap<>();
+        for (SQLite3Table table : tables.getTables()) {
+            List<SQLite3Constant[]> rows = getSampledRows(table);
+            if (rows.isEmpty()) {
+                throw new IgnoreMeException();
+            }
+            SQLite3Constant[] row = Randomly.fromList(rows);
+            List<SQLite3Column> columns = table.getColumns();
+            for (int i = 0; i < columns.size(); i++) {
+                values.put(columns.get(i), row[i]);
+            }
+        }
+        return new SQLite3RowValue(tables, values);
+    }
+
+    private List<SQLite3Constant[]> getSampledRows(SQLite3Table table) throws SQLException {
+        SampledRows sampledRows = sampledRowsByTable.get(table.getName());
+        // a schema change creates a new table object, whose rows version is unrelated to that of the old one
+        if (sampledRows == null || sampledRows.table != table || sampledRows.rowsVersion != table.getRowsVersion()) {
+            sampledRows = new SampledRows(table, table.getRowsVersion(), sampleRows(table));
+            sampledRowsByTable.put(table.getName(), sampledRows);
+        }
+        return sampledRows.rows;
+    }
+
+    private List<SQLite3Constant[]> sampleRows(SQLite3Table table) throws SQLException {
+        List<SQLite3Column> columns = table.getColumns();
+        SQLite3Tables singleTable = new SQLite3Tables(List.of(table));
+        String query = String.format("SELECT %s, %s FROM %s",
+                singleTable.columnNamesAsString(c -> table.getName() + "." + c.getName()),
+                singleTable.columnNamesAsString(c -> "typeof(" + table.getName() + "." + c.getName() + ")"),
+                table.getName());
+        List<SQLite3Constant[]> sample = new ArrayList<>();
+        try (Statement s = globalState.getConnection().createStatement()) {
+            ResultSet rs;
+            try {
+                rs = s.executeQuery(query);
+            } catch (SQLException e) {
+                throw new IgnoreMeException();
+            }
+            int nrRows = 0;
+            while (rs.next()) {
+                nrRows++;
+                int position = sample.size();
+                if (position == sampleSize) {
+                    // replace a sampled row with probability sampleSize / nrRows
+                    position = (int) Randomly.getNotCachedInteger(0, nrRows);
+                    if (position >= sampleSize) {
+                        continue;
+                    }
+                }
+                SQLite3Constant[] row = readRow(rs, columns);
+                if (row == null) {
+                    nrRows--; // treat the row as if it did not exist
+                } else if (position == sample.size()) {
+                    sample.add(row);
+                } else {
+                    sample.set(position, row);
+                }
+            }
+        }
+        return sample;
+    }
+
+    // returns null if a value cannot be represented faithfully
+    private static SQLite3Constant[] readRow(ResultSet rs, List<SQLite3Column> columns) throws SQLException {
+        SQLite3Constant[] row = new SQLite3Constant[columns.size()];
+        try {
+            for (int i = 0; i < columns.size(); i++) {
+                String typeString = rs.getString(columns.size() + i + 1);
+                row[i] = SQLite3Schema.getConstant(rs, i + 1, SQLite3Schema.getColumnType(typeString));
+            }
+        } catch (IgnoreMeException e) {
+            return null;
+        }
+        return row;
+    }
+
+}
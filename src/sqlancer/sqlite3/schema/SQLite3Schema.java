@@ -6,9 +6,9 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 import sqlancer.IgnoreMeException;
@@ -19,6 +19,7 @@ import sqlancer.common.schema.AbstractRowValue;
 import sqlancer.common.schema.AbstractSchema;
 import sqlancer.common.schema.AbstractTableColumn;
 import sqlancer.common.schema.AbstractTables;
+import sqlancer.common.schema.SchemaChange;
 import sqlancer.common.schema.TableIndex;
 import sqlancer.sqlite3.SQLite3GlobalState;
 import sqlancer.sqlite3.ast.SQLite3Constant;
@@ -155,38 +156,6 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
             super(tables);
         }
 
-        public SQLite3RowValue getRandomRowValue(SQLConnection con) throws SQLException {
-            String randomRow = String.format("SELECT %s, %s FROM %s ORDER BY RANDOM() LIMIT 1", columnNamesAsString(
-                    c -> c.getTable().getName() + "." + c.getName() + " AS " + c.getTable().getName() + c.getName()),
-                    columnNamesAsString(c -> "typeof(" + c.getTable().getName() + "." + c.getName() + ")"),
-                    tableNamesAsString());
-            Map<SQLite3Column, SQLite3Constant> values = new HashMap<>();
-            try (Statement s = con.createStatement()) {
-                ResultSet randomRowValues;
-                try {
-                    randomRowValues = s.executeQuery(randomRow);
-                } catch (SQLException e) {
-                    throw new IgnoreMeException();
-                }
-                if (!randomRowValues.next()) {
-                    throw new IgnoreMeException();
-                    // throw new AssertionError("could not find random row! " + randomRow);
-                }
-                for (int i = 0; i < getColumns().size(); i++) {
-                    SQLite3Column column = getColumns().get(i);
-                    int columnIndex = randomRowValues.findColumn(column.getTable().getName() + column.getName());
-                    assert columnIndex == i + 1;
-                    String typeString = randomRowValues.getString(columnIndex + getColumns().size());
-                    SQLite3DataType valueType = getColumnType(typeString);
-                    SQLite3Constant constant = getConstant(randomRowValues, columnIndex, valueType);
-                    values.put(column, constant);
-                }
-                assert !randomRowValues.next();
-                return new SQLite3RowValue(this, values);
-            }
-
-        }
-
     }
 
     public static class SQLite3Table extends AbstractRelationalTable<SQLite3Column, TableIndex, SQLite3GlobalState> {
@@ -270,57 +239,74 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
 
     public static SQLite3Schema fromConnection(SQLite3GlobalState globalState) throws SQLException {
         List<SQLite3Table> databaseTables = new ArrayList<>();
-        List<String> indexNames = new ArrayList<>();
         SQLConnection con = globalState.getConnection();
 
         try (Statement s = con.createStatement()) {
-            try (ResultSet rs = s.executeQuery("SELECT name, type as category, sql FROM sqlite_master UNION "
-                    + "SELECT name, 'temp_table' as category, sql FROM sqlite_temp_master WHERE type='table' UNION SELECT name, 'view' as category, sql FROM sqlite_temp_master WHERE type='view' GROUP BY name;")) {
+            try (ResultSet rs = s.executeQuery(getTablesQuery(""))) {
                 while (rs.next()) {
                     String tableName = rs.getString("name");
-                    String tableType = rs.getString("category");
-                    boolean isReadOnly;
                     if (databaseTables.stream().anyMatch(t -> t.getName().contentEquals(tableName))) {
                         continue;
                     }
-                    String sqlString = rs.getString("sql") == null ? "" : rs.getString("sql").toLowerCase();
-                    if (tableName.startsWith("sqlite_") || tableType.equals("index") || tableType.equals("trigger")
-                            || tableName.endsWith("_idx") || tableName.endsWith("_docsize")
-                            || tableName.endsWith("_content") || tableName.endsWith("_data")
-                            || tableName.endsWith("_config") || tableName.endsWith("_segdir")
-                            || tableName.endsWith("_stat") || tableName.endsWith("_segments")
-                            || tableName.contains("_")) {
-                        continue; // TODO
-                    } else if (sqlString.contains("using dbstat")) {
-                        isReadOnly = true;
-                    } else if (sqlString.contains("content=''")) {
-                        isReadOnly = true;
-                    } else {
-                        isReadOnly = false;
-                    }
-                    boolean withoutRowid = sqlString.contains("without rowid");
-                    boolean isView = tableType.contentEquals("view");
-                    boolean isVirtual = sqlString.contains("virtual");
-                    boolean isDbStatsTable = sqlString.contains("using dbstat");
-                    List<SQLite3Column> databaseColumns = getTableColumns(con, tableName, sqlString, isView,
-                            isDbStatsTable);
-                    SQLite3Table t = new SQLite3Table(tableName, databaseColumns,
-                            tableType.contentEquals("temp_table") ? TableKind.TEMP : TableKind.MAIN, withoutRowid,
-                            isView, isVirtual, isReadOnly);
-                    if (isRowIdTable(withoutRowid, isView, isVirtual)) {
-                        String rowId = Randomly.fromList(ROWID_STRINGS);
-                        SQLite3Column rowid = new SQLite3Column(rowId, SQLite3DataType.INT, true, null, true);
-                        t.addRowid(rowid);
-                        rowid.setTable(t);
-                    }
-                    for (SQLite3Column c : databaseColumns) {
-                        c.setTable(t);
+                    SQLite3Table t = readTable(con, tableName, rs.getString("category"), rs.getString("sql"));
+                    if (t != null) {
+                        databaseTables.add(t);
                     }
-                    databaseTables.add(t);
                 }
             } catch (SQLException e) {
                 // ignore
             }
+        }
+
+        return new SQLite3Schema(databaseTables, readIndexNames(con));
+    }
+
+    private static String getTablesQuery(String condition) {
+        return String.format("SELECT name, type as category, sql FROM sqlite_master%s UNION "
+                + "SELECT name, 'temp_table' as category, sql FROM sqlite_temp_master WHERE type='table'%s UNION SELECT name, 'view' as category, sql FROM sqlite_temp_master WHERE type='view'%s GROUP BY name;",
+                condition.isEmpty() ? "" : " WHERE" + condition, condition.isEmpty() ? "" : " AND" + condition,
+                condition.isEmpty() ? "" : " AND" + condition);
+    }
+
+    private static SQLite3Table readTable(SQLConnection con, String tableName, String tableType, String sql)
+            throws SQLException {
+        boolean isReadOnly;
+        String sqlString = sql == null ? "" : sql.toLowerCase();
+        if (tableName.startsWith("sqlite_") || tableType.equals("index") || tableType.equals("trigger")
+                || tableName.endsWith("_idx") || tableName.endsWith("_docsize") || tableName.endsWith("_content")
+                || tableName.endsWith("_data") || tableName.endsWith("_config") || tableName.endsWith("_segdir")
+                || tableName.endsWith("_stat") || tableName.endsWith("_segments") || tableName.contains("_")) {
+            return null; // TODO
+        } else if (sqlString.contains("using dbstat")) {
+            isReadOnly = true;
+        } else if (sqlString.contains("content=''")) {
+            isReadOnly = true;
+        } else {
+            isReadOnly = false;
+        }
+        boolean withoutRowid = sqlString.contains("without rowid");
+        boolean isView = tableType.contentEquals("view");
+        boolean isVirtual = sqlString.contains("virtual");
+        boolean isDbStatsTable = sqlString.contains("using dbstat");
+        List<SQLite3Column> databaseColumns = getTableColumns(con, tableName, sqlString, isView, isDbStatsTable);
+        SQLite3Table t = new SQLite3Table(tableName, databaseColumns,
+                tableType.contentEquals("temp_table") ? TableKind.TEMP : TableKind.MAIN, withoutRowid, isView,
+                isVirtual, isReadOnly);
+        if (isRowIdTable(withoutRowid, isView, isVirtual)) {
+            String rowId = Randomly.fromList(ROWID_STRINGS);
+            SQLite3Column rowid = new SQLite3Column(rowId, SQLite3DataType.INT, true, null, true);
+            t.addRowid(rowid);
+            rowid.setTable(t);
+        }
+        for (SQLite3Column c : databaseColumns) {
+            c.setTable(t);
+        }
+        return t;
+    }
+
+    private static List<String> readIndexNames(SQLConnection con) throws SQLException {
+        List<String> indexNames = new ArrayList<>();
+        try (Statement s = con.createStatement()) {
             try (ResultSet rs = s.executeQuery(
                     "SELECT name FROM SQLite_master WHERE type = 'index' UNION SELECT name FROM sqlite_temp_master WHERE type='index'")) {
                 while (rs.next()) {
@@ -336,8 +322,88 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
                 }
             }
         }
+        return indexNames;
+    }
 
-        return new SQLite3Schema(databaseTables, indexNames);
+    /**
+     * Applies the effect of a DDL statement to the schema by reading only the affected table or indexes.
+     *
+     * @param globalState
+     *            the global state of the database
+     * @param change
+     *            the effect of the statement, which must not be of kind {@link SchemaChange.Kind#UNKNOWN}
+     *
+     * @return the updated schema, or null if the change could also affect the columns of views, which requires reading
+     *         the whole schema
+     *
+     * @throws SQLException
+     *             if the affected table cannot be read
+     */
+    public SQLite3Schema withSchemaChange(SQLite3GlobalState globalState, SchemaChange change) throws SQLException {
+        String name = change.getObjectName();
+        switch (change.getKind()) {
+        case NONE:
+            return this;
+        case CREATE_INDEX:
+            if (indexNames.stream().anyMatch(hasIndexName(name))) {
+                return this;
+            }
+            List<String> newIndexNames = new ArrayList<>(indexNames);
+            newIndexNames.add(name);
+            return new SQLite3Schema(getDatabaseTables(), newIndexNames);
+        case DROP_INDEX:
+            return new SQLite3Schema(getDatabaseTables(),
+                    indexNames.stream().filter(hasIndexName(name).negate()).collect(Collectors.toList()));
+        case DROP_TABLE:
+            if (!getViews().isEmpty()) {
+                return null;
+            }
+            // the table's indexes are dropped as well
+            return new SQLite3Schema(getTablesExcept(name), readIndexNames(globalState.getConnection()));
+        case ALTER_TABLE:
+            if (!getViews().isEmpty()) {
+                return null;
+            }
+            // fall through
+        case CREATE_TABLE:
+            List<SQLite3Table> tables = getTablesExcept(name);
+            SQLite3Table table = readTable(globalState.getConnection(), name);
+            if (table != null) {
+                tables.add(table);
+            }
+            return new SQLite3Schema(tables, indexNames);
+        default:
+            throw new AssertionError(change);
+        }
+    }
+
+    // index names are case-insensitive in SQLite
+    private static Predicate<String> hasIndexName(String name) {
+        return indexName -> indexName.equalsIgnoreCase(name);
+    }
+
+    private List<SQLite3Table> getTablesExcept(String name) {
+        return getDatabaseTables().stream().filter(t -> !t.getName().equalsIgnoreCase(name))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    private static SQLite3Table readTable(SQLConnection con, String name) throws SQLException {
+        String condition = String.format(" name='%s' COLLATE NOCASE", name.replace("'", "''"));
+        try (Statement s = con.createStatement()) {
+            try (ResultSet rs = s.executeQuery(getTablesQuery(condition))) {
+                if (!rs.next()) {
+                    return null;
+                }
+                return readTable(con, rs.getString("name"), rs.getString("category"), rs.getString("sql"));
+            }
+        }
+    }
+
+    @Override
+    public String getCanonicalDescription() {
+        StringBuilder sb = new StringBuilder(super.getCanonicalDescription());
+        indexNames.stream().sorted().forEach(i -> sb.append("index ").append(i).append('\n'));
+        return sb.toString();
     }
 
     // https://www.sqlite.org/rowidtable.html
@@ -459,7 +525,7 @@ public class SQLite3Schema extends AbstractSchema<SQLite3GlobalState, SQLite3Tab
     }
 
     public List<SQLite3Table> getDatabaseTablesWithoutViewsWithoutVirtualTables() {
-        return getDatabaseTables().stream().filter(t -> !t.isView() && !t.isVirtual).collect(Collectors.toList());
+        return getTables(t -> !t.isView() && !t.isVirtual);
     }
 
     public String getFreeVirtualTableName() {
@@ -1,6 +1,5 @@
 package sqlancer.tidb;
 
-import java.io.IOException;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
@@ -46,7 +45,7 @@ public class TiDBProvider extends SQLProviderAdapter<TiDBGlobalState, TiDBOption
         VIEW_GENERATOR(TiDBViewGenerator::getQuery), // 2
         INSERT(TiDBInsertGenerator::getQuery), // 3
         ALTER_TABLE(TiDBAlterTableGenerator::getQuery), // 4
-        TRUNCATE((g) -> new SQLQueryAdapter("TRUNCATE " + g.getSchema().getRandomTable(t -> !t.isView()).getName())), // 5
+        TRUNCATE((g) -> new SQLQueryAdapter("TRUNCATE " + g.getSchema().getRandomTableNoView().getName())), // 5
         UPDATE(TiDBUpdateGenerator::getQuery), // 6
         DELETE(TiDBDeleteGenerator::getQuery), // 7
         SET(TiDBSetGenerator::getQuery), // 8
@@ -176,11 +175,6 @@ public class TiDBProvider extends SQLProviderAdapter<TiDBGlobalState, TiDBOption
         String queryPlan = "";
         if (globalState.getOptions().logEachSelect()) {
             globalState.getLogger().writeCurrent(selectStr);
-            try {
-                globalState.getLogger().getCurrentFileWriter().flush();
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
         }
 
         SQLQueryAdapter q = new SQLQueryAdapter("EXPLAIN " + selectStr);
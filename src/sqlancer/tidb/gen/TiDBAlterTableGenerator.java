@@ -31,7 +31,7 @@ public final class TiDBAlterTableGenerator {
         errors.add("SQL syntax");
         errors.add("can't drop");
         StringBuilder sb = new StringBuilder("ALTER TABLE ");
-        TiDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        TiDBTable table = globalState.getSchema().getRandomTableNoView();
         TiDBColumn column = table.getRandomColumn();
         sb.append(table.getName());
         Action a = Randomly.fromOptions(Action.values());
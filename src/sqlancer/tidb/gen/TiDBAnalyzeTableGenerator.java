@@ -15,7 +15,7 @@ public final class TiDBAnalyzeTableGenerator {
 
     public static SQLQueryAdapter getQuery(TiDBGlobalState globalState) throws SQLException {
         ExpectedErrors errors = new ExpectedErrors();
-        TiDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        TiDBTable table = globalState.getSchema().getRandomTableNoView();
         boolean analyzeIndex = !table.getIndexes().isEmpty() && Randomly.getBoolean();
         StringBuilder sb = new StringBuilder("ANALYZE ");
         if (analyzeIndex && Randomly.getBoolean()) {
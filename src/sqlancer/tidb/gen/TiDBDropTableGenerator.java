@@ -11,14 +11,14 @@ public final class TiDBDropTableGenerator {
     }
 
     public static SQLQueryAdapter dropTable(TiDBGlobalState globalState) {
-        if (globalState.getSchema().getTables(t -> !t.isView()).size() <= 1) {
+        if (globalState.getSchema().getDatabaseTablesWithoutViews().size() <= 1) {
             throw new IgnoreMeException();
         }
         StringBuilder sb = new StringBuilder("DROP TABLE ");
         if (Randomly.getBoolean()) {
             sb.append("IF EXISTS ");
         }
-        sb.append(globalState.getSchema().getRandomTableOrBailout(t -> !t.isView()).getName());
+        sb.append(globalState.getSchema().getRandomTableNoViewOrBailout().getName());
         return new SQLQueryAdapter(sb.toString(), null, true);
     }
 
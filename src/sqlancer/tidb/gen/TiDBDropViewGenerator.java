@@ -11,14 +11,14 @@ public final class TiDBDropViewGenerator {
     }
 
     public static SQLQueryAdapter dropView(TiDBGlobalState globalState) {
-        if (globalState.getSchema().getTables(t -> t.isView()).size() == 0) {
+        if (globalState.getSchema().getViews().size() == 0) {
             throw new IgnoreMeException();
         }
         StringBuilder sb = new StringBuilder("DROP VIEW ");
         if (Randomly.getBoolean()) {
             sb.append("IF EXISTS ");
         }
-        sb.append(globalState.getSchema().getRandomTableOrBailout(t -> t.isView()).getName());
+        sb.append(globalState.getSchema().getRandomViewOrBailout().getName());
         return new SQLQueryAdapter(sb.toString(), null, true);
     }
 
@@ -22,7 +22,7 @@ public final class TiDBIndexGenerator {
         }
         ExpectedErrors errors = new ExpectedErrors();
 
-        TiDBTable randomTable = globalState.getSchema().getRandomTable(t -> !t.isView());
+        TiDBTable randomTable = globalState.getSchema().getRandomTableNoView();
         String indexName = globalState.getSchema().getFreeIndexName();
         StringBuilder sb = new StringBuilder("CREATE ");
         if (Randomly.getBooleanWithRatherLowProbability()) {
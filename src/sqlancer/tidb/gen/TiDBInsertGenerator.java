@@ -30,7 +30,7 @@ public class TiDBInsertGenerator {
     }
 
     private SQLQueryAdapter get() {
-        TiDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        TiDBTable table = globalState.getSchema().getRandomTableNoView();
         gen = new TiDBExpressionGenerator(globalState).setColumns(table.getColumns());
         StringBuilder sb = new StringBuilder();
         boolean isInsert = Randomly.getBoolean();
@@ -27,7 +27,7 @@ public final class TiDBUpdateGenerator extends AbstractUpdateGenerator<TiDBColum
     }
 
     private SQLQueryAdapter generate() throws SQLException {
-        TiDBTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        TiDBTable table = globalState.getSchema().getRandomTableNoView();
         List<TiDBColumn> columns = table.getRandomNonEmptyColumnSubset();
         gen = new TiDBExpressionGenerator(globalState).setColumns(table.getColumns());
         sb.append("UPDATE ");
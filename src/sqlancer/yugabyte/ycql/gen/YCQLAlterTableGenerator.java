@@ -19,7 +19,7 @@ public final class YCQLAlterTableGenerator {
     public static SQLQueryAdapter getQuery(YCQLGlobalState globalState) {
         ExpectedErrors errors = new ExpectedErrors();
         StringBuilder sb = new StringBuilder("ALTER TABLE ");
-        YCQLTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        YCQLTable table = globalState.getSchema().getRandomTableNoView();
         sb.append(table.getName());
         sb.append(" ");
         Action action = Randomly.fromOptions(Action.values());
@@ -16,7 +16,7 @@ public final class YCQLDeleteGenerator {
     public static SQLQueryAdapter generate(YCQLGlobalState globalState) {
         StringBuilder sb = new StringBuilder("DELETE FROM ");
         ExpectedErrors errors = new ExpectedErrors();
-        YCQLTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        YCQLTable table = globalState.getSchema().getRandomTableNoView();
         sb.append(table.getName());
         if (Randomly.getBoolean()) {
             sb.append(" WHERE ");
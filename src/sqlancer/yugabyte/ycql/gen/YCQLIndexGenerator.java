@@ -28,7 +28,7 @@ public final class YCQLIndexGenerator {
         sb.append("INDEX ");
         sb.append(Randomly.fromOptions("i0", "i1", "i2", "i3", "i4"));
         sb.append(" ON ");
-        YCQLTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        YCQLTable table = globalState.getSchema().getRandomTableNoView();
         sb.append(table.getName());
         sb.append("(");
         List<YCQLColumn> columns = table.getRandomNonEmptyColumnSubset();
@@ -28,7 +28,7 @@ public class YCQLInsertGenerator extends AbstractInsertGenerator<YCQLColumn> {
 
     private SQLQueryAdapter generate() {
         sb.append("INSERT INTO ");
-        YCQLTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        YCQLTable table = globalState.getSchema().getRandomTableNoView();
         List<YCQLColumn> columns = table.getColumns();
         sb.append(globalState.getDatabaseName()).append(".").append(table.getName());
         sb.append("(");
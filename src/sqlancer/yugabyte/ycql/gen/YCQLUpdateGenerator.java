@@ -27,7 +27,7 @@ public final class YCQLUpdateGenerator extends AbstractUpdateGenerator<YCQLColum
     }
 
     private SQLQueryAdapter generate() {
-        YCQLTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        YCQLTable table = globalState.getSchema().getRandomTableNoView();
         List<YCQLColumn> columns = table.getRandomNonEmptyColumnSubset();
         gen = new YCQLExpressionGenerator(globalState).setColumns(table.getColumns());
         sb.append("UPDATE ");
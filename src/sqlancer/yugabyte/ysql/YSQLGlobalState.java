@@ -13,6 +13,7 @@ import java.util.Map;
 import sqlancer.Randomly;
 import sqlancer.SQLConnection;
 import sqlancer.SQLGlobalState;
+import sqlancer.common.query.Query;
 
 public class YSQLGlobalState extends SQLGlobalState<YSQLOptions, YSQLSchema> {
 
@@ -124,4 +125,10 @@ public class YSQLGlobalState extends SQLGlobalState<YSQLOptions, YSQLSchema> {
         this.allowedFunctionTypes = types;
     }
 
+    @Override
+    public boolean canBeBatched(Query<?> q) {
+        // the driver executes a batch in one implicit transaction, so a failing statement rolls back the earlier ones
+        return false;
+    }
+
 }
@@ -320,7 +320,7 @@ public class YSQLProvider extends SQLProviderAdapter<YSQLGlobalState, YSQLOption
 
     public enum Action implements AbstractAction<YSQLGlobalState> {
         ANALYZE(YSQLAnalyzeGenerator::create), //
-        ALTER_TABLE(g -> YSQLAlterTableGenerator.create(g.getSchema().getRandomTable(t -> !t.isView()), g)), //
+        ALTER_TABLE(g -> YSQLAlterTableGenerator.create(g.getSchema().getRandomTableNoView(), g)), //
         COMMIT(g -> {
             SQLQueryAdapter query;
             if (Randomly.getBoolean()) {
@@ -18,7 +18,7 @@ public final class YSQLClusterGenerator {
         errors.add("access method does not support clustering");
         StringBuilder sb = new StringBuilder("CLUSTER ");
         if (Randomly.getBoolean()) {
-            YSQLTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+            YSQLTable table = globalState.getSchema().getRandomTableNoView();
             sb.append(table.getName());
             if (Randomly.getBoolean() && !table.getIndexes().isEmpty()) {
                 sb.append(" USING ");
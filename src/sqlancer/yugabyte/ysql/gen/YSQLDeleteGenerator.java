@@ -15,7 +15,7 @@ public final class YSQLDeleteGenerator {
     }
 
     public static SQLQueryAdapter create(YSQLGlobalState globalState) {
-        YSQLTable table = globalState.getSchema().getRandomTable(t -> !t.isView());
+        YSQLTable table = globalState.getSchema().getRandomTableNoView();
         ExpectedErrors errors = new ExpectedErrors();
         errors.add("violates foreign key constraint");
         errors.add("violates not-null constraint");
@@ -30,7 +30,7 @@ public final class YSQLIndexGenerator {
             sb.append(" UNIQUE");
         }
         sb.append(" INDEX ");
-        YSQLTable randomTable = globalState.getSchema().getRandomTable(t -> !t.isView()); // TODO: materialized
+        YSQLTable randomTable = globalState.getSchema().getRandomTableNoView(); // TODO: materialized
         // views
         String indexName = getNewIndexName(randomTable);
         sb.append(indexName);
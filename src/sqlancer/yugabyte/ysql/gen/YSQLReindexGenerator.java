@@ -36,7 +36,7 @@ public final class YSQLReindexGenerator {
             break;
         case TABLE:
             sb.append("TABLE ");
-            sb.append(globalState.getSchema().getRandomTable(t -> !t.isView()).getName());
+            sb.append(globalState.getSchema().getRandomTableNoView().getName());
             break;
         case DATABASE:
             sb.append("DATABASE ");
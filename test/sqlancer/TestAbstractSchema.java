@@ -0,0 +1,47 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.h2.H2Schema;
+import sqlancer.h2.H2Schema.H2Table;
+
+public class TestAbstractSchema {
+
+    private final H2Table t0 = new H2Table("T0", Collections.emptyList());
+    private final H2Table t1 = new H2Table("T1", Collections.emptyList());
+    private final H2Table v0 = new H2Table("V0", Collections.emptyList());
+    private final H2Schema schema = new H2Schema(Arrays.asList(t0, v0, t1));
+
+    @Test
+    public void testViews() {
+        assertEquals(Arrays.asList(t0, t1), schema.getDatabaseTablesWithoutViews());
+        assertEquals(Arrays.asList(v0), schema.getViews());
+        assertSame(schema.getViews(), schema.getViews());
+        assertSame(v0, schema.getRandomViewOrBailout());
+        assertThrows(UnsupportedOperationException.class, () -> schema.getDatabaseTablesWithoutViews().clear());
+    }
+
+    @Test
+    public void testRandomTables() {
+        assertSame(v0, schema.getRandomView());
+        assertEquals(schema.getDatabaseTablesWithoutViews(), schema.getTables(t -> !t.isView()));
+        assertTrue(schema.getDatabaseTablesWithoutViews().contains(schema.getRandomTableNoView()));
+    }
+
+    @Test
+    public void testTablesByPredicate() {
+        for (String name : new String[] { "T0", "T1", "V0" }) {
+            assertEquals(name, schema.getRandomTable(t -> t.getName().equals(name)).getName());
+        }
+        assertThrows(IgnoreMeException.class, () -> schema.getRandomTableOrBailout(t -> t.getName().isEmpty()));
+    }
+
+}
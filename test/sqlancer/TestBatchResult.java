@@ -0,0 +1,59 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.BatchUpdateException;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.GlobalState.BatchResult;
+
+public class TestBatchResult {
+
+    @Test
+    public void testDriverStopsAtFailure() {
+        SQLException cause = new SQLException("UNIQUE constraint failed");
+        BatchUpdateException e = new BatchUpdateException(new int[] { 1, 1 }, cause);
+        BatchResult result = SQLGlobalState.getBatchResult(e, 5);
+        assertEquals(3, result.getNrExecuted());
+        assertNull(result.getFailure(0));
+        assertNull(result.getFailure(1));
+        assertSame(e, result.getFailure(2));
+    }
+
+    @Test
+    public void testDriverContinuesAfterFailures() {
+        BatchUpdateException e = new BatchUpdateException("first error",
+                new int[] { 1, Statement.EXECUTE_FAILED, 1, Statement.EXECUTE_FAILED });
+        SQLException first = new SQLException("first error");
+        SQLException second = new SQLException("second error");
+        e.setNextException(first);
+        e.setNextException(second);
+        BatchResult result = SQLGlobalState.getBatchResult(e, 4);
+        assertEquals(4, result.getNrExecuted());
+        assertNull(result.getFailure(0));
+        assertSame(first, result.getFailure(1));
+        assertNull(result.getFailure(2));
+        assertSame(second, result.getFailure(3));
+    }
+
+    @Test
+    public void testFailuresWithoutChainedExceptions() {
+        BatchUpdateException e = new BatchUpdateException("error",
+                new int[] { Statement.EXECUTE_FAILED, 1, Statement.EXECUTE_FAILED });
+        BatchResult result = SQLGlobalState.getBatchResult(e, 3);
+        assertSame(e, result.getFailure(0));
+        assertSame(e, result.getFailure(2));
+    }
+
+    @Test
+    public void testUnknownOutcome() {
+        // e.g., sqlite-jdbc reports 0 for the statements that it skipped after a failure
+        assertNull(SQLGlobalState.getBatchResult(new BatchUpdateException("error", new int[] { 1, 0, 0 }), 3));
+    }
+
+}
@@ -1,12 +1,26 @@
 package sqlancer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrowsExactly;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.Arrays;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
+import sqlancer.common.query.ColumnarResultSet;
+import sqlancer.common.query.ColumnarResultSet.ColumnKind;
+import sqlancer.common.query.ColumnarResultSet.ValueCanonicalizer;
+import sqlancer.common.query.ResultSetFingerprint;
+import sqlancer.common.query.SQLancerResultSet;
+
 public class TestComparatorHelper {
     // TODO: Implement tests for the other ComparatorHelper methods
 
@@ -51,4 +65,97 @@ public class TestComparatorHelper {
         });
     }
 
+    @Test
+    public void testFingerprintIsOrderIndependent() {
+        assertEquals(fingerprint("a", "b", null, "c"), fingerprint(null, "c", "b", "a"));
+    }
+
+    @Test
+    public void testFingerprintDistinguishesMultiplicities() {
+        assertNotEquals(fingerprint("a", "a", "b"), fingerprint("a", "b", "b"));
+        assertNotEquals(fingerprint("a", "b"), fingerprint("a", "b", "b"));
+    }
+
+    @Test
+    public void testFingerprintDistinguishesNullFromString() {
+        assertNotEquals(fingerprint((String) null), fingerprint("null"));
+        assertNotEquals(fingerprint(""), fingerprint((String) null));
+    }
+
+    @Test
+    public void testFingerprintAddAll() {
+        ResultSetFingerprint combined = fingerprint("a");
+        combined.addAll(fingerprint("b", "c"));
+        assertEquals(fingerprint("c", "b", "a"), combined);
+        assertEquals(3, combined.getCount());
+    }
+
+    @Test
+    public void testRemoveTrailingZeros() {
+        assertEquals("1", ComparatorHelper.removeTrailingZeros("1.0"));
+        assertEquals("10", ComparatorHelper.removeTrailingZeros("10.000"));
+        assertEquals("1.50", ComparatorHelper.removeTrailingZeros("1.50"));
+        assertEquals("100", ComparatorHelper.removeTrailingZeros("100"));
+        assertEquals("1.", ComparatorHelper.removeTrailingZeros("1."));
+        assertEquals("", ComparatorHelper.removeTrailingZeros(".0"));
+        assertEquals("0", ComparatorHelper.removeTrailingZeros("0"));
+        assertNull(ComparatorHelper.removeTrailingZeros(null));
+    }
+
+    @Test
+    public void testColumnarResultSetComparesWholeRows() throws SQLException {
+        try (Connection con = DriverManager.getConnection("jdbc:h2:mem:")) {
+            try (Statement s = con.createStatement()) {
+                s.execute("CREATE TABLE t0(c0 INT, c1 DOUBLE, c2 VARCHAR)");
+                s.execute("INSERT INTO t0 VALUES (1, -0.0, 'a'), (2, 1.5, NULL), (NULL, NULL, 'b')");
+            }
+            ColumnarResultSet rows = capture(con, "SELECT * FROM t0");
+            assertEquals(3, rows.getRowCount());
+            assertEquals(ColumnKind.LONG, rows.getColumnKind(0));
+            assertEquals(ColumnKind.DOUBLE, rows.getColumnKind(1));
+            assertEquals(ColumnKind.STRING, rows.getColumnKind(2));
+            assertEquals(2, rows.getLong(1, 0));
+            assertEquals(1.5, rows.getDouble(1, 1));
+            assertTrue(rows.isNull(2, 0));
+            assertEquals(Arrays.asList("(1, 0.0, a)", "(2, 1.5, NULL)", "(NULL, NULL, b)"),
+                    rows.getRowsAsStrings(ValueCanonicalizer.DEFAULT));
+
+            ColumnarResultSet reordered = capture(con, "SELECT * FROM t0 ORDER BY c0 DESC");
+            ComparatorHelper.assumeResultSetsAreEqual(rows, reordered, "", Arrays.asList(""), null,
+                    ValueCanonicalizer.DEFAULT);
+
+            ColumnarResultSet otherSecondColumn = capture(con, "SELECT c0, c1 + 1, c2 FROM t0");
+            assertEquals(rows.getFingerprint(ValueCanonicalizer.DEFAULT).getCount(),
+                    otherSecondColumn.getFingerprint(ValueCanonicalizer.DEFAULT).getCount());
+            assertNotEquals(rows.getFingerprint(ValueCanonicalizer.DEFAULT),
+                    otherSecondColumn.getFingerprint(ValueCanonicalizer.DEFAULT));
+        }
+    }
+
+    @Test
+    public void testColumnarResultSetDistinguishesBytes() throws SQLException {
+        try (Connection con = DriverManager.getConnection("jdbc:h2:mem:")) {
+            // the two values have the same 32-bit Arrays.hashCode
+            ColumnarResultSet rows = capture(con, "SELECT X'001F'");
+            ColumnarResultSet otherBytes = capture(con, "SELECT X'0100'");
+            assertEquals(ColumnKind.BYTES, rows.getColumnKind(0));
+            assertNotEquals(rows.getFingerprint(ValueCanonicalizer.DEFAULT),
+                    otherBytes.getFingerprint(ValueCanonicalizer.DEFAULT));
+        }
+    }
+
+    private static ColumnarResultSet capture(Connection con, String query) throws SQLException {
+        try (SQLancerResultSet rs = new SQLancerResultSet(con.createStatement().executeQuery(query))) {
+            return rs.captureRows();
+        }
+    }
+
+    private static ResultSetFingerprint fingerprint(String... values) {
+        ResultSetFingerprint fingerprint = new ResultSetFingerprint();
+        for (String value : values) {
+            fingerprint.add(value);
+        }
+        return fingerprint;
+    }
+
 }
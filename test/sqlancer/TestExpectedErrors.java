@@ -1,7 +1,10 @@
 package sqlancer;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -60,4 +63,59 @@ public class TestExpectedErrors {
         assertTrue(errors.errorIsExpected("PRIMARY KEY constraint was violated!"));
     }
 
+    @Test
+    public void testOverlappingStrings() {
+        ExpectedErrors errors = ExpectedErrors.from("bcx", "cd", "abce");
+        assertTrue(errors.errorIsExpected("abcd"));
+        assertTrue(errors.errorIsExpected("xabcabce"));
+        assertFalse(errors.errorIsExpected("abcbc"));
+        assertTrue(ExpectedErrors.from("").errorIsExpected("a"));
+    }
+
+    @Test
+    public void testAddAfterCheck() {
+        ExpectedErrors errors = ExpectedErrors.from("a");
+        assertFalse(errors.errorIsExpected("b"));
+        errors.add("b");
+        assertTrue(errors.errorIsExpected("b"));
+        errors.addRegex(Pattern.compile("^c$"));
+        assertTrue(errors.errorIsExpected("c"));
+    }
+
+    @Test
+    public void testRegexFlags() {
+        ExpectedErrors errors = new ExpectedErrors();
+        errors.addRegex(Pattern.compile("violated", Pattern.CASE_INSENSITIVE));
+        errors.addRegex(Pattern.compile("(a)\\1"));
+        errors.addRegex(Pattern.compile("x.y", Pattern.LITERAL));
+        assertTrue(errors.errorIsExpected("VIOLATED"));
+        assertTrue(errors.errorIsExpected("aa"));
+        assertFalse(errors.errorIsExpected("ab"));
+        assertTrue(errors.errorIsExpected("x.y"));
+        assertFalse(errors.errorIsExpected("xzy"));
+    }
+
+    @Test
+    public void testStringsRandom() {
+        Randomly r = new Randomly(0);
+        for (int i = 0; i < 1000; i++) {
+            List<String> substrings = new ArrayList<>();
+            for (int j = 0; j < 5; j++) {
+                substrings.add(randomString(r, r.getInteger(1, 4)));
+            }
+            ExpectedErrors errors = new ExpectedErrors().addAll(substrings);
+            String error = randomString(r, 10);
+            assertEquals(substrings.stream().anyMatch(error::contains), errors.errorIsExpected(error));
+            assertEquals(substrings.stream().anyMatch(error::contains), errors.errorIsExpected(error));
+        }
+    }
+
+    private static String randomString(Randomly r, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + r.getInteger(0, 3)));
+        }
+        return sb.toString();
+    }
+
 }
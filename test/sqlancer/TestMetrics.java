@@ -0,0 +1,90 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.metrics.LatencyHistogram;
+import sqlancer.common.metrics.Metrics;
+import sqlancer.common.metrics.StatementSource;
+
+public class TestMetrics {
+
+    @Test
+    public void testPercentilesHaveBoundedRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1000);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMaxNanos());
+        for (double percentile : new double[] { 1, 50, 90, 99, 99.9 }) {
+            double expected = percentile * 1000 * 1000;
+            double actual = histogram.getPercentileNanos(percentile);
+            assertTrue(Math.abs(actual - expected) / expected <= 1.0 / 32, percentile + ": " + actual);
+        }
+        assertEquals(100_000_000, histogram.getPercentileNanos(100));
+        assertEquals(0, new LatencyHistogram().getPercentileNanos(50));
+    }
+
+    @Test
+    public void testSmallAndLargeValues() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-1);
+        histogram.record(3);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(0, histogram.getPercentileNanos(10));
+        assertEquals(3, histogram.getPercentileNanos(50));
+        assertEquals(Long.MAX_VALUE, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void testStatementSourcesSampleSlowStatements() {
+        StatementSource source = StatementSource.ofAction("TEST_SAMPLE");
+        assertSame(source, StatementSource.ofAction("TEST_SAMPLE"));
+        int nrSampled = 0;
+        for (int i = 0; i < 100; i++) {
+            if (source.sampleSlowStatement()) {
+                nrSampled++;
+            }
+        }
+        assertEquals(20, nrSampled);
+        source.getLatencies().record(1000);
+        assertSame(source.getLatencies(), Metrics.getHistogram(StatementSource.STATEMENT_SECONDS, "source_type",
+                "action", "source", "TEST_SAMPLE"));
+    }
+
+    @Test
+    public void testExport() throws IOException {
+        Metrics.setCommonLabels(); // might have been set by other tests that run SQLancer
+        assertSame(Metrics.getCounter("test_export_total", "kind", "a"),
+                Metrics.getCounter("test_export_total", "kind", "a"));
+        Metrics.getCounter("test_export_total", "kind", "a").add(3);
+        Metrics.getHistogram("test_export_seconds", "kind", "q\"uote").record(2_000_000_000L);
+        Path file = Files.createTempFile("metrics", ".prom");
+        try {
+            Metrics.export(file, Metrics.Format.PROMETHEUS);
+            String prometheus = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            assertTrue(prometheus.contains("# TYPE test_export_total counter\ntest_export_total{kind=\"a\"} 3\n"),
+                    prometheus);
+            assertTrue(prometheus.contains("test_export_seconds_count{kind=\"q\\\"uote\"} 1\n"), prometheus);
+            assertTrue(prometheus.contains("test_export_seconds_sum{kind=\"q\\\"uote\"} 2.0\n"), prometheus);
+            Metrics.export(file, Metrics.Format.JSON);
+            String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            assertTrue(
+                    json.contains("{ \"name\": \"test_export_total\", \"labels\": { \"kind\": \"a\" }, \"value\": 3 }"),
+                    json);
+            assertTrue(json.contains("\"count\": 1, \"sum\": 2.0, \"max\": 2.0"), json);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class TestOracleConnectionOptions {
+
+    private static final int ERROR_EXIT_CODE = 3;
+
+    @Test
+    public void testUnsupportedDBMS() {
+        assertEquals(ERROR_EXIT_CODE, Main.executeMain("--exit-code-error", String.valueOf(ERROR_EXIT_CODE),
+                "--num-oracle-connections", "2", "postgres", "--oracle", "NOREC"));
+    }
+
+    @Test
+    public void testQueryPlanGuidance() {
+        assertEquals(ERROR_EXIT_CODE, Main.executeMain("--exit-code-error", String.valueOf(ERROR_EXIT_CODE),
+                "--num-oracle-connections", "2", "--qpg-enable", "true", "sqlite3", "--oracle", "NoREC"));
+    }
+
+}
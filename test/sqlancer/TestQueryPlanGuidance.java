@@ -0,0 +1,93 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class TestQueryPlanGuidance {
+
+    private static final int NR_THREADS = 8;
+    private static final int NR_ITERATIONS = 10000;
+
+    @Test
+    public void testConcurrentRewardUpdates() throws InterruptedException {
+        QueryPlanGuidance qpg = new QueryPlanGuidance(NR_ITERATIONS, 0.0, 0.0, 0.5);
+        runConcurrently(() -> {
+            for (int i = 0; i < NR_ITERATIONS; i++) {
+                qpg.addReward(1, 1.0);
+                qpg.updateReward(2, 0.5, 0.25);
+            }
+        });
+        assertEquals(NR_THREADS * NR_ITERATIONS, qpg.getReward(1));
+        assertEquals(0.5, qpg.getReward(2));
+        assertEquals(1, qpg.getBestMutator());
+    }
+
+    @Test
+    public void testQueryPlanIsNewForOneThreadOnly() throws InterruptedException {
+        QueryPlanGuidance qpg = new QueryPlanGuidance(NR_ITERATIONS, 0.0);
+        AtomicInteger nrNewQueryPlans = new AtomicInteger();
+        runConcurrently(() -> {
+            for (int i = 0; i < NR_ITERATIONS; i++) {
+                if (qpg.addObservedQueryPlan(QueryPlanGuidance.getFingerprint("SCAN t" + i))) {
+                    nrNewQueryPlans.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(NR_ITERATIONS, nrNewQueryPlans.get());
+        assertEquals(NR_ITERATIONS, qpg.getNrObservedQueryPlans());
+        assertFalse(qpg.addObservedQueryPlan(QueryPlanGuidance.getFingerprint("SCAN t0")));
+        assertTrue(qpg.addObservedQueryPlan(QueryPlanGuidance.getFingerprint("SEARCH t0")));
+        assertNotEquals(QueryPlanGuidance.getFingerprint("SCAN t1"), QueryPlanGuidance.getFingerprint("SCAN t2"));
+    }
+
+    @Test
+    public void testCanonicalQueryPlan() {
+        assertEquals("SCAN t0;SEARCH t1 USING INDEX i0 (c0=?);",
+                QueryPlanGuidance.getCanonicalQueryPlan(" SCAN  t0 ;SEARCH t1\tUSING INDEX i0 (c0=?);"));
+        assertEquals("Projection;TableReader;TableFullScan table:t0_1;",
+                QueryPlanGuidance.getCanonicalQueryPlan("Projection_4;TableReader_7;TableFullScan_6 table:t0_1;"));
+        assertEquals("sqlite_autoindex_t0_1;c_a1;",
+                QueryPlanGuidance.getCanonicalQueryPlan("sqlite_autoindex_t0_1;c_a1;"));
+        assertEquals(QueryPlanGuidance.getFingerprint("HashJoin_12;"), QueryPlanGuidance.getFingerprint("HashJoin_3;"));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyObservedQueryPlans() {
+        QueryPlanGuidance qpg = new QueryPlanGuidance(10, 0.0);
+        for (long fingerprint = 0; fingerprint < 100; fingerprint++) {
+            assertTrue(qpg.addObservedQueryPlan(fingerprint));
+            assertFalse(qpg.addObservedQueryPlan(0));
+            assertTrue(qpg.getNrObservedQueryPlans() <= 10);
+        }
+        assertFalse(qpg.addObservedQueryPlan(99));
+        assertTrue(qpg.addObservedQueryPlan(50));
+        Map<Long, String> pool = QueryPlanGuidance.createQueryPlanPool(2);
+        pool.put(1L, "SELECT 1");
+        pool.put(2L, "SELECT 2");
+        pool.putIfAbsent(1L, "SELECT 3");
+        pool.put(3L, "SELECT 4");
+        assertEquals(Map.of(1L, "SELECT 1", 3L, "SELECT 4"), pool);
+    }
+
+    private static void runConcurrently(Runnable runnable) throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < NR_THREADS; i++) {
+            Thread thread = new Thread(runnable);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+}
@@ -52,6 +52,26 @@ public class TestRandomly {
         } while (!encounteredEmptySubset || !encounteredOriginalSet || !encounteredStrictSubsetNonEmpty);
     }
 
+    @Test
+    public void testExtractNrRandomColumns() {
+        List<Integer> options = Arrays.asList(0, 1, 2, 3, 4);
+        int[] firstSelectedCounts = new int[options.size()];
+        for (int i = 0; i < NR_MIN_RUNS; i++) {
+            int nr = Randomly.getNotCachedInteger(0, options.size() + 1) == 0 ? 0 : 3;
+            List<Integer> selected = Randomly.extractNrRandomColumns(options, nr);
+            assertEquals(nr, selected.size());
+            assertEquals(nr, selected.stream().distinct().count());
+            if (nr != 0) {
+                firstSelectedCounts[selected.get(0)]++;
+            }
+        }
+        for (int count : firstSelectedCounts) {
+            assertTrue(count > 0);
+        }
+        assertEquals(Arrays.asList(0, 1, 2, 3, 4), options);
+        assertThrows(IndexOutOfBoundsException.class, () -> Randomly.extractNrRandomColumns(options, 6));
+    }
+
     @Test
     public void testString() {
         boolean encounteredInteger = false;
@@ -194,6 +214,19 @@ public class TestRandomly {
         }
     }
 
+    @Test // smallNumber() should be distributed like (int) Math.abs(nextGaussian()) * 2
+    public void testSmallNumber() {
+        int[] counts = new int[4];
+        for (int i = 0; i < NR_MIN_RUNS; i++) {
+            int value = Randomly.smallNumber();
+            assertTrue(value >= 0 && value % 2 == 0, String.valueOf(value));
+            counts[Math.min(value / 2, counts.length - 1)]++;
+        }
+        assertEquals(0.683, (double) counts[0] / NR_MIN_RUNS, 0.01);
+        assertEquals(0.272, (double) counts[1] / NR_MIN_RUNS, 0.01);
+        assertEquals(0.043, (double) counts[2] / NR_MIN_RUNS, 0.005);
+    }
+
     @Test // check that when given a seed, each thread computes a consistent result
     public void testSeed() {
         int seed = 123;
@@ -223,6 +256,16 @@ public class TestRandomly {
         }
     }
 
+    @Test
+    public void testSeparateGenerator() throws Exception {
+        new Randomly(123);
+        long expected = Randomly.getNotCachedInteger(0, Integer.MAX_VALUE);
+        new Randomly(123);
+        assertEquals(Randomly.withSeparateGenerator(() -> Randomly.getNotCachedInteger(0, Integer.MAX_VALUE)),
+                Randomly.withSeparateGenerator(() -> Randomly.getNotCachedInteger(0, Integer.MAX_VALUE)));
+        assertEquals(expected, Randomly.getNotCachedInteger(0, Integer.MAX_VALUE));
+    }
+
     private List<String> getRandomValueList(Randomly r) {
         List<String> values = new ArrayList<>();
         for (int i = 0; i < 1000; i++) {
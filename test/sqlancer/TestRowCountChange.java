@@ -0,0 +1,50 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.schema.RowCountChange;
+import sqlancer.common.schema.RowCountChange.Kind;
+
+public class TestRowCountChange {
+
+    private static void assertChange(String query, Kind kind, String tableName, boolean exact) {
+        RowCountChange change = RowCountChange.fromQueryString(query);
+        assertEquals(kind, change.getKind(), query);
+        assertEquals(tableName, change.getTableName(), query);
+        assertEquals(exact, change.isExact(), query);
+    }
+
+    @Test
+    public void testNoChange() {
+        assertChange("SELECT * FROM t0;", Kind.NONE, null, true);
+        assertChange("CREATE UNIQUE INDEX i0 ON t0(c0);", Kind.NONE, null, true);
+        assertChange("PRAGMA cache_size=1;", Kind.NONE, null, true);
+    }
+
+    @Test
+    public void testInsert() {
+        assertChange("INSERT INTO t0(c0) VALUES (1), (2);", Kind.INSERT, "t0", true);
+        assertChange("INSERT OR IGNORE INTO \"t1\" VALUES (1);", Kind.INSERT, "t1", true);
+        assertChange("INSERT IGNORE INTO t0 VALUES (1);", Kind.INSERT, "t0", true);
+        assertChange("INSERT OR REPLACE INTO t0 VALUES (1);", Kind.INSERT, "t0", false);
+        assertChange("REPLACE INTO t0 VALUES (1);", Kind.INSERT, "t0", false);
+        assertChange("INSERT INTO t0 VALUES (1) ON CONFLICT DO NOTHING;", Kind.INSERT, "t0", false);
+    }
+
+    @Test
+    public void testDeleteAndUpdate() {
+        assertChange("DELETE FROM t0 WHERE c0 > 1;", Kind.DELETE, "t0", true);
+        assertChange("UPDATE t0 SET c0=1;", Kind.UPDATE, "t0", true);
+        assertChange("UPDATE OR REPLACE t0 SET c0=1;", Kind.UPDATE, "t0", false);
+    }
+
+    @Test
+    public void testUnknown() {
+        assertChange("TRUNCATE t0;", Kind.UNKNOWN, null, false);
+        assertChange("ROLLBACK;", Kind.UNKNOWN, null, false);
+        assertChange("DELETE FROM main.t0;", Kind.UNKNOWN, null, false);
+    }
+
+}
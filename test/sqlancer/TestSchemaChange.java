@@ -0,0 +1,69 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.schema.SchemaChange;
+import sqlancer.common.schema.SchemaChange.Kind;
+import sqlancer.sqlite3.schema.SQLite3Schema;
+
+public class TestSchemaChange {
+
+    private static void assertChange(String query, Kind kind, String objectName) {
+        SchemaChange change = SchemaChange.fromQueryString(query);
+        assertEquals(kind, change.getKind(), query);
+        assertEquals(objectName, change.getObjectName(), query);
+    }
+
+    @Test
+    public void testNoChange() {
+        assertChange("INSERT OR IGNORE INTO t0(c0) VALUES (1);", Kind.NONE, null);
+        assertChange("  update t0 SET c0=1;", Kind.NONE, null);
+        assertChange("REINDEX;", Kind.NONE, null);
+        assertChange("COMMIT;", Kind.NONE, null);
+    }
+
+    @Test
+    public void testTables() {
+        assertChange("CREATE TABLE t0 (c0 INT);", Kind.CREATE_TABLE, "t0");
+        assertChange("CREATE TEMP TABLE IF NOT EXISTS t1(c0);", Kind.CREATE_TABLE, "t1");
+        assertChange("CREATE VIRTUAL TABLE vt0 USING fts5(c0);", Kind.CREATE_TABLE, "vt0");
+        assertChange("CREATE VIEW  IF NOT EXISTS v0(c0) AS SELECT 1;", Kind.CREATE_TABLE, "v0");
+        assertChange("DROP TABLE IF EXISTS t0;", Kind.DROP_TABLE, "t0");
+        assertChange("DROP VIEW v0;", Kind.DROP_TABLE, "v0");
+        assertChange("ALTER TABLE t0 ADD COLUMN c1 TEXT;", Kind.ALTER_TABLE, "t0");
+        assertChange("ALTER TABLE t0 RENAME COLUMN c0 TO c1;", Kind.ALTER_TABLE, "t0");
+    }
+
+    @Test
+    public void testIndexes() {
+        assertChange("CREATE UNIQUE INDEX IF NOT EXISTS i0 ON t0(c0);", Kind.CREATE_INDEX, "i0");
+        assertChange("DROP INDEX IF EXISTS \"i0\";", Kind.DROP_INDEX, "i0");
+    }
+
+    @Test
+    public void testSQLite3IndexNamesAreCaseInsensitive() throws SQLException {
+        SQLite3Schema schema = new SQLite3Schema(Collections.emptyList(), List.of("i0"));
+        SQLite3Schema created = schema.withSchemaChange(null,
+                SchemaChange.fromQueryString("CREATE INDEX IF NOT EXISTS I0 ON t0(c0);"));
+        assertEquals(List.of("i0"), created.getIndexNames());
+        SQLite3Schema dropped = created.withSchemaChange(null, SchemaChange.fromQueryString("DROP INDEX I0;"));
+        assertEquals(Collections.emptyList(), dropped.getIndexNames());
+    }
+
+    @Test
+    public void testUnknown() {
+        assertChange("ALTER TABLE t0 RENAME TO t1;", Kind.UNKNOWN, null);
+        assertChange("ALTER TABLE t0  RENAME TO t1;", Kind.UNKNOWN, null);
+        assertChange("ROLLBACK TRANSACTION;", Kind.UNKNOWN, null);
+        assertChange("CREATE TABLE temp.t0 (c0);", Kind.UNKNOWN, null);
+        assertNull(SchemaChange.fromQueryString("PRAGMA writable_schema=1;").getObjectName());
+    }
+
+}
@@ -0,0 +1,53 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.log.StatementJournal;
+import sqlancer.common.query.ExpectedErrors;
+import sqlancer.common.query.Query;
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.common.query.SQLQueryResultCheckAdapter;
+
+public class TestStatementJournal {
+
+    @Test
+    public void testRecreatesStatements() {
+        StringBuilder longString = new StringBuilder("INSERT INTO t0(c0) VALUES ('");
+        for (int i = 0; i < 1000; i++) {
+            longString.append("ä€");
+        }
+        longString.append("');");
+        List<SQLQueryAdapter> queries = Arrays.asList(new SQLQueryAdapter("CREATE TABLE t0(c0 TEXT);", true),
+                new SQLQueryAdapter("BEGIN", ExpectedErrors.from("error")), new SQLQueryAdapter(longString.toString()),
+                new SQLQueryAdapter("COMMIT;"), new SQLQueryAdapter("BEGIN;"), new SQLQueryAdapter("-- comment"));
+        StatementJournal journal = new StatementJournal();
+        journal.addAll(queries);
+        List<Query<?>> recreated = journal.getQueries();
+        assertEquals(queries.size(), journal.size());
+        assertEquals(queries.size(), recreated.size());
+        for (int i = 0; i < queries.size(); i++) {
+            assertEquals(queries.get(i).getLogString(), recreated.get(i).getLogString());
+            assertEquals(queries.get(i).couldAffectSchema(), recreated.get(i).couldAffectSchema());
+        }
+    }
+
+    @Test
+    public void testRetainsOtherQueries() {
+        SQLQueryAdapter query = new SQLQueryResultCheckAdapter("SELECT 1;", rs -> {
+        });
+        StatementJournal journal = new StatementJournal();
+        journal.add(new SQLQueryAdapter("SELECT 0;"));
+        journal.add(query);
+        assertSame(query, journal.getQueries().get(1));
+        journal.clear();
+        assertTrue(journal.getQueries().isEmpty());
+    }
+
+}
@@ -0,0 +1,90 @@
+package sqlancer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.query.SQLQueryAdapter;
+import sqlancer.sqlite3.SQLite3GlobalState;
+import sqlancer.sqlite3.SQLite3Options;
+import sqlancer.sqlite3.SQLite3Provider;
+
+public class TestStatementReducer {
+
+    private static final long SEED = 42;
+    private static final int NR_ROWS = 8;
+
+    private final SQLite3Provider provider = new SQLite3Provider();
+
+    private SQLite3GlobalState createGlobalState(String databaseName) {
+        SQLite3GlobalState globalState = new SQLite3GlobalState();
+        globalState.setState(provider.getStateToReproduce(databaseName));
+        globalState.setDatabaseName(databaseName);
+        globalState.setMainOptions(new MainOptions());
+        globalState.setDbmsSpecificOptions(new SQLite3Options());
+        return globalState;
+    }
+
+    // reduces the inserts to the two rows that trigger the "bug", and records a random number for each tested database
+    private Map<String, Long> reduce(int nrThreads) throws Exception {
+        SQLite3GlobalState state = createGlobalState("reducertest");
+        state.getState().logStatement(new SQLQueryAdapter("CREATE TABLE t0(c0 INT)", true));
+        for (int i = 0; i < NR_ROWS; i++) {
+            state.getState().logStatement(new SQLQueryAdapter("INSERT INTO t0 VALUES (" + i + ")"));
+        }
+        state.setRandomly(new Randomly(SEED));
+        Map<String, Long> randomNumbers = new ConcurrentHashMap<>();
+        Reproducer<SQLite3GlobalState> reproducer = globalState -> {
+            try (Statement s = globalState.getConnection().createStatement();
+                    ResultSet rs = s.executeQuery("SELECT GROUP_CONCAT(c0) FROM (SELECT c0 FROM t0 ORDER BY c0)")) {
+                rs.next();
+                String rows = String.valueOf(rs.getString(1));
+                randomNumbers.put(rows, Randomly.getNotCachedInteger(0, Integer.MAX_VALUE));
+                return rows.contains("3") && rows.contains("5");
+            } catch (SQLException e) {
+                return false;
+            }
+        };
+        new StatementReducer<>(provider, nrThreads, i -> createGlobalState("reducertest_reduce" + i)).reduce(state,
+                reproducer, createGlobalState("reducertest"));
+        return randomNumbers;
+    }
+
+    @Test
+    public void testReductionDoesNotDependOnNumberOfThreads() throws Exception {
+        Map<String, Long> sequential = reduce(1);
+        Map<String, Long> parallel = reduce(3);
+        // a batch of threads also tests the candidates after the first reproducing one
+        assertTrue(parallel.keySet().containsAll(sequential.keySet()));
+        for (Map.Entry<String, Long> entry : sequential.entrySet()) {
+            assertEquals(entry.getValue(), parallel.get(entry.getKey()), entry.getKey());
+        }
+    }
+
+    @Test
+    public void testGeneratorOfCallingThreadIsKept() throws Exception {
+        new Randomly(SEED);
+        long expected = Randomly.getNotCachedInteger(0, Integer.MAX_VALUE);
+        new Randomly(SEED);
+        reduce(3);
+        assertEquals(expected, Randomly.getNotCachedInteger(0, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void testAdditionalDatabasesAreDropped() throws Exception {
+        reduce(3);
+        for (int i = 1; i < 3; i++) {
+            assertFalse(new File("databases", "reducertest_reduce" + i + ".db").exists());
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package sqlancer.arangodb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.arangodb.velocypack.VPackBuilder;
+import com.arangodb.velocypack.VPackSlice;
+import com.arangodb.velocypack.ValueType;
+
+public class TestArangoDBComparatorHelper {
+
+    private static VPackSlice createDocument(String firstName, VPackSlice firstValue, String secondName,
+            VPackSlice secondValue) {
+        VPackBuilder builder = new VPackBuilder();
+        builder.add(ValueType.OBJECT);
+        builder.add(firstName, firstValue);
+        builder.add(secondName, secondValue);
+        builder.close();
+        return builder.slice();
+    }
+
+    private static VPackSlice createArray(VPackSlice... elements) {
+        VPackBuilder builder = new VPackBuilder();
+        builder.add(ValueType.ARRAY);
+        for (VPackSlice element : elements) {
+            builder.add(element);
+        }
+        builder.close();
+        return builder.slice();
+    }
+
+    private static VPackSlice createValue(Long value, ValueType type) {
+        return new VPackBuilder().add(value, type).slice();
+    }
+
+    private static VPackSlice createValue(String value) {
+        return new VPackBuilder().add(value).slice();
+    }
+
+    @Test
+    public void testDigestsIgnoreIntegerEncoding() {
+        VPackSlice smallInt = new VPackBuilder().add(1L).slice();
+        VPackSlice integer = createValue(1L, ValueType.INT);
+        VPackSlice unsignedInteger = new VPackBuilder().add(BigInteger.ONE, ValueType.UINT).slice();
+        assertEquals(ValueType.SMALLINT, smallInt.getType());
+        assertEquals(ValueType.INT, integer.getType());
+        assertEquals(ValueType.UINT, unsignedInteger.getType());
+        long[] digests = ArangoDBComparatorHelper
+                .getDigests(Arrays.asList(createDocument("a", smallInt, "b", createArray(smallInt)),
+                        createDocument("a", integer, "b", createArray(integer)),
+                        createDocument("a", unsignedInteger, "b", createArray(unsignedInteger))));
+        assertEquals(1, Arrays.stream(digests).distinct().count());
+    }
+
+    @Test
+    public void testDigestsOfDocumentsInArrays() {
+        VPackSlice one = createValue(1L, ValueType.INT);
+        VPackSlice x = createValue("x");
+        long[] digests = ArangoDBComparatorHelper.getDigests(
+                Arrays.asList(createDocument("a", createArray(createDocument("b", one, "c", x), one), "d", x),
+                        createDocument("a", createArray(one, createDocument("b", one, "c", x)), "d", x)));
+        long[] reorderedDigests = ArangoDBComparatorHelper.getDigests(
+                Arrays.asList(createDocument("d", x, "a", createArray(createDocument("c", x, "b", one), one)),
+                        createDocument("a", createArray(one, createDocument("c", x, "b", one)), "d", x)));
+        assertArrayEquals(digests, reorderedDigests);
+        // the order of the elements of an array matters
+        assertEquals(2, Arrays.stream(digests).distinct().count());
+    }
+
+}
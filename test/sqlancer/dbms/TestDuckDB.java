@@ -17,4 +17,10 @@ public class TestDuckDB {
                         "QUERY_PARTITIONING" }));
     }
 
+    @Test
+    public void testDuckDBPerformance() {
+        assertEquals(0, Main.executeMain(new String[] { "--random-seed", "0", "--timeout-seconds", TestConfig.SECONDS,
+                "--num-threads", "1", "--num-queries", TestConfig.NUM_QUERIES, "duckdb", "--oracle", "PERFORMANCE" }));
+    }
+
 }
@@ -19,4 +19,13 @@ public class TestH2 {
 
     }
 
+    @Test
+    public void testH2BatchedStatements() {
+        String h2Available = System.getenv("H2_AVAILABLE");
+        boolean h2IsAvailable = h2Available != null && h2Available.equalsIgnoreCase("true");
+        assumeTrue(h2IsAvailable);
+        assertEquals(0, Main.executeMain(new String[] { "--random-seed", "0", "--timeout-seconds", TestConfig.SECONDS,
+                "--num-threads", "4", "--num-queries", TestConfig.NUM_QUERIES, "--statement-batch-size", "16", "h2" }));
+    }
+
 }
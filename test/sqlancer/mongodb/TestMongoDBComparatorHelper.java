@@ -0,0 +1,65 @@
+package sqlancer.mongodb;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.bson.RawBsonDocument;
+import org.junit.jupiter.api.Test;
+
+import sqlancer.common.query.DocumentDigests;
+
+public class TestMongoDBComparatorHelper {
+
+    @Test
+    public void testSetComparison() {
+        assertTrue(DocumentDigests.haveSameDigests(new long[] { 3, 1, 2, 1 }, new long[] { 2, 3, 1, 3 }));
+        assertFalse(DocumentDigests.haveSameDigests(new long[] { 1, 2 }, new long[] { 1, 3 }));
+        assertArrayEquals(new int[] { 1, 3 },
+                DocumentDigests.getMissingPositions(new long[] { 1, 2, 3, 4 }, new long[] { 3, 1 }));
+    }
+
+    @Test
+    public void testDigestsIgnoreFieldOrder() {
+        long[] digests = MongoDBComparatorHelper.getDigests(Arrays.asList(
+                RawBsonDocument.parse("{a: 1, b: 'x', c: {d: 2.5, e: true}}"), RawBsonDocument.parse("{a: 2}")));
+        long[] reorderedDigests = MongoDBComparatorHelper.getDigests(Arrays.asList(
+                RawBsonDocument.parse("{c: {e: true, d: 2.5}, b: 'x', a: 1}"), RawBsonDocument.parse("{a: 2}")));
+        assertArrayEquals(digests, reorderedDigests);
+    }
+
+    @Test
+    public void testDigestsOfDocumentsInArrays() {
+        long[] digests = MongoDBComparatorHelper
+                .getDigests(Arrays.asList(RawBsonDocument.parse("{a: [1, {b: 2, c: [{d: 3, e: 4}]}]}")));
+        long[] reorderedDigests = MongoDBComparatorHelper
+                .getDigests(Arrays.asList(RawBsonDocument.parse("{a: [1, {c: [{e: 4, d: 3}], b: 2}]}")));
+        assertArrayEquals(digests, reorderedDigests);
+        long[] reorderedElementsDigests = MongoDBComparatorHelper
+                .getDigests(Arrays.asList(RawBsonDocument.parse("{a: [{b: 2, c: [{d: 3, e: 4}]}, 1]}")));
+        assertFalse(Arrays.equals(digests, reorderedElementsDigests));
+    }
+
+    @Test
+    public void testDigestsOfDocumentsAtAnOffset() {
+        RawBsonDocument document = RawBsonDocument.parse("{a: 1, b: 'x', c: [{d: 2}]}");
+        byte[] bytes = document.getByteBuffer().array();
+        byte[] paddedBytes = new byte[bytes.length + 7];
+        System.arraycopy(bytes, 0, paddedBytes, 7, bytes.length);
+        RawBsonDocument documentAtOffset = new RawBsonDocument(paddedBytes, 7, bytes.length);
+        assertArrayEquals(MongoDBComparatorHelper.getDigests(Arrays.asList(document)),
+                MongoDBComparatorHelper.getDigests(Arrays.asList(documentAtOffset)));
+    }
+
+    @Test
+    public void testDigestsDistinguishDocuments() {
+        long[] digests = MongoDBComparatorHelper.getDigests(Arrays.asList(RawBsonDocument.parse("{a: 1}"),
+                RawBsonDocument.parse("{a: NumberLong(1)}"), RawBsonDocument.parse("{b: 1}"),
+                RawBsonDocument.parse("{a: 1, b: null}"), RawBsonDocument.parse("{a: {a: 1}}")));
+        assertEquals(digests.length, Arrays.stream(digests).distinct().count());
+    }
+
+}
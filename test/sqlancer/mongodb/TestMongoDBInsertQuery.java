@@ -0,0 +1,93 @@
+package sqlancer.mongodb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.result.InsertManyResult;
+
+import sqlancer.mongodb.MongoDBProvider.MongoDBGlobalState;
+import sqlancer.mongodb.MongoDBSchema.MongoDBTable;
+import sqlancer.mongodb.query.MongoDBInsertQuery;
+
+public class TestMongoDBInsertQuery {
+
+    // a database whose collections fail to insert the document at the given index, as an ordered insertMany does
+    private static MongoDBGlobalState createGlobalState(int failingIndex, List<String> insertedCollections) {
+        MongoDatabase database = (MongoDatabase) Proxy.newProxyInstance(MongoDatabase.class.getClassLoader(),
+                new Class<?>[] { MongoDatabase.class }, (proxy, method, args) -> {
+                    String collectionName = (String) args[0];
+                    return Proxy.newProxyInstance(MongoCollection.class.getClassLoader(),
+                            new Class<?>[] { MongoCollection.class },
+                            (collectionProxy, collectionMethod, collectionArgs) -> {
+                                insertedCollections.add(collectionName);
+                                if (failingIndex < ((List<?>) collectionArgs[0]).size()) {
+                                    throw new MongoBulkWriteException(
+                                            BulkWriteResult.acknowledged(failingIndex, 0, 0, 0, Collections.emptyList(),
+                                                    Collections.emptyList()),
+                                            Collections.singletonList(new BulkWriteError(11000, "duplicate key",
+                                                    new BsonDocument(), failingIndex)),
+                                            null, new ServerAddress(), Collections.emptySet());
+                                }
+                                return InsertManyResult.acknowledged(Collections.emptyMap());
+                            });
+                });
+        MongoDBGlobalState globalState = new MongoDBGlobalState();
+        globalState.setConnection(new MongoDBConnection(null, database));
+        return globalState;
+    }
+
+    private static MongoDBInsertQuery createQuery() {
+        MongoDBTable t0 = new MongoDBTable("t0", Collections.emptyList(), false);
+        MongoDBTable t1 = new MongoDBTable("t1", Collections.emptyList(), false);
+        MongoDBInsertQuery query = new MongoDBInsertQuery();
+        for (String value : new String[] { "a", "b", "c", "d" }) {
+            query.addDocument(t0, new Document("c0", value));
+        }
+        query.addDocument(t1, new Document("c0", "e"));
+        return query;
+    }
+
+    @Test
+    public void testAllDocumentsInserted() throws Exception {
+        List<String> insertedCollections = new ArrayList<>();
+        MongoDBInsertQuery query = createQuery();
+        assertTrue(query.execute(createGlobalState(Integer.MAX_VALUE, insertedCollections)));
+        assertEquals("db.t0.insert({c0: \"a\"})\ndb.t0.insert({c0: \"b\"})\ndb.t0.insert({c0: \"c\"})\n"
+                + "db.t0.insert({c0: \"d\"})\ndb.t1.insert({c0: \"e\"})\n", query.getLogString());
+        assertEquals(List.of("t0", "t1"), insertedCollections);
+    }
+
+    @Test
+    public void testOnlyDocumentsBeforeFailureLogged() throws Exception {
+        List<String> insertedCollections = new ArrayList<>();
+        MongoDBInsertQuery query = createQuery();
+        assertTrue(query.execute(createGlobalState(2, insertedCollections)));
+        assertEquals("db.t0.insert({c0: \"a\"})\ndb.t0.insert({c0: \"b\"})\n", query.getLogString());
+        // the inserts are ordered, so the later collections are not inserted into
+        assertEquals(List.of("t0"), insertedCollections);
+    }
+
+    @Test
+    public void testFirstDocumentFails() throws Exception {
+        MongoDBInsertQuery query = createQuery();
+        assertFalse(query.execute(createGlobalState(0, new ArrayList<>())));
+        assertEquals("", query.getLogString());
+    }
+
+}
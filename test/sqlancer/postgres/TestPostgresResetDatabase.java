@@ -0,0 +1,79 @@
+package sqlancer.postgres;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+import sqlancer.Randomly;
+import sqlancer.SQLConnection;
+import sqlancer.StateToReproduce;
+import sqlancer.common.query.Query;
+
+public class TestPostgresResetDatabase {
+
+    // a connection that records the executed statements instead of sending them to a server
+    private static SQLConnection createConnection(List<String> executedStatements) {
+        Statement statement = (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(),
+                new Class<?>[] { Statement.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("execute")) {
+                        executedStatements.add((String) args[0]);
+                    }
+                    return method.getReturnType() == boolean.class ? false : null;
+                });
+        Connection connection = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("createStatement")) {
+                        return statement;
+                    }
+                    return method.getReturnType() == boolean.class ? false : null;
+                });
+        return new SQLConnection(connection);
+    }
+
+    private static PostgresGlobalState createGlobalState(PostgresProvider provider, boolean testCollations) {
+        PostgresGlobalState globalState = new PostgresGlobalState();
+        PostgresOptions options = new PostgresOptions();
+        options.testCollations = testCollations;
+        globalState.setDbmsSpecificOptions(options);
+        globalState.setRandomly(new Randomly(0));
+        globalState.setDatabaseName("database1");
+        globalState.setState(new StateToReproduce("database1", provider));
+        return globalState;
+    }
+
+    @Test
+    public void testResetIsLoggedAsCreation() throws Exception {
+        // a fresh provider, as created for each database, which did not create the reused database itself
+        PostgresProvider provider = new PostgresProvider();
+        PostgresGlobalState globalState = createGlobalState(provider, false);
+        List<String> executedStatements = new ArrayList<>();
+        assertTrue(provider.resetDatabase(globalState, createConnection(executedStatements)));
+        List<String> loggedStatements = globalState.getState().getStatements().stream().map(Query::getLogString)
+                .collect(Collectors.toList());
+        assertEquals(Arrays.asList("\\c test;", "DROP DATABASE IF EXISTS database1;", "CREATE DATABASE database1 ;",
+                "\\c database1;"), loggedStatements.subList(0, 4));
+        assertEquals(executedStatements.size(), loggedStatements.size() - 4);
+        assertFalse(loggedStatements.stream().anyMatch(s -> s.contains("null")));
+    }
+
+    @Test
+    public void testNoResetWithRandomCollations() throws Exception {
+        PostgresProvider provider = new PostgresProvider();
+        PostgresGlobalState globalState = createGlobalState(provider, true);
+        List<String> executedStatements = new ArrayList<>();
+        assertFalse(provider.resetDatabase(globalState, createConnection(executedStatements)));
+        assertTrue(executedStatements.isEmpty());
+        assertTrue(globalState.getState().getStatements().isEmpty());
+    }
+
+}
@@ -0,0 +1,44 @@
+package sqlancer.pqs.sqlite;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import sqlancer.sqlite3.ast.SQLite3Constant;
+import sqlancer.sqlite3.ast.SQLite3Expression;
+import sqlancer.sqlite3.ast.SQLite3Expression.InOperation;
+import sqlancer.sqlite3.ast.SQLite3Expression.Sqlite3BinaryOperation;
+import sqlancer.sqlite3.ast.SQLite3Expression.Sqlite3BinaryOperation.BinaryOperator;
+
+public class TestExpectedValue {
+
+    private static final int DEPTH = 200;
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    public void testDeepBinaryOperations() {
+        // each operation queries the expected value of its operands several times
+        SQLite3Expression expr = SQLite3Constant.createTrue();
+        for (int i = 0; i < DEPTH; i++) {
+            expr = new Sqlite3BinaryOperation(expr, SQLite3Constant.createIntConstant(1), BinaryOperator.AND);
+        }
+        assertEquals(1, expr.getExpectedValue().asInt());
+        assertEquals(1, expr.getExpectedValue().asInt());
+    }
+
+    @Test
+    @Timeout(value = 10, unit = TimeUnit.SECONDS)
+    public void testDeepInOperations() {
+        SQLite3Expression expr = SQLite3Constant.createTrue();
+        for (int i = 0; i < DEPTH; i++) {
+            expr = new InOperation(expr,
+                    Arrays.asList(SQLite3Constant.createIntConstant(0), SQLite3Constant.createIntConstant(1)));
+        }
+        assertEquals(1, expr.getExpectedValue().asInt());
+    }
+
+}